@@ -1,7 +1,7 @@
 package com.mes.techdebt.bootstrap.initialdata.impl;
 
 import com.mes.techdebt.bootstrap.initialdata.services.GenericLoadDataService;
-import com.cargill.techdebt.domain.*;
+import com.mes.techdebt.domain.*;
 import com.mes.techdebt.domain.AssessmentCriteria;
 import com.mes.techdebt.domain.AssessmentResult;
 import com.mes.techdebt.domain.RecommendationStatus;
@@ -46,8 +46,8 @@ public class AssessmentResultLoadDataServiceImpl implements GenericLoadDataServi
     public Long saveWithSpecificId(AssessmentResultDTO assessmentResultDTO) {
         String sqlQuery = "insert into assessment_result(id, score, recommendation_text, notes, " +
                 "create_date, created_by, update_date, updated_by, site_id, assessment_criteria_id," +
-                "recommendation_status_id) " +
-                "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                "recommendation_status_id, category_id, tech_area_id, tech_domain_id) " +
+                "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         AssessmentResult assessmentResult = assessmentResultRepository
                 .findById(assessmentResultDTO.getId())
@@ -86,11 +86,16 @@ public class AssessmentResultLoadDataServiceImpl implements GenericLoadDataServi
                 stmt.setString(4, assessmentResultDTO.getNotes());
                 stmt.setTimestamp(5, dateMapper.asTimestamp(assessmentResultDTO.getCreateDate()));
                 stmt.setString(6, assessmentResultDTO.getCreatedBy());
-                stmt.setTimestamp(7, dateMapper.asTimestamp(assessmentResultDTO.getUpdateDate()));
+                // The update date is mandatory, a result never updated was last written when created
+                stmt.setTimestamp(7, dateMapper.asTimestamp(assessmentResultDTO.getUpdateDate() != null
+                        ? assessmentResultDTO.getUpdateDate() : assessmentResultDTO.getCreateDate()));
                 stmt.setString(8, assessmentResultDTO.getUpdatedBy());
                 stmt.setLong(9, site.getId());
                 stmt.setLong(10, assessmentCriteria.getId());
                 stmt.setLong(11, recommendationStatus.getId());
+                stmt.setLong(12, assessmentCriteria.getCategory().getId());
+                stmt.setLong(13, assessmentCriteria.getCategory().getTechArea().getId());
+                stmt.setLong(14, assessmentCriteria.getCategory().getTechArea().getDomain().getId());
                 return stmt;
             }, keyHolder);
             return Objects.requireNonNull(keyHolder.getKey()).longValue();
@@ -7,10 +7,12 @@ import com.mes.techdebt.domain.Site;
 import com.mes.techdebt.repository.AssessmentCriteriaRepository;
 import com.mes.techdebt.repository.AttachmentRepository;
 import com.mes.techdebt.repository.SiteRepository;
+import com.mes.techdebt.service.AttachmentContentService;
 import com.mes.techdebt.service.dto.AttachmentDTO;
 import com.mes.techdebt.service.mapper.DateMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -18,6 +20,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.xml.bind.DatatypeConverter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.PreparedStatement;
 import java.util.List;
 import java.util.Objects;
@@ -37,11 +41,12 @@ public class AttachmentLoadDataServiceImpl implements GenericLoadDataService<Att
     private final AttachmentRepository attachmentRepository;
     private final SiteRepository siteRepository;
     private final AssessmentCriteriaRepository assessmentCriteriaRepository;
+    private final AttachmentContentService attachmentContentService;
     private final DateMapper dateMapper;
 
     @Override
     public Long saveWithSpecificId(AttachmentDTO attachmentDTO) {
-        String sqlQuery = "insert into attachment(id, file_name, data, file_type, file_size, " +
+        String sqlQuery = "insert into attachment(id, file_name, content_id, file_type, file_size, " +
                 "create_date, created_by, update_date, updated_by, site_id, assessment_criteria_id) " +
                 "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
@@ -58,13 +63,14 @@ public class AttachmentLoadDataServiceImpl implements GenericLoadDataService<Att
         log.debug("Requested Attachment for site: {}", site);
         log.debug("Requested Attachment for criteria: {}", assessmentCriteria);
         if(attachment == null && site != null  && assessmentCriteria != null){
+            // Current data has )x as representation in the beginning of hex value. Hex conversion is done after 2nd value
+            Long contentId = acquireContent(DatatypeConverter.parseHexBinary(attachmentDTO.getStringData().substring(2)));
             KeyHolder keyHolder = new GeneratedKeyHolder();
             jdbcTemplate.update(connection -> {
                 PreparedStatement stmt = connection.prepareStatement(sqlQuery, new String[]{"id"});
                 stmt.setLong(1, attachmentDTO.getId());
                 stmt.setString(2, attachmentDTO.getFileName());
-                // Current data has )x as representation in the beginning of hex value. Hex conversion is done after 2nd value
-                stmt.setBytes(3, DatatypeConverter.parseHexBinary(attachmentDTO.getStringData().substring(2)));
+                stmt.setLong(3, contentId);
                 stmt.setString(4, attachmentDTO.getFileType());
                 // Unknown file size is indicated as -1
                 stmt.setLong(5, attachmentDTO.getFileSize() == null ? UNKNOWN_FILE_SIZE_VALUE : attachmentDTO.getFileSize());
@@ -82,6 +88,14 @@ public class AttachmentLoadDataServiceImpl implements GenericLoadDataService<Att
         }
     }
 
+    private Long acquireContent(byte[] data) {
+        try {
+            return attachmentContentService.acquire(new ByteArrayResource(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Override
     public List<Long> saveAllWithSpecificId(List<AttachmentDTO> attachmentDTOs) {
         log.info("Request to save attachmentRepository.count() : {}", attachmentRepository.count());
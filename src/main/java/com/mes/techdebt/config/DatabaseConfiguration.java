@@ -5,6 +5,6 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @Configuration
-@EnableJpaRepositories({ "com.cargill.techdebt.repository" })
+@EnableJpaRepositories({ "com.mes.techdebt.repository" })
 @EnableTransactionManagement
 public class DatabaseConfiguration {}
@@ -0,0 +1,13 @@
+package com.mes.techdebt.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@link org.springframework.scheduling.annotation.Scheduled} jobs, on the pool sized by
+ * {@code spring.task.scheduling.pool.size}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
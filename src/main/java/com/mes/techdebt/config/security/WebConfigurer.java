@@ -36,11 +36,13 @@ public class WebConfigurer implements WebMvcConfigurer {
                 .allowedMethods("GET, POST, DELETE, OPTIONS, PUT", "PATCH")
                 .allowedHeaders("X-PINGOTHER","Access-Control-Allow-Origin","Origin","Authorization",
                         "X-Requested-With","X-HTTP-Method-Override", "X-XSRF-TOKEN",
-                        "Content-Type","Accept","X-Auth-Token","Cache-Control", "x-capi-version")
+                        "Content-Type","Accept","X-Auth-Token","Cache-Control", "x-capi-version", "If-None-Match", "If-Match",
+                        "Range", "If-Range")
                 .exposedHeaders("Access-Control-Expose-Headers", "Authorization", "Cache-Control",
                         "Content-Type", "Access-Control-Allow-Origin", "X-XSRF-TOKEN",
                         "Access-Control-Allow-Headers", "Origin",
-                        "X-Requested-With","X-HTTP-Method-Override", "Accept", "x-capi-version")
+                        "X-Requested-With","X-HTTP-Method-Override", "Accept", "x-capi-version", "ETag",
+                        "Accept-Ranges", "Content-Range")
                 .maxAge(60000)
                 .allowCredentials(true);
         log.info("Cors Registry: {}", registry);
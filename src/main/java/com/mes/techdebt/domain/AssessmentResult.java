@@ -28,6 +28,13 @@ public class AssessmentResult implements Serializable {
     @Column(name = "id")
     private Long id;
 
+    /**
+     * Optimistic lock version, see the package documentation.
+     */
+    @Version
+    @Column(name = "version")
+    private long version;
+
     @Column(name = "score")
     private Double score;
 
@@ -45,7 +52,7 @@ public class AssessmentResult implements Serializable {
     private String createdBy;
 
     @UpdateTimestamp
-    @Column(name = "update_date", updatable = true)
+    @Column(name = "update_date", nullable = false, updatable = true)
     private Timestamp updateDate;
 
     @Column(name = "updated_by")
@@ -62,6 +69,19 @@ public class AssessmentResult implements Serializable {
     @ManyToOne
     private RecommendationStatus recommendationStatus;
 
+    /*
+     * Copies of the hierarchy of the assessment criteria, so results are filtered and counted by category, tech area
+     * or domain without joining the hierarchy. Set on every write and re-synced when the hierarchy is re-parented.
+     */
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "tech_area_id")
+    private Long techAreaId;
+
+    @Column(name = "tech_domain_id")
+    private Long techDomainId;
+
     public AssessmentResult id(Long id) {
         this.setId(id);
         return this;
@@ -117,6 +137,17 @@ public class AssessmentResult implements Serializable {
         return this;
     }
 
+    @PrePersist
+    @PreUpdate
+    protected void copyHierarchyIds() {
+        Category category = assessmentCriteria != null ? assessmentCriteria.getCategory() : null;
+        TechArea techArea = category != null ? category.getTechArea() : null;
+        TechDomain techDomain = techArea != null ? techArea.getDomain() : null;
+        this.categoryId = category != null ? category.getId() : null;
+        this.techAreaId = techArea != null ? techArea.getId() : null;
+        this.techDomainId = techDomain != null ? techDomain.getId() : null;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -37,9 +37,11 @@ public class Attachment implements Serializable {
     @Column(name = "file_size")
     private Long fileSize;
 
-    @Lob
-    @Type(type="org.hibernate.type.BinaryType")
-    private byte[] data;
+    /**
+     * The binary content, shared with the attachments of identical files.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    private AttachmentContent content;
 
     @ManyToOne
     @JsonIgnoreProperties(value = { "investmentCriticality" }, allowSetters = true)
@@ -83,8 +85,8 @@ public class Attachment implements Serializable {
         return this;
     }
 
-    public Attachment data(byte[] data) {
-        this.setData(data);
+    public Attachment content(AttachmentContent content) {
+        this.setContent(content);
         return this;
     }
 
@@ -0,0 +1,103 @@
+package com.mes.techdebt.domain;
+
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * A AttachmentContent, the binary content shared by the {@link Attachment}s of identical files. It is stored once per
+ * SHA-256, and deleted with the last attachment referring to it.
+ * <p>
+ * The reference count is only changed by update statements, so updates of the entity leave it out.
+ */
+@Entity
+@Table(name = "attachment_content")
+@DynamicUpdate
+@Data
+public class AttachmentContent implements Serializable {
+
+    private static final long serialVersionUID = 2956471302880163947L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * SHA-256 of the content, in lowercase hexadecimal.
+     */
+    @Column(name = "hash", nullable = false, updatable = false)
+    private String hash;
+
+    /**
+     * Name of the {@code AttachmentStore} holding the content. The content itself is not mapped, so loading it never
+     * loads the content.
+     */
+    @Column(name = "storage", nullable = false)
+    private String storage;
+
+    @Column(name = "content_key")
+    private String contentKey;
+
+    @Column(name = "length", nullable = false, updatable = false)
+    private Long length;
+
+    @Column(name = "reference_count", nullable = false)
+    private int referenceCount;
+
+    @CreationTimestamp
+    @Column(name = "create_date", updatable = false)
+    private Timestamp createDate;
+
+    public AttachmentContent id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public AttachmentContent hash(String hash) {
+        this.setHash(hash);
+        return this;
+    }
+
+    public AttachmentContent storage(String storage) {
+        this.setStorage(storage);
+        return this;
+    }
+
+    public AttachmentContent contentKey(String contentKey) {
+        this.setContentKey(contentKey);
+        return this;
+    }
+
+    public AttachmentContent length(Long length) {
+        this.setLength(length);
+        return this;
+    }
+
+    public AttachmentContent referenceCount(int referenceCount) {
+        this.setReferenceCount(referenceCount);
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AttachmentContent)) {
+            return false;
+        }
+        return id != null && id.equals(((AttachmentContent) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,58 @@
+package com.mes.techdebt.domain;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * A ChangeCounter, counting the committed changes of a site or of the hierarchy. Views kept in memory by an
+ * application instance record the count they were built at, and are rebuilt once it has moved, whichever instance
+ * committed the change.
+ * <p>
+ * The count is only changed by update statements, so the entity is never updated.
+ */
+@Entity
+@Table(name = "change_counter")
+@Data
+public class ChangeCounter implements Serializable {
+
+    private static final long serialVersionUID = -6182059314712508829L;
+
+    public static final String HIERARCHY = "hierarchy";
+    public static final String SITE_PREFIX = "site-";
+
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "change_count", nullable = false)
+    private long changeCount;
+
+    public ChangeCounter name(String name) {
+        this.setName(name);
+        return this;
+    }
+
+    public ChangeCounter changeCount(long changeCount) {
+        this.setChangeCount(changeCount);
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChangeCounter)) {
+            return false;
+        }
+        return name != null && name.equals(((ChangeCounter) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+}
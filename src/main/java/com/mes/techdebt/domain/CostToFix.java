@@ -25,6 +25,13 @@ public class CostToFix implements Serializable {
     @Column(name = "id")
     private Long id;
 
+    /**
+     * Optimistic lock version, see the package documentation.
+     */
+    @Version
+    @Column(name = "version")
+    private long version;
+
     @ManyToOne
     @JsonIgnoreProperties(value = { "investmentCriticality" }, allowSetters = true)
     private Site site;
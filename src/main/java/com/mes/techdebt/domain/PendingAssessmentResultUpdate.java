@@ -0,0 +1,100 @@
+package com.mes.techdebt.domain;
+
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * A PendingAssessmentResultUpdate, holding a partial update of an assessment result that was acknowledged
+ * but not applied yet. Updates are applied in id order, then deleted. Updates that cannot be applied are kept
+ * with the {@link #STATUS_DEAD_LETTER} status.
+ */
+@Entity
+@Table(name = "pending_assessment_result_update")
+@Data
+public class PendingAssessmentResultUpdate implements Serializable {
+
+    private static final long serialVersionUID = -3905712250153843179L;
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_DEAD_LETTER = "DEAD_LETTER";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "assessment_result_id")
+    private Long assessmentResultId;
+
+    /**
+     * The partial update, as the JSON of an assessment result with only the updated fields set.
+     */
+    @Column(name = "payload")
+    private String payload;
+
+    /**
+     * The version of the assessment result when the update was queued, or {@code null} to apply it unconditionally.
+     */
+    @Column(name = "expected_version")
+    private Long expectedVersion;
+
+    @Column(name = "status", nullable = false)
+    private String status = STATUS_PENDING;
+
+    @Column(name = "attempt_count", nullable = false)
+    private int attemptCount;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "create_date", updatable = false)
+    private Timestamp createDate;
+
+    public PendingAssessmentResultUpdate id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public PendingAssessmentResultUpdate assessmentResultId(Long assessmentResultId) {
+        this.setAssessmentResultId(assessmentResultId);
+        return this;
+    }
+
+    public PendingAssessmentResultUpdate payload(String payload) {
+        this.setPayload(payload);
+        return this;
+    }
+
+    public PendingAssessmentResultUpdate expectedVersion(Long expectedVersion) {
+        this.setExpectedVersion(expectedVersion);
+        return this;
+    }
+
+    public PendingAssessmentResultUpdate status(String status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PendingAssessmentResultUpdate)) {
+            return false;
+        }
+        return id != null && id.equals(((PendingAssessmentResultUpdate) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+}
@@ -22,6 +22,13 @@ public class Site implements Serializable {
     @Column(name = "id")
     private Long id;
 
+    /**
+     * Optimistic lock version, see the package documentation.
+     */
+    @Version
+    @Column(name = "version")
+    private long version;
+
     @Column(name = "name")
     private String name;
 
@@ -0,0 +1,87 @@
+package com.mes.techdebt.domain;
+
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * A Tombstone, recording the deletion of an assessment result or attachment of a site
+ * so that clients syncing the site since an earlier date can drop their copy.
+ */
+@Entity
+@Table(name = "tombstone")
+@Data
+public class Tombstone implements Serializable {
+
+    private static final long serialVersionUID = 4630928014386297641L;
+
+    public static final String ASSESSMENT_RESULT = "assessmentResult";
+    public static final String ATTACHMENT = "attachment";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "entity_name")
+    private String entityName;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(name = "site_id")
+    private Long siteId;
+
+    @Column(name = "assessment_criteria_id")
+    private Long assessmentCriteriaId;
+
+    @CreationTimestamp
+    @Column(name = "delete_date", updatable = false)
+    private Timestamp deleteDate;
+
+    public Tombstone id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public Tombstone entityName(String entityName) {
+        this.setEntityName(entityName);
+        return this;
+    }
+
+    public Tombstone entityId(Long entityId) {
+        this.setEntityId(entityId);
+        return this;
+    }
+
+    public Tombstone siteId(Long siteId) {
+        this.setSiteId(siteId);
+        return this;
+    }
+
+    public Tombstone assessmentCriteriaId(Long assessmentCriteriaId) {
+        this.setAssessmentCriteriaId(assessmentCriteriaId);
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Tombstone)) {
+            return false;
+        }
+        return id != null && id.equals(((Tombstone) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+}
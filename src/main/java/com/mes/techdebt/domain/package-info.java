@@ -1 +1,8 @@
-package com.mes.techdebt.domain;
\ No newline at end of file
+/**
+ * JPA domain objects.
+ * <p>
+ * Entities written concurrently carry a {@code @Version}, incremented on every update, which only succeeds if the
+ * row still has the version that was read. The version is a primitive, so that Hibernate and Spring Data tell new
+ * entities by their id, references built from DTOs not carrying the version being existing entities.
+ */
+package com.mes.techdebt.domain;
@@ -2,8 +2,12 @@ package com.mes.techdebt.repository;
 
 import com.mes.techdebt.domain.AssessmentCriteria;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,4 +17,17 @@ import java.util.Optional;
 @Repository
 public interface AssessmentCriteriaRepository extends JpaRepository<AssessmentCriteria, Long> {
     Optional<AssessmentCriteria> findByDescription(String description);
+
+    @Query("select assessmentCriteria from AssessmentCriteria assessmentCriteria " +
+            "left join fetch assessmentCriteria.category category " +
+            "left join fetch category.techArea techArea " +
+            "left join fetch techArea.domain")
+    List<AssessmentCriteria> findAllWithHierarchy();
+
+    @Query("select assessmentCriteria from AssessmentCriteria assessmentCriteria " +
+            "left join fetch assessmentCriteria.category category " +
+            "left join fetch category.techArea techArea " +
+            "left join fetch techArea.domain " +
+            "where assessmentCriteria.id in :ids")
+    List<AssessmentCriteria> findWithHierarchyByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,40 @@
+package com.mes.techdebt.repository;
+
+import com.mes.techdebt.domain.AssessmentResult;
+import com.mes.techdebt.repository.projection.ScoreHistoryBucket;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Time-bucketed aggregates of {@link AssessmentResult}, computed by the database.
+ */
+public interface AssessmentResultHistoryRepository {
+
+    String UNIT_DAY = "day";
+    String UNIT_WEEK = "week";
+    String UNIT_MONTH = "month";
+
+    String LEVEL_TECH_DOMAIN = "TECH_DOMAIN";
+    String LEVEL_TECH_AREA = "TECH_AREA";
+    String LEVEL_CATEGORY = "CATEGORY";
+    String LEVEL_ASSESSMENT_CRITERIA = "ASSESSMENT_CRITERIA";
+
+    /**
+     * Result count, score count and score sum per bucket of update date and recommendation status, oldest bucket first.
+     * Only the buckets holding results are returned.
+     *
+     * @param unit one of {@link #UNIT_DAY}, {@link #UNIT_WEEK} or {@link #UNIT_MONTH}.
+     * @param from inclusive lower bound of the update date.
+     * @param to exclusive upper bound of the update date.
+     * @param siteIds the sites of the results, or {@code null} for all the sites.
+     * @param regions the regions of the sites of the results, or {@code null} for all the regions.
+     * @param hierarchyLevel one of the {@code LEVEL_*} constants, or {@code null} for the whole hierarchy.
+     * @param hierarchyId the id of the hierarchy node at that level, required with a level.
+     * @return the buckets.
+     */
+    List<ScoreHistoryBucket> findScoreHistory(String unit, Timestamp from, Timestamp to,
+                                              Collection<Long> siteIds, Collection<String> regions,
+                                              String hierarchyLevel, Long hierarchyId);
+}
@@ -0,0 +1,101 @@
+package com.mes.techdebt.repository;
+
+import com.mes.techdebt.repository.projection.ScoreHistoryBucket;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Buckets the results with {@code date_trunc}, so the payload only depends on the number of buckets, not on the
+ * number of results. The statement only holds the filters that are given, bound as parameters; the unit and the
+ * hierarchy column come from fixed lists.
+ */
+@RequiredArgsConstructor
+public class AssessmentResultHistoryRepositoryImpl implements AssessmentResultHistoryRepository {
+
+    private static final Set<String> UNITS = Set.of(UNIT_DAY, UNIT_WEEK, UNIT_MONTH);
+
+    private static final Map<String, String> HIERARCHY_COLUMNS = Map.of(
+            LEVEL_TECH_DOMAIN, "assessment_result.tech_domain_id",
+            LEVEL_TECH_AREA, "assessment_result.tech_area_id",
+            LEVEL_CATEGORY, "assessment_result.category_id",
+            LEVEL_ASSESSMENT_CRITERIA, "assessment_result.assessment_criteria_id");
+
+    private final EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ScoreHistoryBucket> findScoreHistory(String unit, Timestamp from, Timestamp to,
+                                                     Collection<Long> siteIds, Collection<String> regions,
+                                                     String hierarchyLevel, Long hierarchyId) {
+        if (!UNITS.contains(unit)) {
+            throw new IllegalArgumentException("Unknown time unit: " + unit);
+        }
+        String bucket = "date_trunc('" + unit + "', assessment_result.update_date)";
+        boolean hasSites = siteIds != null && !siteIds.isEmpty();
+        boolean hasRegions = regions != null && !regions.isEmpty();
+        String hierarchyColumn = null;
+        if (hierarchyLevel != null) {
+            hierarchyColumn = HIERARCHY_COLUMNS.get(hierarchyLevel);
+            if (hierarchyColumn == null) {
+                throw new IllegalArgumentException("Unknown hierarchy level: " + hierarchyLevel);
+            }
+            if (hierarchyId == null) {
+                throw new IllegalArgumentException("No hierarchy id given for level: " + hierarchyLevel);
+            }
+        }
+
+        StringBuilder sql = new StringBuilder("select ").append(bucket).append(" as bucket, ")
+                .append("assessment_result.recommendation_status_id as recommendation_status_id, ")
+                .append("count(*) as result_count, count(assessment_result.score) as score_count, ")
+                .append("sum(assessment_result.score) as score_sum ")
+                .append("from assessment_result ");
+        if (hasRegions) {
+            sql.append("join site on site.id = assessment_result.site_id ");
+        }
+        sql.append("where assessment_result.update_date >= :from and assessment_result.update_date < :to ");
+        if (hasSites) {
+            sql.append("and assessment_result.site_id in (:siteIds) ");
+        }
+        if (hasRegions) {
+            sql.append("and site.region in (:regions) ");
+        }
+        if (hierarchyColumn != null) {
+            sql.append("and ").append(hierarchyColumn).append(" = :hierarchyId ");
+        }
+        sql.append("group by ").append(bucket).append(", assessment_result.recommendation_status_id ")
+                .append("order by bucket, recommendation_status_id");
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql.toString()).unwrap(NativeQuery.class);
+        query.addScalar("bucket", StandardBasicTypes.TIMESTAMP)
+                .addScalar("recommendation_status_id", StandardBasicTypes.LONG)
+                .addScalar("result_count", StandardBasicTypes.LONG)
+                .addScalar("score_count", StandardBasicTypes.LONG)
+                .addScalar("score_sum", StandardBasicTypes.DOUBLE);
+        query.setParameter("from", from).setParameter("to", to);
+        if (hasSites) {
+            query.setParameterList("siteIds", siteIds);
+        }
+        if (hasRegions) {
+            query.setParameterList("regions", regions);
+        }
+        if (hierarchyColumn != null) {
+            query.setParameter("hierarchyId", hierarchyId);
+        }
+        return query.getResultList().stream()
+                .map(row -> new ScoreHistoryBucket(
+                        (Timestamp) row[0],
+                        (Long) row[1],
+                        (Long) row[2],
+                        (Long) row[3],
+                        (Double) row[4]))
+                .toList();
+    }
+}
@@ -0,0 +1,43 @@
+package com.mes.techdebt.repository;
+
+import com.mes.techdebt.domain.AssessmentResult;
+import com.mes.techdebt.repository.projection.ArchivedAssessmentResult;
+
+import java.util.List;
+
+/**
+ * Maintenance of the yearly partitions of {@link AssessmentResult}, by update date in UTC.
+ * Only available on PostgreSQL, where the table is partitioned.
+ */
+public interface AssessmentResultPartitionRepository {
+
+    /**
+     * @return the years having a partition, oldest first. The default partition is not included.
+     */
+    List<Integer> findPartitionYears();
+
+    /**
+     * Creates the partition of the results updated during the year, unless it exists.
+     * Fails while the default partition holds results of that year.
+     *
+     * @param year the year.
+     */
+    void createPartition(int year);
+
+    /**
+     * Moves the results of the partition of the year to the archive table, once a later result of the same site and
+     * criteria supersedes them. The latest result and the latest scored result of a site and criteria are kept.
+     *
+     * @param year the year of the partition.
+     * @return the archived results.
+     */
+    List<ArchivedAssessmentResult> archiveSupersededResults(int year);
+
+    /**
+     * Detaches and drops the partition of the year, if it holds no result.
+     *
+     * @param year the year of the partition.
+     * @return whether the partition was dropped.
+     */
+    boolean dropPartitionIfEmpty(int year);
+}
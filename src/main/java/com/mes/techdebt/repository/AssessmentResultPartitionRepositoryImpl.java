@@ -0,0 +1,87 @@
+package com.mes.techdebt.repository;
+
+import com.mes.techdebt.repository.projection.ArchivedAssessmentResult;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * Partitions are named after their year, which is an int, so it is safe to concatenate into the statements.
+ */
+@RequiredArgsConstructor
+public class AssessmentResultPartitionRepositoryImpl implements AssessmentResultPartitionRepository {
+
+    private static final String PARTITION_PREFIX = "assessment_result_y";
+
+    // Copied by name, so the archive table does not depend on the column order of assessment_result
+    private static final String ARCHIVED_COLUMNS = "id, version, score, recommendation_text, notes, " +
+            "create_date, created_by, update_date, updated_by, site_id, assessment_criteria_id, recommendation_status_id, " +
+            "category_id, tech_area_id, tech_domain_id";
+
+    private final EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Integer> findPartitionYears() {
+        return entityManager.createNativeQuery("select cast(substring(partition.relname from " + (PARTITION_PREFIX.length() + 1) + ") as integer) " +
+                        "from pg_inherits join pg_class partition on partition.oid = pg_inherits.inhrelid " +
+                        "where pg_inherits.inhparent = cast('public.assessment_result' as regclass) " +
+                        "and partition.relname ~ '^" + PARTITION_PREFIX + "[0-9]{4}$' " +
+                        "order by 1")
+                .getResultList();
+    }
+
+    @Override
+    public void createPartition(int year) {
+        entityManager.createNativeQuery("create table if not exists " + partition(year) +
+                        " partition of public.assessment_result " +
+                        "for values from ('" + year + "-01-01 00:00:00+00') to ('" + (year + 1) + "-01-01 00:00:00+00')")
+                .executeUpdate();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ArchivedAssessmentResult> archiveSupersededResults(int year) {
+        // Same ranking as the latest results: update date, then id. A later unscored result does not supersede a
+        // scored one, which still is the latest scored result
+        NativeQuery<Object[]> query = entityManager.createNativeQuery("with archived as (" +
+                        "delete from " + partition(year) + " archived_result " +
+                        "where exists (select 1 from public.assessment_result later_result " +
+                        "where later_result.site_id = archived_result.site_id " +
+                        "and later_result.assessment_criteria_id = archived_result.assessment_criteria_id " +
+                        "and (later_result.update_date > archived_result.update_date " +
+                        "or (later_result.update_date = archived_result.update_date and later_result.id > archived_result.id)) " +
+                        "and (later_result.score is not null or archived_result.score is null)) " +
+                        "returning " + ARCHIVED_COLUMNS + "), " +
+                        "copied as (insert into public.assessment_result_archive (" + ARCHIVED_COLUMNS + ") " +
+                        "select " + ARCHIVED_COLUMNS + " from archived) " +
+                        "select id, site_id, assessment_criteria_id from archived")
+                .unwrap(NativeQuery.class);
+        query.addScalar("id", StandardBasicTypes.LONG)
+                .addScalar("site_id", StandardBasicTypes.LONG)
+                .addScalar("assessment_criteria_id", StandardBasicTypes.LONG);
+        return query.getResultList().stream()
+                .map(row -> new ArchivedAssessmentResult((Long) row[0], (Long) row[1], (Long) row[2]))
+                .toList();
+    }
+
+    @Override
+    public boolean dropPartitionIfEmpty(int year) {
+        boolean empty = (Boolean) entityManager
+                .createNativeQuery("select not exists (select 1 from " + partition(year) + ")")
+                .getSingleResult();
+        if (empty) {
+            entityManager.createNativeQuery("alter table public.assessment_result detach partition " + partition(year))
+                    .executeUpdate();
+            entityManager.createNativeQuery("drop table " + partition(year)).executeUpdate();
+        }
+        return empty;
+    }
+
+    private static String partition(int year) {
+        return "public." + PARTITION_PREFIX + year;
+    }
+}
@@ -1,9 +1,19 @@
 package com.mes.techdebt.repository;
 
 import com.mes.techdebt.domain.AssessmentResult;
+import com.mes.techdebt.repository.projection.HierarchyScoreRollup;
+import com.mes.techdebt.repository.projection.HierarchyUsageCount;
+import com.mes.techdebt.repository.projection.SiteCategoryScore;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,16 +22,293 @@ import java.util.Optional;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AssessmentResultRepository extends JpaRepository<AssessmentResult, Long> {
+public interface AssessmentResultRepository extends JpaRepository<AssessmentResult, Long>, AssessmentResultRowRepository,
+        AssessmentResultHistoryRepository, AssessmentResultPartitionRepository {
 
-    Optional<List<AssessmentResult>> findBySite_NameOrderByUpdateDateDesc(String siteName);
+    /**
+     * Orders the results from the latest, the way the latest result of a site and criteria is ranked, so a result
+     * without update date never comes first.
+     */
+    String LATEST_FIRST_ORDER = "order by assessmentResult.updateDate desc nulls last, assessmentResult.id desc";
+
+    /**
+     * Orders the results of a group so that the most recently updated scored result comes first.
+     */
+    String LATEST_SCORE_ORDER = "order by case when assessment_result.score is null then 1 else 0 end, " +
+            "assessment_result.update_date desc nulls last, assessment_result.id desc";
+
+    String LEVEL_ID = "case levels.hierarchy_level " +
+            "when 'TECH_DOMAIN' then ranked.tech_domain_id " +
+            "when 'TECH_AREA' then ranked.tech_area_id " +
+            "when 'CATEGORY' then ranked.category_id end";
+
+    String LEVEL_DESCRIPTION = "case levels.hierarchy_level " +
+            "when 'TECH_DOMAIN' then ranked.tech_domain_description " +
+            "when 'TECH_AREA' then ranked.tech_area_description " +
+            "when 'CATEGORY' then ranked.category_description end";
+
+    String LEVEL_PARENT_ID = "case levels.hierarchy_level " +
+            "when 'TECH_AREA' then ranked.tech_domain_id " +
+            "when 'CATEGORY' then ranked.tech_area_id end";
+
+    String LEVEL_POSITION = "case levels.hierarchy_level " +
+            "when 'TECH_DOMAIN' then ranked.tech_domain_position " +
+            "when 'TECH_AREA' then ranked.tech_area_position " +
+            "when 'CATEGORY' then ranked.category_position " +
+            "else ranked.total_position end";
+
+    /**
+     * Copies the hierarchy ids of the assessment criteria onto its results, for the results whose copies are out of date.
+     * Callers narrow the {@code exists} clause down to one node of the hierarchy and close it.
+     */
+    String SYNC_HIERARCHY_IDS = "update assessment_result set " +
+            "category_id = (select assessment_criteria.category_id from assessment_criteria " +
+            "where assessment_criteria.id = assessment_result.assessment_criteria_id), " +
+            "tech_area_id = (select category.tech_area_id from assessment_criteria " +
+            "join category on category.id = assessment_criteria.category_id " +
+            "where assessment_criteria.id = assessment_result.assessment_criteria_id), " +
+            "tech_domain_id = (select tech_area.domain_id from assessment_criteria " +
+            "join category on category.id = assessment_criteria.category_id " +
+            "join tech_area on tech_area.id = category.tech_area_id " +
+            "where assessment_criteria.id = assessment_result.assessment_criteria_id) " +
+            "where exists (select 1 from assessment_criteria " +
+            "left join category on category.id = assessment_criteria.category_id " +
+            "left join tech_area on tech_area.id = category.tech_area_id " +
+            "where assessment_criteria.id = assessment_result.assessment_criteria_id " +
+            "and (assessment_result.category_id is distinct from category.id " +
+            "or assessment_result.tech_area_id is distinct from tech_area.id " +
+            "or assessment_result.tech_domain_id is distinct from tech_area.domain_id) ";
+
+    @Query("select assessmentResult from AssessmentResult assessmentResult " +
+            "join fetch assessmentResult.site site " +
+            "left join fetch site.investmentCriticality " +
+            "left join fetch assessmentResult.recommendationStatus " +
+            "left join fetch assessmentResult.assessmentCriteria assessmentCriteria " +
+            "left join fetch assessmentCriteria.category category " +
+            "left join fetch category.techArea techArea " +
+            "left join fetch techArea.domain " +
+            "where site.name = :siteName " +
+            LATEST_FIRST_ORDER)
+    Optional<List<AssessmentResult>> findBySite_NameOrderByUpdateDateDesc(@Param("siteName") String siteName);
+
+    @Query("select assessmentResult from AssessmentResult assessmentResult " +
+            "join fetch assessmentResult.site site " +
+            "left join fetch site.investmentCriticality " +
+            "left join fetch assessmentResult.recommendationStatus " +
+            "left join fetch assessmentResult.assessmentCriteria assessmentCriteria " +
+            "left join fetch assessmentCriteria.category category " +
+            "left join fetch category.techArea techArea " +
+            "left join fetch techArea.domain " +
+            "where site.id = :siteId and assessmentResult.updateDate > :since " +
+            "order by assessmentResult.updateDate, assessmentResult.id")
+    List<AssessmentResult> findBySite_IdAndUpdateDateAfterOrderByUpdateDate(@Param("siteId") Long siteId,
+                                                                            @Param("since") Timestamp since);
+
+    /**
+     * First page of all the assessment results, most recently updated first.
+     */
+    @Query("select assessmentResult from AssessmentResult assessmentResult " +
+            "join fetch assessmentResult.site site " +
+            "left join fetch site.investmentCriticality " +
+            "left join fetch assessmentResult.recommendationStatus " +
+            "left join fetch assessmentResult.assessmentCriteria assessmentCriteria " +
+            "left join fetch assessmentCriteria.category category " +
+            "left join fetch category.techArea techArea " +
+            "left join fetch techArea.domain " +
+            "order by assessmentResult.updateDate desc, assessmentResult.id desc")
+    Slice<AssessmentResult> findFirstPageOrderByUpdateDateDesc(Pageable pageable);
+
+    /**
+     * Next page of all the assessment results, seeking past the last row of the previous page instead of skipping
+     * rows, so it reads no more of the update date index than the first page.
+     */
+    @Query("select assessmentResult from AssessmentResult assessmentResult " +
+            "join fetch assessmentResult.site site " +
+            "left join fetch site.investmentCriticality " +
+            "left join fetch assessmentResult.recommendationStatus " +
+            "left join fetch assessmentResult.assessmentCriteria assessmentCriteria " +
+            "left join fetch assessmentCriteria.category category " +
+            "left join fetch category.techArea techArea " +
+            "left join fetch techArea.domain " +
+            "where assessmentResult.updateDate < :updateDate " +
+            "or (assessmentResult.updateDate = :updateDate and assessmentResult.id < :id) " +
+            "order by assessmentResult.updateDate desc, assessmentResult.id desc")
+    Slice<AssessmentResult> findNextPageOrderByUpdateDateDesc(@Param("updateDate") Timestamp updateDate,
+                                                              @Param("id") Long id,
+                                                              Pageable pageable);
+
+    /**
+     * Same as {@link #findAll(Pageable)}, without counting all the rows.
+     */
+    Slice<AssessmentResult> findAllBy(Pageable pageable);
+
+    /**
+     * Ids of the latest assessment result per assessment criteria of a site, ties broken by the highest id.
+     */
+    @Query(value = "select ranked.id from (" +
+            "select assessment_result.id, row_number() over (" +
+            "partition by assessment_result.assessment_criteria_id " +
+            "order by assessment_result.update_date desc nulls last, assessment_result.id desc) as position " +
+            "from assessment_result " +
+            "join site on site.id = assessment_result.site_id " +
+            "where site.name = :siteName) ranked " +
+            "where ranked.position = 1", nativeQuery = true)
+    List<Long> findLatestIdsBySiteName(@Param("siteName") String siteName);
+
+    @Query("select assessmentResult from AssessmentResult assessmentResult " +
+            "join fetch assessmentResult.site site " +
+            "left join fetch site.investmentCriticality " +
+            "left join fetch assessmentResult.recommendationStatus " +
+            "left join fetch assessmentResult.assessmentCriteria assessmentCriteria " +
+            "left join fetch assessmentCriteria.category category " +
+            "left join fetch category.techArea techArea " +
+            "left join fetch techArea.domain " +
+            "where assessmentResult.id in :ids " +
+            LATEST_FIRST_ORDER)
+    List<AssessmentResult> findByIdInOrderByUpdateDateDesc(@Param("ids") Collection<Long> ids);
+
+    @Query("select assessmentResult from AssessmentResult assessmentResult " +
+            "join fetch assessmentResult.site site " +
+            "left join fetch site.investmentCriticality " +
+            "left join fetch assessmentResult.recommendationStatus " +
+            "left join fetch assessmentResult.assessmentCriteria assessmentCriteria " +
+            "left join fetch assessmentCriteria.category category " +
+            "left join fetch category.techArea techArea " +
+            "left join fetch techArea.domain " +
+            "where site.id = :siteId " +
+            LATEST_FIRST_ORDER)
+    List<AssessmentResult> findBySite_IdOrderByUpdateDateDesc(@Param("siteId") Long siteId);
+
+    @Query("select assessmentResult from AssessmentResult assessmentResult " +
+            "join fetch assessmentResult.site site " +
+            "left join fetch site.investmentCriticality " +
+            "left join fetch assessmentResult.recommendationStatus " +
+            "left join fetch assessmentResult.assessmentCriteria assessmentCriteria " +
+            "left join fetch assessmentCriteria.category category " +
+            "left join fetch category.techArea techArea " +
+            "left join fetch techArea.domain " +
+            "where site.id = :siteId and assessmentCriteria.id in :assessmentCriteriaIds " +
+            LATEST_FIRST_ORDER)
+    List<AssessmentResult> findBySite_IdAndAssessmentCriteria_IdInOrderByUpdateDateDesc(@Param("siteId") Long siteId,
+                                                                                         @Param("assessmentCriteriaIds") Collection<Long> assessmentCriteriaIds);
+
+    @Query("select site.id as siteId, " +
+            "domain.id as domainId, domain.description as domainDescription, " +
+            "techArea.id as techAreaId, techArea.description as techAreaDescription, " +
+            "category.id as categoryId, category.description as categoryDescription, " +
+            "count(assessmentResult.id) as resultCount, count(assessmentResult.score) as scoreCount, " +
+            "sum(assessmentResult.score) as scoreSum " +
+            "from AssessmentResult assessmentResult " +
+            "join assessmentResult.site site " +
+            "join assessmentResult.assessmentCriteria assessmentCriteria " +
+            "join assessmentCriteria.category category " +
+            "join category.techArea techArea " +
+            "join techArea.domain domain " +
+            "where site.id in :siteIds " +
+            "group by site.id, domain.id, domain.description, techArea.id, techArea.description, " +
+            "category.id, category.description")
+    List<SiteCategoryScore> findCategoryScoresBySiteIdIn(@Param("siteIds") Collection<Long> siteIds);
+
+    /**
+     * Same as {@link #findCategoryScoresBySiteIdIn(Collection)}, only counting the latest result per assessment criteria.
+     */
+    @Query(value = "select ranked.site_id as \"siteId\", " +
+            "tech_domain.id as \"domainId\", tech_domain.description as \"domainDescription\", " +
+            "tech_area.id as \"techAreaId\", tech_area.description as \"techAreaDescription\", " +
+            "category.id as \"categoryId\", category.description as \"categoryDescription\", " +
+            "count(ranked.id) as \"resultCount\", count(ranked.score) as \"scoreCount\", " +
+            "sum(ranked.score) as \"scoreSum\" " +
+            "from (" +
+            "select assessment_result.id, assessment_result.site_id, assessment_result.assessment_criteria_id, " +
+            "assessment_result.score, row_number() over (" +
+            "partition by assessment_result.site_id, assessment_result.assessment_criteria_id " +
+            "order by assessment_result.update_date desc nulls last, assessment_result.id desc) as position " +
+            "from assessment_result " +
+            "where assessment_result.site_id in (:siteIds)) ranked " +
+            "join assessment_criteria on assessment_criteria.id = ranked.assessment_criteria_id " +
+            "join category on category.id = assessment_criteria.category_id " +
+            "join tech_area on tech_area.id = category.tech_area_id " +
+            "join tech_domain on tech_domain.id = tech_area.domain_id " +
+            "where ranked.position = 1 " +
+            "group by ranked.site_id, tech_domain.id, tech_domain.description, tech_area.id, tech_area.description, " +
+            "category.id, category.description", nativeQuery = true)
+    List<SiteCategoryScore> findLatestCategoryScoresBySiteIdIn(@Param("siteIds") Collection<Long> siteIds);
+
+    /**
+     * Result count, average, min, max and latest score of the given sites over all results and per tech domain,
+     * tech area and category, in a single statement that reads the results once.
+     * Every ranked result is joined to each level and grouped by that level's key, which is what
+     * {@code GROUPING SETS} would do; H2 supports neither it nor bind parameters inside a {@code WITH} clause.
+     */
+    @Query(value = "select levels.hierarchy_level as \"level\", " + LEVEL_ID + " as \"id\", " +
+            LEVEL_DESCRIPTION + " as \"description\", " + LEVEL_PARENT_ID + " as \"parentId\", " +
+            "count(*) as \"resultCount\", count(ranked.score) as \"scoreCount\", " +
+            "avg(ranked.score) as \"averageScore\", min(ranked.score) as \"minScore\", max(ranked.score) as \"maxScore\", " +
+            "max(case when " + LEVEL_POSITION + " = 1 then ranked.score end) as \"latestScore\" " +
+            "from (" +
+            "select assessment_result.score, " +
+            "tech_domain.id as tech_domain_id, tech_domain.description as tech_domain_description, " +
+            "tech_area.id as tech_area_id, tech_area.description as tech_area_description, " +
+            "category.id as category_id, category.description as category_description, " +
+            "row_number() over (" + LATEST_SCORE_ORDER + ") as total_position, " +
+            "row_number() over (partition by tech_domain.id " + LATEST_SCORE_ORDER + ") as tech_domain_position, " +
+            "row_number() over (partition by tech_area.id " + LATEST_SCORE_ORDER + ") as tech_area_position, " +
+            "row_number() over (partition by category.id " + LATEST_SCORE_ORDER + ") as category_position " +
+            "from assessment_result " +
+            "join assessment_criteria on assessment_criteria.id = assessment_result.assessment_criteria_id " +
+            "join category on category.id = assessment_criteria.category_id " +
+            "join tech_area on tech_area.id = category.tech_area_id " +
+            "join tech_domain on tech_domain.id = tech_area.domain_id " +
+            "where assessment_result.site_id in (:siteIds)) ranked " +
+            "cross join (values ('TOTAL'), ('TECH_DOMAIN'), ('TECH_AREA'), ('CATEGORY')) as levels(hierarchy_level) " +
+            "group by levels.hierarchy_level, " + LEVEL_ID + ", " + LEVEL_DESCRIPTION + ", " + LEVEL_PARENT_ID,
+            nativeQuery = true)
+    List<HierarchyScoreRollup> findScoreRollupBySiteIdIn(@Param("siteIds") Collection<Long> siteIds);
+
+    /**
+     * Result count of every assessment criteria, with its category, tech area and domain, in a single statement.
+     * Every node of the hierarchy is listed, including those without results or without children.
+     */
+    @Query(value = "select tech_domain.id as \"domainId\", tech_area.id as \"techAreaId\", " +
+            "category.id as \"categoryId\", assessment_criteria.id as \"assessmentCriteriaId\", " +
+            "count(assessment_result.id) as \"resultCount\" " +
+            "from tech_domain " +
+            "left join tech_area on tech_area.domain_id = tech_domain.id " +
+            "left join category on category.tech_area_id = tech_area.id " +
+            "left join assessment_criteria on assessment_criteria.category_id = category.id " +
+            "left join assessment_result on assessment_result.assessment_criteria_id = assessment_criteria.id " +
+            "group by tech_domain.id, tech_area.id, category.id, assessment_criteria.id " +
+            "order by tech_domain.id, tech_area.id, category.id, assessment_criteria.id", nativeQuery = true)
+    List<HierarchyUsageCount> findHierarchyUsageCounts();
 
     long countByAssessmentCriteria_Id(Long id);
 
-    long countByAssessmentCriteria_Category_Id(Long id);
+    long countByCategoryId(Long id);
+
+    long countByTechAreaId(Long id);
+
+    long countByTechDomainId(Long id);
+
+    /**
+     * Re-copies the category, tech area and domain ids of the results of an assessment criteria that moved to another
+     * category. Only the results whose copies differ are written.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = SYNC_HIERARCHY_IDS + "and assessment_criteria.id = :id)", nativeQuery = true)
+    int syncHierarchyIdsByAssessmentCriteriaId(@Param("id") Long id);
 
-    long countByAssessmentCriteria_Category_TechArea_Id(Long id);
+    /**
+     * Same as {@link #syncHierarchyIdsByAssessmentCriteriaId(Long)}, for a category that moved to another tech area.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = SYNC_HIERARCHY_IDS + "and category.id = :id)", nativeQuery = true)
+    int syncHierarchyIdsByCategoryId(@Param("id") Long id);
 
-    long countByAssessmentCriteria_Category_TechArea_Domain_Id(Long id);
+    /**
+     * Same as {@link #syncHierarchyIdsByAssessmentCriteriaId(Long)}, for a tech area that moved to another domain.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = SYNC_HIERARCHY_IDS + "and tech_area.id = :id)", nativeQuery = true)
+    int syncHierarchyIdsByTechAreaId(@Param("id") Long id);
 
 }
@@ -0,0 +1,38 @@
+package com.mes.techdebt.repository;
+
+import com.mes.techdebt.domain.AssessmentResult;
+import com.mes.techdebt.repository.projection.AssessmentResultRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Projected reads of {@link AssessmentResult} matching a {@link Specification}.
+ */
+public interface AssessmentResultRowRepository {
+
+    /**
+     * @param specification the filter, or {@code null} for all the results.
+     * @param pageable the pagination information, sorted by {@link AssessmentResult} properties.
+     * @return the matching rows and their total count.
+     */
+    Page<AssessmentResultRow> findRows(Specification<AssessmentResult> specification, Pageable pageable);
+
+    /**
+     * Same as {@link #findRows(Specification, Pageable)}, without counting the matching rows.
+     */
+    Slice<AssessmentResultRow> findRowSlice(Specification<AssessmentResult> specification, Pageable pageable);
+
+    /**
+     * Reads the matching rows, most recently updated first, through a forward only cursor fetching a few hundred
+     * rows at a time, so any number of rows can be read in constant memory.
+     * The stream has to be consumed within a transaction, and closed to release the cursor.
+     *
+     * @param specification the filter, or {@code null} for all the results.
+     * @return the matching rows.
+     */
+    Stream<AssessmentResultRow> streamRows(Specification<AssessmentResult> specification);
+}
@@ -0,0 +1,140 @@
+package com.mes.techdebt.repository;
+
+import com.mes.techdebt.domain.AssessmentResult;
+import com.mes.techdebt.domain.RecommendationStatus;
+import com.mes.techdebt.domain.Site;
+import com.mes.techdebt.repository.projection.AssessmentResultRow;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Selects only the columns of {@link AssessmentResultRow}, so no entity is loaded or kept in the persistence context.
+ */
+@RequiredArgsConstructor
+public class AssessmentResultRowRepositoryImpl implements AssessmentResultRowRepository {
+
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Order.desc("updateDate"), Sort.Order.desc("id"));
+
+    /**
+     * Rows read from the cursor per round trip when streaming: small enough to bound memory, large enough to
+     * not be latency bound.
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<AssessmentResultRow> findRows(Specification<AssessmentResult> specification, Pageable pageable) {
+        List<AssessmentResultRow> rows = selectRows(specification, pageable, 0);
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(specification));
+    }
+
+    @Override
+    public Slice<AssessmentResultRow> findRowSlice(Specification<AssessmentResult> specification, Pageable pageable) {
+        // One more row than the page size tells whether there is a next slice
+        List<AssessmentResultRow> rows = selectRows(specification, pageable, 1);
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public Stream<AssessmentResultRow> streamRows(Specification<AssessmentResult> specification) {
+        return createRowQuery(specification, DEFAULT_SORT)
+                .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream()
+                .map(AssessmentResultRowRepositoryImpl::toRow);
+    }
+
+    private List<AssessmentResultRow> selectRows(Specification<AssessmentResult> specification,
+                                                 Pageable pageable, int extraRows) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort().and(Sort.by(Sort.Order.desc("id"))) : DEFAULT_SORT;
+        TypedQuery<Tuple> typedQuery = createRowQuery(specification, sort);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize() + extraRows);
+        }
+        return typedQuery.getResultList().stream()
+                .map(AssessmentResultRowRepositoryImpl::toRow)
+                .toList();
+    }
+
+    private TypedQuery<Tuple> createRowQuery(Specification<AssessmentResult> specification, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<AssessmentResult> root = query.from(AssessmentResult.class);
+        Join<AssessmentResult, Site> site = root.join("site");
+        Join<AssessmentResult, RecommendationStatus> recommendationStatus = root.join("recommendationStatus", JoinType.LEFT);
+        query.multiselect(
+                root.get("id"),
+                root.get("score"),
+                root.get("recommendationText"),
+                root.get("updateDate"),
+                root.get("updatedBy"),
+                site.get("id"),
+                site.get("name"),
+                site.get("region"),
+                root.get("assessmentCriteria").get("id"),
+                root.get("categoryId"),
+                root.get("techAreaId"),
+                root.get("techDomainId"),
+                recommendationStatus.get("id"),
+                recommendationStatus.get("description"));
+        applySpecification(specification, root, query, builder);
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        return entityManager.createQuery(query);
+    }
+
+    private static AssessmentResultRow toRow(Tuple tuple) {
+        return new AssessmentResultRow(
+                tuple.get(0, Long.class),
+                tuple.get(1, Double.class),
+                tuple.get(2, String.class),
+                tuple.get(3, Timestamp.class),
+                tuple.get(4, String.class),
+                tuple.get(5, Long.class),
+                tuple.get(6, String.class),
+                tuple.get(7, String.class),
+                tuple.get(8, Long.class),
+                tuple.get(9, Long.class),
+                tuple.get(10, Long.class),
+                tuple.get(11, Long.class),
+                tuple.get(12, Long.class),
+                tuple.get(13, String.class));
+    }
+
+    private long count(Specification<AssessmentResult> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<AssessmentResult> root = query.from(AssessmentResult.class);
+        query.select(builder.count(root));
+        applySpecification(specification, root, query, builder);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void applySpecification(Specification<AssessmentResult> specification, Root<AssessmentResult> root,
+                                           CriteriaQuery<?> query, CriteriaBuilder builder) {
+        if (specification == null) {
+            return;
+        }
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
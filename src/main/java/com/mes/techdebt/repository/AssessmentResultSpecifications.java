@@ -0,0 +1,110 @@
+package com.mes.techdebt.repository;
+
+import com.mes.techdebt.domain.AssessmentResult;
+import com.mes.techdebt.domain.Site;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import java.sql.Timestamp;
+import java.util.Collection;
+
+/**
+ * Filters of {@link AssessmentResult} to combine with {@link Specification#and(Specification)}.
+ * Every factory returns {@code null} for a missing value, which {@code and} skips.
+ */
+public final class AssessmentResultSpecifications {
+
+    public static Specification<AssessmentResult> siteIdIn(Collection<Long> siteIds) {
+        if (siteIds == null || siteIds.isEmpty()) {
+            return null;
+        }
+        return (root, query, builder) -> root.get("site").get("id").in(siteIds);
+    }
+
+    public static Specification<AssessmentResult> regionIn(Collection<String> regions) {
+        if (regions == null || regions.isEmpty()) {
+            return null;
+        }
+        return (root, query, builder) -> joinSite(root).get("region").in(regions);
+    }
+
+    public static Specification<AssessmentResult> recommendationStatusIdIn(Collection<Long> recommendationStatusIds) {
+        if (recommendationStatusIds == null || recommendationStatusIds.isEmpty()) {
+            return null;
+        }
+        return (root, query, builder) -> root.get("recommendationStatus").get("id").in(recommendationStatusIds);
+    }
+
+    public static Specification<AssessmentResult> scoreAtLeast(Double minScore) {
+        if (minScore == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("score"), minScore);
+    }
+
+    public static Specification<AssessmentResult> scoreAtMost(Double maxScore) {
+        if (maxScore == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.lessThanOrEqualTo(root.get("score"), maxScore);
+    }
+
+    public static Specification<AssessmentResult> assessmentCriteriaIdEquals(Long assessmentCriteriaId) {
+        if (assessmentCriteriaId == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.equal(root.get("assessmentCriteria").get("id"), assessmentCriteriaId);
+    }
+
+    public static Specification<AssessmentResult> categoryIdEquals(Long categoryId) {
+        return hierarchyIdEquals("categoryId", categoryId);
+    }
+
+    public static Specification<AssessmentResult> techAreaIdEquals(Long techAreaId) {
+        return hierarchyIdEquals("techAreaId", techAreaId);
+    }
+
+    public static Specification<AssessmentResult> techDomainIdEquals(Long techDomainId) {
+        return hierarchyIdEquals("techDomainId", techDomainId);
+    }
+
+    public static Specification<AssessmentResult> updatedFrom(Timestamp from) {
+        if (from == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("updateDate"), from);
+    }
+
+    public static Specification<AssessmentResult> updatedBefore(Timestamp to) {
+        if (to == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.lessThan(root.get("updateDate"), to);
+    }
+
+    /**
+     * Filters on the hierarchy ids copied on the result, rather than joining the hierarchy.
+     */
+    private static Specification<AssessmentResult> hierarchyIdEquals(String attribute, Long id) {
+        if (id == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.equal(root.get(attribute), id);
+    }
+
+    /**
+     * Reuses the site join of a projection query, if any, so the site table is only joined once.
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<AssessmentResult, Site> joinSite(From<?, AssessmentResult> root) {
+        return root.getJoins().stream()
+                .filter(join -> join.getAttribute().getName().equals("site"))
+                .map(join -> (Join<AssessmentResult, Site>) join)
+                .findFirst()
+                .orElseGet(() -> root.join("site", JoinType.INNER));
+    }
+
+    private AssessmentResultSpecifications() {}
+}
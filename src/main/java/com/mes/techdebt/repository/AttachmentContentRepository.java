@@ -0,0 +1,80 @@
+package com.mes.techdebt.repository;
+
+import com.mes.techdebt.domain.AttachmentContent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data SQL repository for the {@link AttachmentContent} entity.
+ * <p>
+ * The reference count is changed by update statements, which lock the row, so concurrent uploads and deletes of
+ * the same content are serialized. The binary content is not mapped on the entity. The {@code data} column is read
+ * and cleared by the native queries below, for the contents held by the database {@code AttachmentStore}, which
+ * streams it in with JDBC.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface AttachmentContentRepository extends JpaRepository<AttachmentContent, Long> {
+
+    Optional<AttachmentContent> findByHash(String hash);
+
+    /**
+     * Inserts a content referenced once, unless a content with the same hash exists. An insert of the same hash by a
+     * concurrent transaction is waited for, so two uploads of the same file never both insert it.
+     * <p>
+     * The id is taken from the sequence of the entities. Hibernate hands out the ids below each value it takes from
+     * the sequence, so it never hands out a value taken here.
+     *
+     * @return 1 if the content was inserted, 0 if it exists.
+     */
+    @Modifying
+    @Query(value = "insert into attachment_content (id, hash, storage, length, reference_count) " +
+            "values (nextval('sequence_generator'), :hash, :storage, :length, 1) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash, @Param("storage") String storage, @Param("length") long length);
+
+    /**
+     * @return 0 if the content was deleted meanwhile, 1 otherwise.
+     */
+    @Modifying
+    @Query("update AttachmentContent content set content.referenceCount = content.referenceCount + 1 " +
+            "where content.id = :id")
+    int incrementReferenceCount(@Param("id") Long id);
+
+    @Modifying
+    @Query("update AttachmentContent content set content.referenceCount = content.referenceCount - 1 " +
+            "where content.id = :id")
+    int decrementReferenceCount(@Param("id") Long id);
+
+    /**
+     * @return 1 if the content was deleted, 0 if an attachment still refers to it.
+     */
+    @Modifying
+    @Query("delete from AttachmentContent content where content.id = :id and content.referenceCount <= 0")
+    int deleteIfUnreferenced(@Param("id") Long id);
+
+    @Query("select content.id from AttachmentContent content where content.storage = :storage order by content.id")
+    List<Long> findIdsByStorage(@Param("storage") String storage, Pageable pageable);
+
+    @Modifying
+    @Query(value = "update attachment_content set data = null where id = :id", nativeQuery = true)
+    int clearData(@Param("id") Long id);
+
+    /**
+     * Reads a slice of the binary content, without loading the rest of it.
+     *
+     * @param id the id of the content.
+     * @param position the position of the first byte, starting at 1.
+     * @param length the maximum number of bytes.
+     * @return the bytes, fewer than asked past the end of the content.
+     */
+    @Query(value = "select substring(attachment_content.data from :position for :length) from attachment_content " +
+            "where attachment_content.id = :id", nativeQuery = true)
+    byte[] findDataSlice(@Param("id") Long id, @Param("position") long position, @Param("length") int length);
+}
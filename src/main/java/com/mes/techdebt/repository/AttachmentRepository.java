@@ -1,20 +1,67 @@
 package com.mes.techdebt.repository;
 
 import com.mes.techdebt.domain.Attachment;
+import com.mes.techdebt.repository.projection.AttachmentMetadata;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Spring Data SQL repository for the {@link Attachment} entity.
+ * <p>
+ * Listings read {@link AttachmentMetadata}, so the content is only read to download an attachment.
  */
 @SuppressWarnings("unused")
 @Repository
 public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
 
-    Optional<List<Attachment>> findBySite_Id(Long siteId);
+    /**
+     * Selects the columns of {@link AttachmentMetadata}, from {@code attachment} left joined to its
+     * {@code assessmentCriteria} and its {@code content}.
+     */
+    String METADATA_SELECT = "select attachment.id as id, attachment.fileName as fileName, " +
+            "attachment.fileType as fileType, attachment.fileSize as fileSize, " +
+            "content.id as contentId, content.hash as contentHash, content.length as contentLength, " +
+            "attachment.site.id as siteId, assessmentCriteria.id as assessmentCriteriaId, " +
+            "attachment.createDate as createDate, attachment.createdBy as createdBy, " +
+            "attachment.updateDate as updateDate, attachment.updatedBy as updatedBy " +
+            "from Attachment attachment " +
+            "left join attachment.assessmentCriteria assessmentCriteria " +
+            "left join attachment.content content ";
 
-    Optional<List<Attachment>> findBySite_IdAndAssessmentCriteria_Id(Long siteId, Long assessmentCriteriaId);
+    @Query(METADATA_SELECT + "where attachment.id = :id")
+    Optional<AttachmentMetadata> findMetadataById(@Param("id") Long id);
+
+    @Query(METADATA_SELECT + "order by attachment.id")
+    List<AttachmentMetadata> findAllMetadata();
+
+    @Query(METADATA_SELECT + "where attachment.site.id = :siteId")
+    List<AttachmentMetadata> findMetadataBySiteId(@Param("siteId") Long siteId);
+
+    @Query(METADATA_SELECT + "where attachment.site.id = :siteId and assessmentCriteria.id = :assessmentCriteriaId")
+    List<AttachmentMetadata> findMetadataBySiteIdAndAssessmentCriteriaId(@Param("siteId") Long siteId,
+                                                                         @Param("assessmentCriteriaId") Long assessmentCriteriaId);
+
+    @Query(METADATA_SELECT + "where attachment.site.id = :siteId and attachment.updateDate > :since " +
+            "order by attachment.updateDate, attachment.id")
+    List<AttachmentMetadata> findMetadataBySiteIdAndUpdateDateAfter(@Param("siteId") Long siteId,
+                                                                    @Param("since") Timestamp since);
+
+    @Query(METADATA_SELECT + "where attachment.site.id = :siteId and assessmentCriteria.id in :assessmentCriteriaIds")
+    List<AttachmentMetadata> findMetadataBySiteIdAndAssessmentCriteriaIdIn(@Param("siteId") Long siteId,
+                                                                           @Param("assessmentCriteriaIds") Collection<Long> assessmentCriteriaIds);
+
+    /**
+     * Deletes without loading the attachment first.
+     */
+    @Modifying
+    @Query("delete from Attachment attachment where attachment.id = :id")
+    int deleteByIdWithoutLoading(@Param("id") Long id);
 }
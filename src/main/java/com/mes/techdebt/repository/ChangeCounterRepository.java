@@ -0,0 +1,44 @@
+package com.mes.techdebt.repository;
+
+import com.mes.techdebt.domain.ChangeCounter;
+import com.mes.techdebt.repository.projection.SiteChangeCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Spring Data SQL repository for the {@link ChangeCounter} entity.
+ * <p>
+ * Counters are created on their first change, by an insert that leaves a counter created concurrently as it is.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface ChangeCounterRepository extends JpaRepository<ChangeCounter, String> {
+
+    @Query("select counter.changeCount from ChangeCounter counter where counter.name = :name")
+    Optional<Long> findChangeCountByName(@Param("name") String name);
+
+    /**
+     * Looks the site up together with its counter, so the id is never older than the count.
+     */
+    @Query(value = "select site.id as \"siteId\", coalesce(counter.change_count, 0) as \"changeCount\" from site " +
+            "left join change_counter counter on counter.name = concat('" + ChangeCounter.SITE_PREFIX + "', site.id) " +
+            "where site.name = :siteName", nativeQuery = true)
+    Optional<SiteChangeCount> findSiteChangeCountBySiteName(@Param("siteName") String siteName);
+
+    /**
+     * @return 0 if the counter does not exist yet, 1 otherwise.
+     */
+    @Modifying
+    @Query("update ChangeCounter counter set counter.changeCount = counter.changeCount + 1 where counter.name = :name")
+    int incrementChangeCount(@Param("name") String name);
+
+    @Modifying
+    @Query(value = "insert into change_counter (name, change_count) values (:name, 0) on conflict do nothing",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+}
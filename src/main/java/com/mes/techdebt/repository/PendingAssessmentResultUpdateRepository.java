@@ -0,0 +1,29 @@
+package com.mes.techdebt.repository;
+
+import com.mes.techdebt.domain.PendingAssessmentResultUpdate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data SQL repository for the {@link PendingAssessmentResultUpdate} entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface PendingAssessmentResultUpdateRepository extends JpaRepository<PendingAssessmentResultUpdate, Long> {
+
+    List<PendingAssessmentResultUpdate> findByStatusOrderByIdAsc(String status, Pageable pageable);
+
+    List<PendingAssessmentResultUpdate> findByAssessmentResultIdInAndStatusOrderByIdAsc(Collection<Long> assessmentResultIds,
+                                                                                         String status);
+
+    @Modifying
+    @Query("delete from PendingAssessmentResultUpdate pendingUpdate where pendingUpdate.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -2,9 +2,13 @@ package com.mes.techdebt.repository;
 
 import com.mes.techdebt.domain.RecommendationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Spring Data SQL repository for the {@link RecommendationStatus} entity.
@@ -13,4 +17,7 @@ import java.util.Optional;
 @Repository
 public interface RecommendationStatusRepository extends JpaRepository<RecommendationStatus, Long> {
     Optional<RecommendationStatus> findByDescription(String description);
+
+    @Query("select recommendationStatus.id from RecommendationStatus recommendationStatus where recommendationStatus.id in :ids")
+    Set<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -2,8 +2,11 @@ package com.mes.techdebt.repository;
 
 import com.mes.techdebt.domain.Site;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 
@@ -16,7 +19,13 @@ public interface SiteRepository extends JpaRepository<Site, Long> {
 
     Optional<Site> findByName(String name);
 
+    @Query("select site.id from Site site where site.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
+
     Optional<Site> findByMdmSiteId(Long mdmSiteId);
 
     Optional<Set<Site>> findSitesByRegionIn(Set<String> name);
+
+    @Query("select site.id from Site site where site.id in :ids")
+    Set<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,17 @@
+package com.mes.techdebt.repository;
+
+import com.mes.techdebt.domain.Tombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Spring Data SQL repository for the {@link Tombstone} entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+    List<Tombstone> findBySiteIdAndDeleteDateAfterOrderByDeleteDate(Long siteId, Timestamp since);
+}
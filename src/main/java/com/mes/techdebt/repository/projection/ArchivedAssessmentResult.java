@@ -0,0 +1,18 @@
+package com.mes.techdebt.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Read-only projection of an assessment result moved to the archive table.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ArchivedAssessmentResult {
+
+    private final Long id;
+    private final Long siteId;
+    private final Long assessmentCriteriaId;
+}
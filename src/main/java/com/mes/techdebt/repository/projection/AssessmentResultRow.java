@@ -0,0 +1,33 @@
+package com.mes.techdebt.repository.projection;
+
+import com.mes.techdebt.domain.AssessmentResult;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.sql.Timestamp;
+
+/**
+ * Read-only projection of an {@link AssessmentResult} flattened with the names of its site and recommendation status.
+ * A class rather than an interface, as criteria queries build it from the selected tuple.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AssessmentResultRow {
+
+    private final Long id;
+    private final Double score;
+    private final String recommendationText;
+    private final Timestamp updateDate;
+    private final String updatedBy;
+    private final Long siteId;
+    private final String siteName;
+    private final String region;
+    private final Long assessmentCriteriaId;
+    private final Long categoryId;
+    private final Long techAreaId;
+    private final Long techDomainId;
+    private final Long recommendationStatusId;
+    private final String recommendationStatusDescription;
+}
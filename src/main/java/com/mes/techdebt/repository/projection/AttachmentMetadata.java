@@ -0,0 +1,37 @@
+package com.mes.techdebt.repository.projection;
+
+import com.mes.techdebt.domain.Attachment;
+
+import java.sql.Timestamp;
+
+/**
+ * Read-only projection of an {@link Attachment} without its binary content.
+ */
+public interface AttachmentMetadata {
+
+    Long getId();
+
+    String getFileName();
+
+    String getFileType();
+
+    Long getFileSize();
+
+    Long getContentId();
+
+    String getContentHash();
+
+    Long getContentLength();
+
+    Long getSiteId();
+
+    Long getAssessmentCriteriaId();
+
+    Timestamp getCreateDate();
+
+    String getCreatedBy();
+
+    Timestamp getUpdateDate();
+
+    String getUpdatedBy();
+}
@@ -0,0 +1,28 @@
+package com.mes.techdebt.repository.projection;
+
+/**
+ * Read-only projection of the assessment scores of a set of sites, aggregated over all results
+ * ({@code TOTAL}) or per {@code TECH_DOMAIN}, {@code TECH_AREA} or {@code CATEGORY}.
+ */
+public interface HierarchyScoreRollup {
+
+    String getLevel();
+
+    Long getId();
+
+    String getDescription();
+
+    Long getParentId();
+
+    Long getResultCount();
+
+    Long getScoreCount();
+
+    Double getAverageScore();
+
+    Double getMinScore();
+
+    Double getMaxScore();
+
+    Double getLatestScore();
+}
@@ -0,0 +1,18 @@
+package com.mes.techdebt.repository.projection;
+
+/**
+ * Read-only projection of the number of assessment results of one assessment criteria, together with its category,
+ * tech area and domain. Lower levels are {@code null} for a tech domain, tech area or category without children.
+ */
+public interface HierarchyUsageCount {
+
+    Long getDomainId();
+
+    Long getTechAreaId();
+
+    Long getCategoryId();
+
+    Long getAssessmentCriteriaId();
+
+    Long getResultCount();
+}
@@ -0,0 +1,25 @@
+package com.mes.techdebt.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.sql.Timestamp;
+
+/**
+ * Read-only projection of the assessment results updated within one time bucket with one recommendation status.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ScoreHistoryBucket {
+
+    /**
+     * Start of the bucket.
+     */
+    private final Timestamp bucket;
+    private final Long recommendationStatusId;
+    private final long resultCount;
+    private final long scoreCount;
+    private final Double scoreSum;
+}
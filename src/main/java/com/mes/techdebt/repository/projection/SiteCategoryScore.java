@@ -0,0 +1,28 @@
+package com.mes.techdebt.repository.projection;
+
+/**
+ * Read-only projection of the assessment scores of one site, aggregated per category together with its
+ * tech area and domain.
+ */
+public interface SiteCategoryScore {
+
+    Long getSiteId();
+
+    Long getDomainId();
+
+    String getDomainDescription();
+
+    Long getTechAreaId();
+
+    String getTechAreaDescription();
+
+    Long getCategoryId();
+
+    String getCategoryDescription();
+
+    Long getResultCount();
+
+    Long getScoreCount();
+
+    Double getScoreSum();
+}
@@ -0,0 +1,11 @@
+package com.mes.techdebt.repository.projection;
+
+/**
+ * Read-only projection of the id of a site and the count of its committed changes.
+ */
+public interface SiteChangeCount {
+
+    Long getSiteId();
+
+    long getChangeCount();
+}
@@ -0,0 +1 @@
+package com.mes.techdebt.repository.projection;
\ No newline at end of file
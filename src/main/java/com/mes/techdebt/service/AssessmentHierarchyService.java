@@ -0,0 +1,24 @@
+package com.mes.techdebt.service;
+
+import com.mes.techdebt.service.dto.HierarchySnapshot;
+
+/**
+ * Service Interface for serving the assessment hierarchy from an in-memory {@link HierarchySnapshot}.
+ */
+public interface AssessmentHierarchyService {
+
+    /**
+     * Get the current hierarchy snapshot, building it on first use.
+     *
+     * @return the current snapshot.
+     */
+    HierarchySnapshot getSnapshot();
+
+    /**
+     * Rebuild the hierarchy snapshot from the database and swap it in, for hierarchy changes the application did not
+     * write itself. A hierarchy change is counted, so every instance rebuilds its views of the hierarchy as well.
+     *
+     * @return the new snapshot.
+     */
+    HierarchySnapshot rebuild();
+}
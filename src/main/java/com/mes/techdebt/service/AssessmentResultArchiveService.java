@@ -0,0 +1,26 @@
+package com.mes.techdebt.service;
+
+import java.time.Instant;
+
+/**
+ * Service Interface for maintaining the yearly partitions of {@link com.mes.techdebt.domain.AssessmentResult}.
+ * <p>
+ * Results of years past the retention window are moved to the archive table once a later result of the same site
+ * and criteria supersedes them, so the latest results stay available. A partition left empty is dropped.
+ */
+public interface AssessmentResultArchiveService {
+
+    /**
+     * Create the partitions of the current and the next year, if missing, so that results are never stored in the
+     * default partition.
+     */
+    void createUpcomingPartitions();
+
+    /**
+     * Archive the superseded results of the partitions ending before the cutoff.
+     *
+     * @param cutoff the oldest update date to keep in the table.
+     * @return the number of archived results.
+     */
+    int archiveBefore(Instant cutoff);
+}
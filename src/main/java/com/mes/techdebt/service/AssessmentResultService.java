@@ -2,11 +2,25 @@ package com.mes.techdebt.service;
 
 import com.mes.techdebt.domain.AssessmentResult;
 import com.mes.techdebt.service.dto.AssessmentResultDTO;
+import com.mes.techdebt.service.dto.KeysetCursor;
+import com.mes.techdebt.web.rest.request.AssessmentResultFilterDTO;
+import com.mes.techdebt.web.rest.request.ScoreHistoryRequestDTO;
+import com.mes.techdebt.web.rest.response.AssessmentResultRowDTO;
+import com.mes.techdebt.web.rest.response.BulkItemResultDTO;
+import com.mes.techdebt.web.rest.response.HierarchyScoreRollupDTO;
+import com.mes.techdebt.web.rest.response.ScoreHistoryPointDTO;
+import com.mes.techdebt.web.rest.response.HierarchyUsageCountDTO;
+import com.mes.techdebt.web.rest.response.SiteChangesResponseDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service Interface for managing {@link AssessmentResult}.
@@ -28,6 +42,16 @@ public interface AssessmentResultService {
      */
     AssessmentResultDTO update(AssessmentResultDTO assessmentResultDTO);
 
+    /**
+     * Create or update a batch of assessmentResults in a single transaction.
+     * Items without id are created and items with an id are updated. Items referencing a missing assessmentResult,
+     * site, assessment criteria or recommendation status are rejected, the others are saved.
+     *
+     * @param assessmentResultDTOs the entities to save.
+     * @return the outcome of every item, in request order.
+     */
+    List<BulkItemResultDTO> saveAll(List<AssessmentResultDTO> assessmentResultDTOs);
+
     /**
      * Partially updates a assessmentResult.
      *
@@ -44,6 +68,59 @@ public interface AssessmentResultService {
      */
     Page<AssessmentResultDTO> findAll(Pageable pageable);
 
+    /**
+     * Get a slice of all the assessmentResults, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    Slice<AssessmentResultDTO> findSlice(Pageable pageable);
+
+    /**
+     * Get a page of all the assessmentResults, most recently updated first, starting right after a cursor.
+     *
+     * @param after the position of the last entity of the previous page, or {@code null} for the first page.
+     * @param size the page size.
+     * @return the list of entities.
+     */
+    Slice<AssessmentResultDTO> findAllAfter(KeysetCursor after, int size);
+
+    /**
+     * Get a page of the assessmentResults matching a filter, as flat rows.
+     *
+     * @param filter the filter.
+     * @param pageable the pagination information.
+     * @return the list of rows.
+     */
+    Page<AssessmentResultRowDTO> findByFilter(AssessmentResultFilterDTO filter, Pageable pageable);
+
+    /**
+     * Same as {@link #findByFilter(AssessmentResultFilterDTO, Pageable)}, without counting the matching assessmentResults.
+     *
+     * @param filter the filter.
+     * @param pageable the pagination information.
+     * @return the list of rows.
+     */
+    Slice<AssessmentResultRowDTO> findSliceByFilter(AssessmentResultFilterDTO filter, Pageable pageable);
+
+    /**
+     * Write all the assessmentResults matching a filter as CSV rows, most recently updated first.
+     * Rows are read from a database cursor and written one at a time, so memory does not grow with the number of rows.
+     *
+     * @param filter the filter.
+     * @param outputStream the stream to write to, left open.
+     * @throws IOException if the rows cannot be written.
+     */
+    void exportByFilter(AssessmentResultFilterDTO filter, OutputStream outputStream) throws IOException;
+
+    /**
+     * Get the score history of the assessmentResults matching a request, bucketed by day, week or month.
+     *
+     * @param scoreHistoryRequest the interval, date range and filters.
+     * @return the buckets holding assessmentResults, oldest first.
+     */
+    List<ScoreHistoryPointDTO> getScoreHistory(ScoreHistoryRequestDTO scoreHistoryRequest);
+
     /**
      * Get the "id" assessmentResult.
      *
@@ -60,6 +137,33 @@ public interface AssessmentResultService {
      */
     Optional<List<AssessmentResultDTO>> findBySiteName(String siteName);
 
+    /**
+     * Get the latest assessmentResult per assessment criteria based on siteName.
+     *
+     * @param siteName the site name of the searched entity.
+     * @return the list of entities.
+     */
+    Optional<List<AssessmentResultDTO>> findLatestBySiteName(String siteName);
+
+    /**
+     * Get the assessment results and attachments of a site created, updated or deleted after the given date.
+     *
+     * @param siteName the name of the site.
+     * @param since the watermark returned by the previous sync.
+     * @return the changes with the watermark of the next sync, or empty if the site does not exist.
+     */
+    Optional<SiteChangesResponseDTO> findChangesBySiteName(String siteName, OffsetDateTime since);
+
+    /**
+     * Get the score rollup of the given sites over all their assessment results and per tech domain, tech area and
+     * category.
+     *
+     * @param siteIds the ids of the sites.
+     * @return the total rollup first, then the tech domain, tech area and category rollups sorted by description,
+     * or an empty list if the sites have no assessment result.
+     */
+    List<HierarchyScoreRollupDTO> getScoreRollup(Set<Long> siteIds);
+
     /**
      * Delete the "id" assessmentResult.
      *
@@ -76,4 +180,11 @@ public interface AssessmentResultService {
     long countByTechAreaId(Long id);
 
     long countByTechDomainId(Long id);
+
+    /**
+     * Get the number of assessmentResults of every tech domain, tech area, category and assessment criteria.
+     *
+     * @return the counts, tech domains first, then tech areas, categories and assessment criteria.
+     */
+    List<HierarchyUsageCountDTO> getHierarchyUsageCounts();
 }
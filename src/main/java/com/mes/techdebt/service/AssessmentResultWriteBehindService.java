@@ -0,0 +1,38 @@
+package com.mes.techdebt.service;
+
+import com.mes.techdebt.domain.PendingAssessmentResultUpdate;
+import com.mes.techdebt.service.dto.AssessmentResultDTO;
+
+import java.util.Optional;
+
+/**
+ * Service Interface for applying partial updates of {@link com.mes.techdebt.domain.AssessmentResult} after
+ * acknowledging them.
+ * <p>
+ * An update is stored as a {@link PendingAssessmentResultUpdate} before it is acknowledged, so it survives a restart.
+ * Updates are then applied in the order they were queued, the updates of one assessmentResult in their own
+ * transaction, and deleted in that transaction. An update queued with a version only applies to that version of the
+ * assessmentResult, so it never overwrites a later write; an update queued without one is applied unconditionally,
+ * as it was acknowledged. Updates that conflict with a later write, or that keep failing, are set aside as dead
+ * letters instead of blocking the queue.
+ */
+public interface AssessmentResultWriteBehindService {
+
+    /**
+     * Queue a partial update of an assessmentResult, against the version in the update if any. The update is stored
+     * when this returns. The existence of the assessmentResult is left to the caller, the update of a deleted one
+     * being dropped when applied.
+     *
+     * @param assessmentResultDTO the fields to update, and the id of the assessmentResult.
+     * @return the error key if an entity the update references does not exist, the update then not being queued.
+     */
+    Optional<String> enqueue(AssessmentResultDTO assessmentResultDTO);
+
+    /**
+     * Apply the oldest queued updates, several updates of the same assessmentResult and version resulting in a single
+     * write.
+     *
+     * @return the number of queued updates applied or set aside, {@code 0} once none is left to apply.
+     */
+    int flushBatch();
+}
@@ -0,0 +1,57 @@
+package com.mes.techdebt.service;
+
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service Interface for managing the {@link com.mes.techdebt.domain.AttachmentContent}s.
+ * <p>
+ * Identical contents are stored once, whatever the number of attachments referring to them. Each attachment holds a
+ * reference to its content, and a content is deleted from its store with its last reference.
+ */
+public interface AttachmentContentService {
+
+    /**
+     * Take a reference to a content, storing it in the active store unless an identical content is stored already.
+     * The source is read once to hash it, and once more to store it if it is new. Concurrent acquires of the same new
+     * content store it once, and all take a reference to it.
+     *
+     * @param source the content.
+     * @return the id of the content.
+     * @throws IOException if the content could not be read or stored.
+     */
+    Long acquire(InputStreamSource source) throws IOException;
+
+    /**
+     * Drop a reference to a content, taken by {@link #acquire}. The last reference deletes the content from its store
+     * once the transaction is committed.
+     *
+     * @param id the id of the content.
+     */
+    void release(Long id);
+
+    /**
+     * Write a range of a content, from the store holding it, without holding it all in memory.
+     *
+     * @param id the id of the content.
+     * @param start the position of the first byte to write, starting at 0.
+     * @param length the number of bytes to write.
+     * @param outputStream the output.
+     * @throws IOException if the content is missing, if the output fails, or if the content ends before the range.
+     */
+    void writeContent(Long id, long start, long length, OutputStream outputStream) throws IOException;
+
+    /**
+     * Move contents from a store to another, each content in a transaction of its own. A content is deleted from
+     * the previous store once it is committed.
+     *
+     * @param fromStorage the name of the store to move contents from.
+     * @param toStorage the name of the store to move contents to.
+     * @param limit the maximum number of contents to move.
+     * @return the number of moved contents.
+     * @throws IllegalArgumentException if a store is not configured.
+     */
+    int migrateStorage(String fromStorage, String toStorage, int limit);
+}
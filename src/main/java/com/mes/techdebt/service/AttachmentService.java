@@ -1,9 +1,10 @@
 package com.mes.techdebt.service;
 
-import com.mes.techdebt.service.dto.AttachmentDTO;
+import com.mes.techdebt.service.dto.AttachmentMetadataDTO;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,36 +33,49 @@ public interface AttachmentService {
     void saveMultiple(MultipartFile[] files, Long siteId, Long assessmentCriteriaId, String createdBy) throws IOException;
 
     /**
-     * Get the "id" assessmentResult.
+     * Get the "id" attachment, without its binary content. The file size is the length of the stored content, and
+     * the content hash its SHA-256.
      *
      * @param id the id of the entity.
      * @return the entity.
      */
-    Optional<AttachmentDTO> findOne(Long id);
+    Optional<AttachmentMetadataDTO> findMetadata(Long id);
 
     /**
-     * Get all the attachments.
+     * Write a range of the binary content of the "id" attachment, from the store holding it. The content is never
+     * held in memory as a whole, and no transaction is held open while the output is written.
+     *
+     * @param id the id of the entity.
+     * @param start the position of the first byte to write, starting at 0.
+     * @param length the number of bytes to write.
+     * @param outputStream the output.
+     * @throws IOException if the output fails, or if the content ends before the range.
+     */
+    void writeContent(Long id, long start, long length, OutputStream outputStream) throws IOException;
+
+    /**
+     * Get all the attachments, without their binary content.
      *
      * @return the list of entities.
      */
-    List<AttachmentDTO> findAll();
+    List<AttachmentMetadataDTO> findAll();
 
     /**
-     * Get all the attachments based on siteName.
+     * Get all the attachments based on siteName, without their binary content.
      *
      * @param siteId the site name of the searched entity.
      * @return the list of entities.
      */
-    Optional<List<AttachmentDTO>> findBySiteId(Long siteId);
+    Optional<List<AttachmentMetadataDTO>> findBySiteId(Long siteId);
 
     /**
-     * Get all the attachments based on siteId an AssessmentCriteriaId.
+     * Get all the attachments based on siteId an AssessmentCriteriaId, without their binary content.
      *
      * @param siteId with related site id.
      * @param assessmentCriteriaId with related assessmentCriteriaId.
      * @return the list of entities.
      */
-    Optional<List<AttachmentDTO>> findBySiteIdAndAssessmentCriteriaId(Long siteId, Long assessmentCriteriaId);
+    Optional<List<AttachmentMetadataDTO>> findBySiteIdAndAssessmentCriteriaId(Long siteId, Long assessmentCriteriaId);
 
     /**
      * Delete the attachment for "id".
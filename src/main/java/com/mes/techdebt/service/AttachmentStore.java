@@ -0,0 +1,63 @@
+package com.mes.techdebt.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Storage backend of the binary content of the {@link com.mes.techdebt.domain.AttachmentContent}s.
+ * <p>
+ * A content records the name of its store and its key in it. Contents are addressed by their id and that key, so
+ * that they are read and written without loading the entity.
+ */
+public interface AttachmentStore {
+
+    String DATABASE = "database";
+    String FILE_SYSTEM = "filesystem";
+
+    /**
+     * @return the name recorded on the contents held by this store.
+     */
+    String getName();
+
+    /**
+     * Store a content, streamed from the input without holding it all in memory. The content entity has to be
+     * flushed first.
+     *
+     * @param contentId the id of the content.
+     * @param content the content, read to its end but not closed.
+     * @param length the length of the content, in bytes.
+     * @return the key of the content, {@code null} if the store only needs the id of the content.
+     * @throws IOException if the content could not be read or stored.
+     */
+    String write(Long contentId, InputStream content, long length) throws IOException;
+
+    /**
+     * @param contentId the id of the content.
+     * @param contentKey the key returned by {@link #write}.
+     * @return a stream of the whole content, to close by the caller.
+     * @throws IOException if the content is missing.
+     */
+    InputStream openStream(Long contentId, String contentKey) throws IOException;
+
+    /**
+     * Write a range of the content, without holding it all in memory.
+     *
+     * @param contentId the id of the content.
+     * @param contentKey the key returned by {@link #write}.
+     * @param start the position of the first byte to write, starting at 0.
+     * @param length the number of bytes to write.
+     * @param outputStream the output.
+     * @throws IOException if the output fails, or if the content ends before the range.
+     */
+    void transferTo(Long contentId, String contentKey, long start, long length, OutputStream outputStream) throws IOException;
+
+    /**
+     * Delete a content no attachment refers to anymore, or that was moved to another store.
+     *
+     * @param contentId the id of the content.
+     * @param contentKey the key returned by {@link #write}.
+     * @throws IOException if the content could not be deleted.
+     */
+    void delete(Long contentId, String contentKey) throws IOException;
+}
@@ -0,0 +1,44 @@
+package com.mes.techdebt.service;
+
+import com.mes.techdebt.repository.projection.SiteChangeCount;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Service Interface for counting the committed changes of the sites and of the hierarchy, in the database.
+ * <p>
+ * Every application instance keeps views of them in memory. A view records the count it was built at, and is
+ * rebuilt once the count has moved, so changes committed by another instance are seen on the next read.
+ */
+public interface ChangeCountService {
+
+    /**
+     * @return the number of committed changes of the hierarchy.
+     */
+    long getHierarchyChangeCount();
+
+    /**
+     * @param siteId the id of the site.
+     * @return the number of committed changes of the site, its assessment results and attachments.
+     */
+    long getSiteChangeCount(Long siteId);
+
+    /**
+     * @param siteName the name of the site.
+     * @return the id of the site and the number of its committed changes, or empty if the site does not exist.
+     */
+    Optional<SiteChangeCount> getSiteChangeCount(String siteName);
+
+    /**
+     * Count a change of the hierarchy, in a transaction of its own, for changes the application did not write itself.
+     */
+    void countHierarchyChange();
+
+    /**
+     * Count a change of the sites, in a transaction of its own, for changes the application did not write itself.
+     *
+     * @param siteIds the ids of the sites.
+     */
+    void countSiteChanges(Collection<Long> siteIds);
+}
@@ -1,25 +1,52 @@
 package com.mes.techdebt.service;
 
-import com.mes.techdebt.service.dto.AssessmentResultDTO;
-import com.mes.techdebt.web.rest.request.DashboardRequestDTO;
+import com.mes.techdebt.service.dto.SiteDashboardSnapshot;
 import com.mes.techdebt.web.rest.request.DashboardResponseDTO;
 import com.mes.techdebt.web.rest.request.HierarchyResponseDTO;
+import com.mes.techdebt.web.rest.response.RegionDashboardResponseDTO;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service Interface for managing {@link DashboardResponseDTO}.
  */
 public interface DashboardService {
     /**
-     * Get dashboardResponse by site.
+     * Get the precomputed dashboard of a site, building it on first read.
      *
-     * @param dashboardRequest entities to search from.
-     * @return the persisted entity.
+     * @param siteName the name of the site.
+     * @return the site dashboard, or empty if the site does not exist.
      */
-    List<DashboardResponseDTO> getAssessmentResult(DashboardRequestDTO dashboardRequest,
-                                                   List<AssessmentResultDTO> assessmentResultDTOOptional);
+    Optional<SiteDashboardSnapshot> getSiteDashboard(String siteName);
+
+    /**
+     * Get the current version of the dashboard of a site, changing on every committed write of the site, its
+     * assessment results or attachments, and of the hierarchy.
+     * Read from the change counters, by primary key, so it is cheap enough to check on every poll, and is the same on
+     * every application instance.
+     *
+     * @param siteName the name of the site.
+     * @return the opaque dashboard version, or empty if the site does not exist.
+     */
+    Optional<String> getSiteDashboardVersion(String siteName);
+
+    /**
+     * Discard all precomputed site dashboards and rebuild them from the database.
+     *
+     * @return the number of site dashboards rebuilt.
+     */
+    int rebuildSiteDashboards();
+
+    /**
+     * Get the assessment score rollups of all sites of the given regions, per site and per region.
+     *
+     * @param regions the regions of the sites.
+     * @param latestOnly whether to only count the latest assessment result per site and criteria.
+     * @return the score rollups.
+     */
+    RegionDashboardResponseDTO getRegionDashboard(Set<String> regions, boolean latestOnly);
 
     List<HierarchyResponseDTO> getHierarchy(Optional<Boolean> isOnlyActive);
 }
@@ -26,6 +26,11 @@ public class AssessmentResultDTO implements Serializable {
 
     private Long id;
 
+    /**
+     * The version that was read. An update carrying it fails if the {@link AssessmentResult} was updated since.
+     */
+    private Long version;
+
     @JsonProperty("score")
     private Double score;
 
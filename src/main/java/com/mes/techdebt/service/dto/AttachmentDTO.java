@@ -35,9 +35,6 @@ public class AttachmentDTO implements Serializable {
     @Column(name = "fileSize")
     private Long fileSize;
 
-    @Column(name = "data")
-    private byte[] data;
-
     @Column(name = "stringData")
     private String stringData;
 
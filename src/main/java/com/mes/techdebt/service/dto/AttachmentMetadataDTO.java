@@ -0,0 +1,57 @@
+package com.mes.techdebt.service.dto;
+
+import com.mes.techdebt.config.OffsetDateTimeDeserializer;
+import com.mes.techdebt.config.OffsetDateTimeSerializer;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+/**
+ * An Attachment in a listing, without its binary content, which is downloaded from {@code /attachments/{id}}.
+ * Same fields as {@link AttachmentDTO} otherwise, the site and the assessment criteria only holding their id.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AttachmentMetadataDTO implements Serializable {
+
+    private static final long serialVersionUID = 4870255184036297851L;
+
+    private Long id;
+
+    private String fileName;
+
+    private String fileType;
+
+    private Long fileSize;
+
+    /**
+     * SHA-256 of the content, also the entity tag of the download.
+     */
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    private String contentHash;
+
+    private SiteDTO site;
+
+    private AssessmentCriteriaDTO assessmentCriteria;
+
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    @JsonSerialize(using = OffsetDateTimeSerializer.class)
+    @JsonDeserialize(using = OffsetDateTimeDeserializer.class)
+    private OffsetDateTime createDate;
+
+    private String createdBy;
+
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    @JsonSerialize(using = OffsetDateTimeSerializer.class)
+    @JsonDeserialize(using = OffsetDateTimeDeserializer.class)
+    private OffsetDateTime updateDate;
+
+    private String updatedBy;
+}
@@ -20,6 +20,11 @@ public class CostToFixDTO implements Serializable {
 
     private Long id;
 
+    /**
+     * The version that was read. An update carrying it fails if the {@link CostToFix} was updated since.
+     */
+    private Long version;
+
     @JsonProperty("siteId")
     private Long site_id;
 
@@ -0,0 +1,47 @@
+package com.mes.techdebt.service.dto;
+
+import com.mes.techdebt.web.rest.request.HierarchyResponseDTO;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, versioned view of the active assessment hierarchy.
+ * A new snapshot is built and swapped in whenever the hierarchy is written; readers never see a partial rebuild.
+ */
+@Getter
+@Builder
+@ToString(onlyExplicitlyIncluded = true)
+public class HierarchySnapshot {
+
+    /**
+     * The hierarchy change count the snapshot was built at.
+     */
+    @ToString.Include
+    private final long version;
+
+    /**
+     * Strong entity tag derived from the snapshot content, stable across application instances.
+     */
+    @ToString.Include
+    private final String etag;
+
+    /**
+     * Active criteria sorted by description, regardless of the state of their category, tech area and domain.
+     */
+    private final List<HierarchyResponseDTO> hierarchies;
+
+    /**
+     * Active criteria whose category, tech area and domain are active as well.
+     */
+    private final List<HierarchyResponseDTO> activeHierarchies;
+
+    private final Map<Long, String> techStandardDescriptions;
+
+    public String getTechStandardDescription(Long assessmentCriteriaId) {
+        return techStandardDescriptions.get(assessmentCriteriaId);
+    }
+}
@@ -0,0 +1,54 @@
+package com.mes.techdebt.service.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page in a listing sorted by update date and id, both descending.
+ * The next page starts right after it, so deep pages cost the same as the first one.
+ * <p>
+ * Clients get it as an opaque, URL safe continuation token and send it back unchanged.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class KeysetCursor {
+
+    private static final char SEPARATOR = ',';
+
+    private final Timestamp updateDate;
+    private final Long id;
+
+    public String encode() {
+        String position = updateDate.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token a token previously returned by {@link #encode()}.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}.
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new KeysetCursor(Timestamp.from(Instant.parse(position.substring(0, separator))),
+                    Long.valueOf(position.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
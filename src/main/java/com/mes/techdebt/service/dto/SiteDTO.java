@@ -20,6 +20,11 @@ public class SiteDTO implements Serializable {
 
     private Long id;
 
+    /**
+     * The version that was read. An update carrying it fails if the {@link Site} was updated since.
+     */
+    private Long version;
+
     private String name;
 
     private Long mdmSiteId;
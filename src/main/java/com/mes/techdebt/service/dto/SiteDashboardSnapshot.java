@@ -0,0 +1,120 @@
+package com.mes.techdebt.service.dto;
+
+import com.mes.techdebt.web.rest.request.DashboardResponseDTO;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, ready-to-serve dashboard of one site, with one row per active assessment criteria in hierarchy order.
+ * Writes replace the affected rows in a copy of the snapshot; readers never see a partial update.
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+public class SiteDashboardSnapshot {
+
+    @ToString.Include
+    private final Long siteId;
+
+    @ToString.Include
+    private final String siteName;
+
+    /**
+     * Version of the {@link HierarchySnapshot} the rows were built against.
+     */
+    @ToString.Include
+    private final long hierarchyVersion;
+
+    /**
+     * The site change count the rows were built at, or a later one.
+     */
+    @ToString.Include
+    private final long changeCount;
+
+    @ToString.Include
+    private final long version;
+
+    private final Map<Long, DashboardResponseDTO> rowsByCriteriaId;
+
+    private final List<DashboardResponseDTO> rows;
+
+    /**
+     * The rows holding only their latest assessment result.
+     */
+    private final List<DashboardResponseDTO> latestRows;
+
+    @Builder(toBuilder = true)
+    private SiteDashboardSnapshot(Long siteId, String siteName, long hierarchyVersion, long changeCount, long version,
+                                  Map<Long, DashboardResponseDTO> rowsByCriteriaId) {
+        this.siteId = siteId;
+        this.siteName = siteName;
+        this.hierarchyVersion = hierarchyVersion;
+        this.changeCount = changeCount;
+        this.version = version;
+        this.rowsByCriteriaId = Collections.unmodifiableMap(new LinkedHashMap<>(rowsByCriteriaId));
+        this.rows = List.copyOf(rowsByCriteriaId.values());
+        this.latestRows = rows.stream().map(SiteDashboardSnapshot::toLatestRow).toList();
+    }
+
+    /**
+     * @param siteId the id of the site.
+     * @param hierarchyVersion the version of the hierarchy.
+     * @param changeCount the change count of the site.
+     * @return the dashboard version of the site at that hierarchy version and change count.
+     */
+    public static String toDashboardVersion(Long siteId, long hierarchyVersion, long changeCount) {
+        return siteId + "-" + hierarchyVersion + "-" + changeCount;
+    }
+
+    /**
+     * @return the dashboard version the rows stand for, never newer than the rows themselves.
+     */
+    public String getDashboardVersion() {
+        return toDashboardVersion(siteId, hierarchyVersion, changeCount);
+    }
+
+    /**
+     * @param siteName the name the site is read by.
+     * @param hierarchyVersion the current version of the hierarchy.
+     * @param changeCount the current change count of the site.
+     * @return whether the snapshot still holds the current rows of the site under that name.
+     */
+    public boolean isCurrent(String siteName, long hierarchyVersion, long changeCount) {
+        return this.siteName.equals(siteName) && this.hierarchyVersion >= hierarchyVersion && this.changeCount >= changeCount;
+    }
+
+    /**
+     * Copy this snapshot, replacing the rows of the given criteria. Criteria without a row in this snapshot are ignored.
+     *
+     * @param changedRows the new rows by assessment criteria id.
+     * @param changeCount the site change count the new rows were built at.
+     * @param version the version of the new snapshot.
+     * @return the new snapshot.
+     */
+    public SiteDashboardSnapshot withRows(Map<Long, DashboardResponseDTO> changedRows, long changeCount, long version) {
+        Map<Long, DashboardResponseDTO> newRows = new LinkedHashMap<>(rowsByCriteriaId);
+        changedRows.forEach(newRows::replace);
+        return toBuilder()
+                .changeCount(changeCount)
+                .version(version)
+                .rowsByCriteriaId(newRows)
+                .build();
+    }
+
+    /**
+     * Assessment results of a row are ordered from the latest, so the latest row keeps the first one only.
+     */
+    private static DashboardResponseDTO toLatestRow(DashboardResponseDTO row) {
+        if (row.getAssessmentResults().size() <= 1) {
+            return row;
+        }
+        return row.toBuilder()
+                .assessmentResults(List.of(row.getAssessmentResults().get(0)))
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.mes.techdebt.service.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published when an assessment result or attachment of a site is written,
+ * so that the dashboard row of the given site and assessment criteria can be refreshed once the transaction commits.
+ * Published without assessment criteria when the site itself is written, so that its whole dashboard is dropped.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class DashboardChangedEvent {
+
+    private final Long siteId;
+
+    private final Long assessmentCriteriaId;
+}
@@ -0,0 +1,19 @@
+package com.mes.techdebt.service.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published when a tech domain, tech area, category or assessment criteria is written,
+ * so that views derived from the assessment hierarchy can be rebuilt once the transaction commits.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class HierarchyChangedEvent {
+
+    private final String entityName;
+
+    private final Long id;
+}
@@ -0,0 +1 @@
+package com.mes.techdebt.service.event;
\ No newline at end of file
@@ -1,12 +1,15 @@
 package com.mes.techdebt.service.impl;
 
 import com.mes.techdebt.domain.AssessmentCriteria;
+import com.mes.techdebt.repository.AssessmentResultRepository;
 import com.mes.techdebt.repository.AssessmentCriteriaRepository;
 import com.mes.techdebt.service.AssessmentCriteriaService;
 import com.mes.techdebt.service.dto.AssessmentCriteriaDTO;
 import com.mes.techdebt.service.mapper.AssessmentCriteriaMapper;
+import com.mes.techdebt.service.event.HierarchyChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,7 +26,9 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AssessmentCriteriaServiceImpl implements AssessmentCriteriaService {
     private final AssessmentCriteriaRepository assessmentCriteriaRepository;
+    private final AssessmentResultRepository assessmentResultRepository;
     private final AssessmentCriteriaMapper assessmentCriteriaMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Override
     public AssessmentCriteriaDTO save(AssessmentCriteriaDTO assessmentCriteriaDTO) {
@@ -39,7 +44,8 @@ public class AssessmentCriteriaServiceImpl implements AssessmentCriteriaService
             assessmentCriteria = assessmentCriteriaMapper.toEntity(assessmentCriteriaDTO);
             log.debug("New AssessmentCriteria: {}", assessmentCriteria);
         }
-        assessmentCriteria = assessmentCriteriaRepository.save(assessmentCriteria);
+        assessmentCriteria = syncHierarchyIds(assessmentCriteriaRepository.save(assessmentCriteria));
+        publishHierarchyChanged(assessmentCriteria.getId());
         return assessmentCriteriaMapper.toDto(assessmentCriteria);
     }
 
@@ -47,7 +53,8 @@ public class AssessmentCriteriaServiceImpl implements AssessmentCriteriaService
     public AssessmentCriteriaDTO update(AssessmentCriteriaDTO assessmentCriteriaDTO) {
         log.debug("Request to save AssessmentCriteria : {}", assessmentCriteriaDTO);
         AssessmentCriteria assessmentCriteria = assessmentCriteriaMapper.toEntity(assessmentCriteriaDTO);
-        assessmentCriteria = assessmentCriteriaRepository.save(assessmentCriteria);
+        assessmentCriteria = syncHierarchyIds(assessmentCriteriaRepository.save(assessmentCriteria));
+        publishHierarchyChanged(assessmentCriteria.getId());
         return assessmentCriteriaMapper.toDto(assessmentCriteria);
     }
 
@@ -59,10 +66,12 @@ public class AssessmentCriteriaServiceImpl implements AssessmentCriteriaService
             .findById(assessmentCriteriaDTO.getId())
             .map(existingAssesmentCriteria -> {
                 assessmentCriteriaMapper.partialUpdate(existingAssesmentCriteria, assessmentCriteriaDTO);
+                publishHierarchyChanged(existingAssesmentCriteria.getId());
 
                 return existingAssesmentCriteria;
             })
             .map(assessmentCriteriaRepository::save)
+            .map(this::syncHierarchyIds)
             .map(assessmentCriteriaMapper::toDto);
     }
 
@@ -84,6 +93,7 @@ public class AssessmentCriteriaServiceImpl implements AssessmentCriteriaService
     public void delete(Long id) {
         log.debug("Request to delete AssessmentCriteria : {}", id);
         assessmentCriteriaRepository.deleteById(id);
+        publishHierarchyChanged(id);
     }
 
 
@@ -106,4 +116,16 @@ public class AssessmentCriteriaServiceImpl implements AssessmentCriteriaService
         Optional<AssessmentCriteria> assessmentCriteria = assessmentCriteriaRepository.findByDescription(description);
         return assessmentCriteria.isPresent() ? assessmentCriteria.get().getId() : null;
     }
+
+    /**
+     * Re-copies the hierarchy ids held by the assessment results, in case the criteria moved to another category.
+     */
+    private AssessmentCriteria syncHierarchyIds(AssessmentCriteria assessmentCriteria) {
+        assessmentResultRepository.syncHierarchyIdsByAssessmentCriteriaId(assessmentCriteria.getId());
+        return assessmentCriteria;
+    }
+
+    private void publishHierarchyChanged(Long id) {
+        applicationEventPublisher.publishEvent(new HierarchyChangedEvent(AssessmentCriteria.class.getSimpleName(), id));
+    }
 }
@@ -0,0 +1,132 @@
+package com.mes.techdebt.service.impl;
+
+import com.mes.techdebt.domain.AssessmentCriteria;
+import com.mes.techdebt.domain.Category;
+import com.mes.techdebt.domain.TechArea;
+import com.mes.techdebt.domain.TechDomain;
+import com.mes.techdebt.repository.AssessmentCriteriaRepository;
+import com.mes.techdebt.service.AssessmentHierarchyService;
+import com.mes.techdebt.service.ChangeCountService;
+import com.mes.techdebt.service.dto.HierarchySnapshot;
+import com.mes.techdebt.service.event.HierarchyChangedEvent;
+import com.mes.techdebt.web.rest.request.HierarchyResponseDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service Implementation for serving the assessment hierarchy from memory.
+ * The snapshot is rebuilt as a whole and swapped in atomically after every committed hierarchy write. It is versioned
+ * by the hierarchy change count, so hierarchy writes committed by another instance are seen on the next read.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AssessmentHierarchyServiceImpl implements AssessmentHierarchyService {
+
+    private final AssessmentCriteriaRepository assessmentCriteriaRepository;
+    private final ChangeCountService changeCountService;
+
+    private final AtomicReference<HierarchySnapshot> snapshot = new AtomicReference<>();
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public HierarchySnapshot getSnapshot() {
+        HierarchySnapshot current = snapshot.get();
+        return current != null && current.getVersion() >= changeCountService.getHierarchyChangeCount() ? current : build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public HierarchySnapshot rebuild() {
+        changeCountService.countHierarchyChange();
+        return build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        build();
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onHierarchyChanged(HierarchyChangedEvent event) {
+        log.debug("Hierarchy changed: {}", event);
+        build();
+    }
+
+    private synchronized HierarchySnapshot build() {
+        // Counted before reading, so the snapshot never stands for a hierarchy older than its version
+        long version = changeCountService.getHierarchyChangeCount();
+        List<AssessmentCriteria> assessmentCriteriaList = findAllActiveAssessmentCriteria();
+
+        List<HierarchyResponseDTO> hierarchies = new ArrayList<>();
+        List<HierarchyResponseDTO> activeHierarchies = new ArrayList<>();
+        Map<Long, String> techStandardDescriptions = new HashMap<>();
+        StringBuilder content = new StringBuilder();
+        assessmentCriteriaList.forEach(assessmentCriteria -> {
+            Category category = assessmentCriteria.getCategory();
+            TechArea techArea = category.getTechArea();
+            TechDomain techDomain = techArea.getDomain();
+
+            HierarchyResponseDTO hierarchy = HierarchyResponseDTO.builder()
+                    .assessmentCriteriaDescription(assessmentCriteria.getDescription())
+                    .assessmentCriteriaId(assessmentCriteria.getId())
+                    .categoryDescription(category.getDescription())
+                    .categoryId(category.getId())
+                    .techAreaDescription(techArea.getDescription())
+                    .techAreaId(techArea.getId())
+                    .domainDescription(techDomain.getDescription())
+                    .domainId(techDomain.getId())
+                    .build();
+            hierarchies.add(hierarchy);
+
+            // Technical choice to not add to the active hierarchy if any parent is not active
+            boolean isActiveCategory = category.getIsActive() == null || category.getIsActive();
+            boolean isActiveTechArea = techArea.getIsActive() == null || techArea.getIsActive();
+            boolean isActiveTechDomain = techDomain.getIsActive() == null || techDomain.getIsActive();
+            boolean isActive = isActiveCategory && isActiveTechArea && isActiveTechDomain;
+            if (isActive) {
+                activeHierarchies.add(hierarchy);
+            }
+
+            techStandardDescriptions.put(assessmentCriteria.getId(), assessmentCriteria.getTechStandardDescription());
+            content.append(hierarchy).append(isActive)
+                    .append(assessmentCriteria.getTechStandardDescription()).append('\n');
+        });
+
+        HierarchySnapshot newSnapshot = HierarchySnapshot.builder()
+                .version(version)
+                .etag("\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"")
+                .hierarchies(Collections.unmodifiableList(hierarchies))
+                .activeHierarchies(Collections.unmodifiableList(activeHierarchies))
+                .techStandardDescriptions(Collections.unmodifiableMap(techStandardDescriptions))
+                .build();
+        snapshot.set(newSnapshot);
+        log.debug("Rebuilt hierarchy snapshot: {}", newSnapshot);
+        return newSnapshot;
+    }
+
+    /**
+     * Loads the active criteria together with their category, tech area and domain in a single query,
+     * sorted by criteria description.
+     */
+    private List<AssessmentCriteria> findAllActiveAssessmentCriteria() {
+        Comparator<AssessmentCriteria> sortByCriteria = Comparator.comparing(AssessmentCriteria::getDescription);
+        return assessmentCriteriaRepository.findAllWithHierarchy().stream()
+                .filter(assessmentCriteria -> assessmentCriteria.getIsActive())
+                .sorted(sortByCriteria)
+                .toList();
+    }
+}
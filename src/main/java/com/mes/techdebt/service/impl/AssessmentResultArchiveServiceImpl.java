@@ -0,0 +1,87 @@
+package com.mes.techdebt.service.impl;
+
+import com.mes.techdebt.domain.Tombstone;
+import com.mes.techdebt.repository.AssessmentResultRepository;
+import com.mes.techdebt.repository.TombstoneRepository;
+import com.mes.techdebt.repository.projection.ArchivedAssessmentResult;
+import com.mes.techdebt.service.AssessmentResultArchiveService;
+import com.mes.techdebt.service.event.DashboardChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service Implementation for maintaining the yearly partitions of {@link com.mes.techdebt.domain.AssessmentResult}.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class AssessmentResultArchiveServiceImpl implements AssessmentResultArchiveService {
+
+    private final AssessmentResultRepository assessmentResultRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void createUpcomingPartitions() {
+        int currentYear = Year.now(ZoneOffset.UTC).getValue();
+        List<Integer> partitionYears = assessmentResultRepository.findPartitionYears();
+        for (int year = currentYear; year <= currentYear + 1; year++) {
+            if (!partitionYears.contains(year)) {
+                log.info("Creating the AssessmentResult partition of {}", year);
+                assessmentResultRepository.createPartition(year);
+            }
+        }
+    }
+
+    @Override
+    public int archiveBefore(Instant cutoff) {
+        log.debug("Request to archive AssessmentResults before {}", cutoff);
+        int cutoffYear = cutoff.atOffset(ZoneOffset.UTC).getYear();
+        int archived = 0;
+        for (int year : assessmentResultRepository.findPartitionYears()) {
+            // The partition of a year ends when the next year starts
+            if (year >= cutoffYear) {
+                break;
+            }
+            List<ArchivedAssessmentResult> archivedOfYear = assessmentResultRepository.archiveSupersededResults(year);
+            recordArchived(archivedOfYear);
+            boolean dropped = assessmentResultRepository.dropPartitionIfEmpty(year);
+            log.info("Archived {} AssessmentResults of {}, partition dropped: {}", archivedOfYear.size(), year, dropped);
+            archived += archivedOfYear.size();
+        }
+        return archived;
+    }
+
+    /**
+     * Archived results are gone from the table as if they were deleted, so clients syncing their site and the
+     * dashboards of their site and criteria are told the same way.
+     */
+    private void recordArchived(List<ArchivedAssessmentResult> archivedResults) {
+        tombstoneRepository.saveAll(archivedResults.stream()
+                .map(archivedResult -> new Tombstone()
+                        .entityName(Tombstone.ASSESSMENT_RESULT)
+                        .entityId(archivedResult.getId())
+                        .siteId(archivedResult.getSiteId())
+                        .assessmentCriteriaId(archivedResult.getAssessmentCriteriaId()))
+                .toList());
+        // One event per site and criteria, however many of their results were archived
+        Set<List<Long>> changedRows = new LinkedHashSet<>();
+        for (ArchivedAssessmentResult archivedResult : archivedResults) {
+            if (changedRows.add(List.of(archivedResult.getSiteId(), archivedResult.getAssessmentCriteriaId()))) {
+                applicationEventPublisher.publishEvent(
+                        new DashboardChangedEvent(archivedResult.getSiteId(), archivedResult.getAssessmentCriteriaId()));
+            }
+        }
+    }
+}
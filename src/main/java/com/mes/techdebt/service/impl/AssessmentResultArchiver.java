@@ -0,0 +1,44 @@
+package com.mes.techdebt.service.impl;
+
+import com.mes.techdebt.service.AssessmentResultArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.Period;
+import java.time.ZoneOffset;
+
+/**
+ * Creates the upcoming partitions of assessment results and archives the results past the retention window.
+ * Needs the partitioned table, which only exists on PostgreSQL.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "assessment-result.archive.enabled", havingValue = "true")
+public class AssessmentResultArchiver {
+
+    private final AssessmentResultArchiveService assessmentResultArchiveService;
+
+    private final Period retention;
+
+    public AssessmentResultArchiver(AssessmentResultArchiveService assessmentResultArchiveService,
+                                    @Value("${assessment-result.archive.retention:P2Y}") Period retention) {
+        this.assessmentResultArchiveService = assessmentResultArchiveService;
+        this.retention = retention;
+    }
+
+    @Scheduled(cron = "${assessment-result.archive.cron:0 0 3 * * *}", zone = "UTC")
+    public void archive() {
+        try {
+            assessmentResultArchiveService.createUpcomingPartitions();
+            Instant cutoff = Instant.now().atOffset(ZoneOffset.UTC).minus(retention).toInstant();
+            assessmentResultArchiveService.archiveBefore(cutoff);
+        } catch (RuntimeException e) {
+            // Retried on the next run
+            log.error("Failed to archive AssessmentResults", e);
+        }
+    }
+}
@@ -1,19 +1,63 @@
 package com.mes.techdebt.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mes.techdebt.domain.AssessmentCriteria;
 import com.mes.techdebt.domain.AssessmentResult;
+import com.mes.techdebt.domain.Tombstone;
+import com.mes.techdebt.repository.AssessmentCriteriaRepository;
 import com.mes.techdebt.repository.AssessmentResultRepository;
+import com.mes.techdebt.repository.AssessmentResultSpecifications;
+import com.mes.techdebt.repository.AttachmentRepository;
+import com.mes.techdebt.repository.RecommendationStatusRepository;
+import com.mes.techdebt.repository.SiteRepository;
+import com.mes.techdebt.repository.TombstoneRepository;
+import com.mes.techdebt.repository.projection.AssessmentResultRow;
+import com.mes.techdebt.repository.projection.HierarchyUsageCount;
+import com.mes.techdebt.repository.projection.ScoreHistoryBucket;
 import com.mes.techdebt.service.AssessmentResultService;
 import com.mes.techdebt.service.dto.AssessmentResultDTO;
+import com.mes.techdebt.service.dto.KeysetCursor;
 import com.mes.techdebt.service.mapper.AssessmentResultMapper;
+import com.mes.techdebt.service.mapper.DateMapper;
+import com.mes.techdebt.service.event.DashboardChangedEvent;
+import com.mes.techdebt.web.rest.request.AssessmentResultFilterDTO;
+import com.mes.techdebt.web.rest.request.ScoreHistoryRequestDTO;
+import com.mes.techdebt.web.rest.response.AssessmentResultRowDTO;
+import com.mes.techdebt.web.rest.response.BulkItemResultDTO;
+import com.mes.techdebt.web.rest.response.DashboardAttachmentListDTO;
+import com.mes.techdebt.web.rest.response.DeletedRecordDTO;
+import com.mes.techdebt.web.rest.response.HierarchyScoreRollupDTO;
+import com.mes.techdebt.web.rest.response.HierarchyUsageCountDTO;
+import com.mes.techdebt.web.rest.response.ScoreHistoryPointDTO;
+import com.mes.techdebt.web.rest.response.SiteChangesResponseDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service Implementation for managing {@link AssessmentResult}.
@@ -25,21 +69,144 @@ import java.util.Optional;
 public class AssessmentResultServiceImpl implements AssessmentResultService {
     private final AssessmentResultRepository assessmentResultRepository;
     private final AssessmentResultMapper assessmentResultMapper;
+    private final SiteRepository siteRepository;
+    private final AssessmentCriteriaRepository assessmentCriteriaRepository;
+    private final RecommendationStatusRepository recommendationStatusRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final DateMapper dateMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Results are stamped when their transaction flushes, but only visible once it commits, so every sync reads
+     * back a little before the previous one to pick up transactions that were still open.
+     */
+    private static final Duration CHANGES_OVERLAP = Duration.ofSeconds(5);
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    /**
+     * Writes rows with a header line and the same separator as the imported files. The generator only buffers a
+     * few kilobytes before writing through to the output.
+     */
+    private static final ObjectWriter CSV_ROW_WRITER = CSV_MAPPER.writerFor(AssessmentResultRowDTO.class)
+            .with(CSV_MAPPER.schemaFor(AssessmentResultRowDTO.class).withHeader().withColumnSeparator(';'))
+            .with(CsvGenerator.Feature.STRICT_CHECK_FOR_QUOTING)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     @Override
     public AssessmentResultDTO save(AssessmentResultDTO assessmentResultDTO) {
         log.debug("Request to save AssessmentResult : {}", assessmentResultDTO);
         AssessmentResult assessmentResult = assessmentResultMapper.toEntity(assessmentResultDTO);
+        if (assessmentResultDTO.getAssessmentCriteria() != null && assessmentResultDTO.getAssessmentCriteria().getId() != null) {
+            // The hierarchy ids are copied from the stored criteria, not from the one in the request
+            assessmentResult.setAssessmentCriteria(
+                    assessmentCriteriaRepository.getReferenceById(assessmentResultDTO.getAssessmentCriteria().getId()));
+        }
+        if (assessmentResult.getId() != null) {
+            assessmentResultRepository.findById(assessmentResult.getId())
+                    .ifPresent(storedAssessmentResult -> applyExpectedVersion(assessmentResult,
+                            assessmentResultDTO.getVersion(), storedAssessmentResult));
+        }
         log.debug("New AssessmentResult: {}", assessmentResult);
-        assessmentResult = assessmentResultRepository.save(assessmentResult);
-        return assessmentResultMapper.toDto(assessmentResult);
+        // Flushed to return the incremented version
+        AssessmentResult savedAssessmentResult = assessmentResultRepository.saveAndFlush(assessmentResult);
+        publishDashboardChanged(savedAssessmentResult);
+        return assessmentResultMapper.toDto(savedAssessmentResult);
     }
 
     @Override
     public AssessmentResultDTO update(AssessmentResultDTO assessmentResultDTO) {
         log.debug("Request to save AssessmentResult : {}", assessmentResultDTO);
+        // The previous site and criteria row of the dashboard has to be refreshed as well
+        Optional<AssessmentResult> storedAssessmentResult = Optional.ofNullable(assessmentResultDTO.getId())
+                .flatMap(assessmentResultRepository::findById);
+        storedAssessmentResult.ifPresent(this::publishDashboardChanged);
         AssessmentResult assessmentResult = assessmentResultMapper.toEntity(assessmentResultDTO);
-        assessmentResult = assessmentResultRepository.save(assessmentResult);
-        return assessmentResultMapper.toDto(assessmentResult);
+        storedAssessmentResult.ifPresent(stored -> applyExpectedVersion(assessmentResult, assessmentResultDTO.getVersion(), stored));
+        AssessmentResult savedAssessmentResult = assessmentResultRepository.saveAndFlush(assessmentResult);
+        publishDashboardChanged(savedAssessmentResult);
+        return assessmentResultMapper.toDto(savedAssessmentResult);
+    }
+
+    @Override
+    public List<BulkItemResultDTO> saveAll(List<AssessmentResultDTO> assessmentResultDTOs) {
+        log.debug("Request to save {} AssessmentResults", assessmentResultDTOs.size());
+        // Every reference is checked with one query per table rather than one lookup per item
+        Set<Long> updatedIds = collectIds(assessmentResultDTOs, AssessmentResultDTO::getId);
+        Map<Long, AssessmentResult> existingAssessmentResults = updatedIds.isEmpty() ? Map.of()
+                : assessmentResultRepository.findByIdInOrderByUpdateDateDesc(updatedIds).stream()
+                .collect(Collectors.toMap(AssessmentResult::getId, Function.identity()));
+        Set<Long> siteIds = findExistingIds(collectIds(assessmentResultDTOs,
+                assessmentResultDTO -> assessmentResultDTO.getSite() != null ? assessmentResultDTO.getSite().getId() : null),
+                siteRepository::findIdsByIdIn);
+        // Criteria come with their hierarchy, which every saved result copies the ids of
+        Set<Long> requestedAssessmentCriteriaIds = collectIds(assessmentResultDTOs,
+                assessmentResultDTO -> assessmentResultDTO.getAssessmentCriteria() != null
+                        ? assessmentResultDTO.getAssessmentCriteria().getId() : null);
+        Map<Long, AssessmentCriteria> assessmentCriterias = requestedAssessmentCriteriaIds.isEmpty() ? Map.of()
+                : assessmentCriteriaRepository.findWithHierarchyByIdIn(requestedAssessmentCriteriaIds).stream()
+                .collect(Collectors.toMap(AssessmentCriteria::getId, Function.identity()));
+        Set<Long> assessmentCriteriaIds = assessmentCriterias.keySet();
+        Set<Long> recommendationStatusIds = findExistingIds(collectIds(assessmentResultDTOs,
+                assessmentResultDTO -> assessmentResultDTO.getRecommendationStatus() != null
+                        ? assessmentResultDTO.getRecommendationStatus().getId() : null),
+                recommendationStatusRepository::findIdsByIdIn);
+
+        BulkItemResultDTO[] results = new BulkItemResultDTO[assessmentResultDTOs.size()];
+        List<AssessmentResult> assessmentResults = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int index = 0; index < assessmentResultDTOs.size(); index++) {
+            AssessmentResultDTO assessmentResultDTO = assessmentResultDTOs.get(index);
+            String error = validate(assessmentResultDTO, existingAssessmentResults, siteIds,
+                    assessmentCriteriaIds, recommendationStatusIds);
+            if (error != null) {
+                results[index] = BulkItemResultDTO.builder()
+                        .index(index)
+                        .id(assessmentResultDTO.getId())
+                        .status(BulkItemResultDTO.REJECTED)
+                        .error(error)
+                        .build();
+                continue;
+            }
+
+            if (assessmentResultDTO.getId() != null) {
+                // The previous site and criteria row of the dashboard has to be refreshed as well
+                publishDashboardChanged(existingAssessmentResults.get(assessmentResultDTO.getId()));
+            }
+            // Site and status are proxies and stay unloaded. The criteria are the ones loaded above, so copying their
+            // hierarchy ids on persist and merge does not query them one by one
+            AssessmentResult assessmentResult = assessmentResultMapper.toEntity(assessmentResultDTO);
+            if (assessmentResultDTO.getId() != null) {
+                applyExpectedVersion(assessmentResult, assessmentResultDTO.getVersion(),
+                        existingAssessmentResults.get(assessmentResultDTO.getId()));
+            }
+            assessmentResult.setSite(siteRepository.getReferenceById(assessmentResultDTO.getSite().getId()));
+            assessmentResult.setAssessmentCriteria(assessmentCriterias.get(assessmentResultDTO.getAssessmentCriteria().getId()));
+            assessmentResult.setRecommendationStatus(
+                    recommendationStatusRepository.getReferenceById(assessmentResultDTO.getRecommendationStatus().getId()));
+            assessmentResults.add(assessmentResult);
+            indexes.add(index);
+        }
+
+        // Inserts and updates are only flushed here, so Hibernate sends them in JDBC batches
+        List<AssessmentResult> savedAssessmentResults = assessmentResultRepository.saveAll(assessmentResults);
+        assessmentResultRepository.flush();
+        for (int i = 0; i < savedAssessmentResults.size(); i++) {
+            AssessmentResult savedAssessmentResult = savedAssessmentResults.get(i);
+            int index = indexes.get(i);
+            publishDashboardChanged(savedAssessmentResult);
+            results[index] = BulkItemResultDTO.builder()
+                    .index(index)
+                    .id(savedAssessmentResult.getId())
+                    .status(assessmentResultDTOs.get(index).getId() == null
+                            ? BulkItemResultDTO.CREATED : BulkItemResultDTO.UPDATED)
+                    .build();
+        }
+        return Arrays.asList(results);
     }
 
     @Override
@@ -49,11 +216,16 @@ public class AssessmentResultServiceImpl implements AssessmentResultService {
         return assessmentResultRepository
             .findById(assessmentResultDTO.getId())
             .map(existingAssessmentResult -> {
+                checkVersion(existingAssessmentResult, assessmentResultDTO.getVersion());
+                // Before and after the update, in case the result moved to another site or criteria
+                publishDashboardChanged(existingAssessmentResult);
                 assessmentResultMapper.partialUpdate(existingAssessmentResult, assessmentResultDTO);
+                applyReferences(existingAssessmentResult, assessmentResultDTO);
+                publishDashboardChanged(existingAssessmentResult);
 
                 return existingAssessmentResult;
             })
-            .map(assessmentResultRepository::save)
+            .map(assessmentResultRepository::saveAndFlush)
             .map(assessmentResultMapper::toDto);
     }
 
@@ -64,6 +236,90 @@ public class AssessmentResultServiceImpl implements AssessmentResultService {
         return assessmentResultRepository.findAll(pageable).map(assessmentResultMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<AssessmentResultDTO> findSlice(Pageable pageable) {
+        log.debug("Request to get a slice of AssessmentResults");
+        return assessmentResultRepository.findAllBy(pageable).map(assessmentResultMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<AssessmentResultRowDTO> findByFilter(AssessmentResultFilterDTO filter, Pageable pageable) {
+        log.debug("Request to get AssessmentResults by filter: {}", filter);
+        return assessmentResultRepository.findRows(toSpecification(filter), pageable).map(this::toRowDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<AssessmentResultRowDTO> findSliceByFilter(AssessmentResultFilterDTO filter, Pageable pageable) {
+        log.debug("Request to get a slice of AssessmentResults by filter: {}", filter);
+        return assessmentResultRepository.findRowSlice(toSpecification(filter), pageable).map(this::toRowDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportByFilter(AssessmentResultFilterDTO filter, OutputStream outputStream) throws IOException {
+        log.debug("Request to export AssessmentResults by filter: {}", filter);
+        try (Stream<AssessmentResultRow> rows = assessmentResultRepository.streamRows(toSpecification(filter));
+             SequenceWriter csvWriter = CSV_ROW_WRITER.writeValues(outputStream)) {
+            Iterator<AssessmentResultRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                csvWriter.write(toRowDto(iterator.next()));
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScoreHistoryPointDTO> getScoreHistory(ScoreHistoryRequestDTO scoreHistoryRequest) {
+        log.debug("Request to get score history: {}", scoreHistoryRequest);
+        OffsetDateTime to = scoreHistoryRequest.getTo() != null ? scoreHistoryRequest.getTo() : OffsetDateTime.now();
+        List<ScoreHistoryBucket> buckets = assessmentResultRepository.findScoreHistory(
+                scoreHistoryRequest.getInterval().toLowerCase(Locale.ROOT),
+                dateMapper.asTimestamp(scoreHistoryRequest.getFrom()),
+                dateMapper.asTimestamp(to),
+                scoreHistoryRequest.getSiteIds(),
+                scoreHistoryRequest.getRegions(),
+                scoreHistoryRequest.getHierarchyLevel(),
+                scoreHistoryRequest.getHierarchyId());
+
+        // One row per bucket and recommendation status, merged into one point per bucket
+        Map<Timestamp, ScoreHistoryPointDTO> points = new LinkedHashMap<>();
+        Map<Timestamp, Double> scoreSums = new HashMap<>();
+        for (ScoreHistoryBucket bucket : buckets) {
+            ScoreHistoryPointDTO point = points.computeIfAbsent(bucket.getBucket(), key -> ScoreHistoryPointDTO.builder()
+                    .bucket(dateMapper.asOffsetDateTime(key))
+                    .recommendationStatusCounts(new LinkedHashMap<>())
+                    .build());
+            point.setResultCount(point.getResultCount() + bucket.getResultCount());
+            point.setScoreCount(point.getScoreCount() + bucket.getScoreCount());
+            if (bucket.getScoreSum() != null) {
+                scoreSums.merge(bucket.getBucket(), bucket.getScoreSum(), Double::sum);
+            }
+            if (bucket.getRecommendationStatusId() != null) {
+                point.getRecommendationStatusCounts().put(bucket.getRecommendationStatusId(), bucket.getResultCount());
+            }
+        }
+        points.forEach((bucket, point) -> {
+            if (point.getScoreCount() > 0) {
+                point.setAverageScore(scoreSums.get(bucket) / point.getScoreCount());
+            }
+        });
+        return new ArrayList<>(points.values());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<AssessmentResultDTO> findAllAfter(KeysetCursor after, int size) {
+        log.debug("Request to get AssessmentResults after: {}", after);
+        Pageable pageable = PageRequest.ofSize(size);
+        Slice<AssessmentResult> assessmentResults = after == null
+                ? assessmentResultRepository.findFirstPageOrderByUpdateDateDesc(pageable)
+                : assessmentResultRepository.findNextPageOrderByUpdateDateDesc(after.getUpdateDate(), after.getId(), pageable);
+        return assessmentResults.map(assessmentResultMapper::toDto);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<AssessmentResultDTO> findOne(Long id) {
@@ -79,9 +335,92 @@ public class AssessmentResultServiceImpl implements AssessmentResultService {
                 .map(assessmentResultMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<List<AssessmentResultDTO>> findLatestBySiteName(String siteName) {
+        log.debug("Request to get latest AssessmentResults for site: {}", siteName);
+        List<Long> latestIds = assessmentResultRepository.findLatestIdsBySiteName(siteName);
+        if (latestIds.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        return Optional.of(assessmentResultMapper.toDto(assessmentResultRepository.findByIdInOrderByUpdateDateDesc(latestIds)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<SiteChangesResponseDTO> findChangesBySiteName(String siteName, OffsetDateTime since) {
+        log.debug("Request to get AssessmentResult changes for site: {} since: {}", siteName, since);
+        Timestamp watermark = Timestamp.from(Instant.now().minus(CHANGES_OVERLAP));
+        Timestamp sinceTimestamp = dateMapper.asTimestamp(since);
+        return siteRepository.findIdByName(siteName).map(siteId -> SiteChangesResponseDTO.builder()
+                .siteId(siteId)
+                .watermark(dateMapper.asOffsetDateTime(watermark))
+                .assessmentResults(assessmentResultMapper.toDto(
+                        assessmentResultRepository.findBySite_IdAndUpdateDateAfterOrderByUpdateDate(siteId, sinceTimestamp)))
+                .attachments(attachmentRepository.findMetadataBySiteIdAndUpdateDateAfter(siteId, sinceTimestamp).stream()
+                        .map(attachment -> DashboardAttachmentListDTO.builder()
+                                .attachmentEndpoint(String.format("/attachments/%s", attachment.getId()))
+                                .id(attachment.getId())
+                                .fileSize(attachment.getFileSize())
+                                .fileType(attachment.getFileType())
+                                .fileName(attachment.getFileName())
+                                .assessmentCriteriaId(attachment.getAssessmentCriteriaId())
+                                .updateDate(dateMapper.asOffsetDateTime(attachment.getUpdateDate()))
+                                .updatedBy(attachment.getUpdatedBy())
+                                .build())
+                        .toList())
+                .deleted(tombstoneRepository.findBySiteIdAndDeleteDateAfterOrderByDeleteDate(siteId, sinceTimestamp).stream()
+                        .map(tombstone -> DeletedRecordDTO.builder()
+                                .entityName(tombstone.getEntityName())
+                                .id(tombstone.getEntityId())
+                                .assessmentCriteriaId(tombstone.getAssessmentCriteriaId())
+                                .deleteDate(dateMapper.asOffsetDateTime(tombstone.getDeleteDate()))
+                                .build())
+                        .toList())
+                .build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<HierarchyScoreRollupDTO> getScoreRollup(Set<Long> siteIds) {
+        log.debug("Request to get score rollup for sites: {}", siteIds);
+        Map<String, Integer> levelOrder = Map.of(
+                HierarchyScoreRollupDTO.LEVEL_TOTAL, 0,
+                HierarchyScoreRollupDTO.LEVEL_TECH_DOMAIN, 1,
+                HierarchyScoreRollupDTO.LEVEL_TECH_AREA, 2,
+                HierarchyScoreRollupDTO.LEVEL_CATEGORY, 3);
+        return assessmentResultRepository.findScoreRollupBySiteIdIn(siteIds).stream()
+                .map(rollup -> HierarchyScoreRollupDTO.builder()
+                        .level(rollup.getLevel())
+                        .id(rollup.getId())
+                        .description(rollup.getDescription())
+                        .parentId(rollup.getParentId())
+                        .resultCount(rollup.getResultCount())
+                        .scoreCount(rollup.getScoreCount())
+                        .averageScore(rollup.getAverageScore())
+                        .minScore(rollup.getMinScore())
+                        .maxScore(rollup.getMaxScore())
+                        .latestScore(rollup.getLatestScore())
+                        .build())
+                .sorted(Comparator.comparing((HierarchyScoreRollupDTO rollup) -> levelOrder.get(rollup.getLevel()))
+                        .thenComparing(HierarchyScoreRollupDTO::getDescription, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
     @Override
     public void delete(Long id) {
         log.debug("Request to delete AssessmentResult : {}", id);
+        assessmentResultRepository.findById(id).ifPresent(assessmentResult -> {
+            publishDashboardChanged(assessmentResult);
+            if (assessmentResult.getSite() != null) {
+                tombstoneRepository.save(new Tombstone()
+                        .entityName(Tombstone.ASSESSMENT_RESULT)
+                        .entityId(assessmentResult.getId())
+                        .siteId(assessmentResult.getSite().getId())
+                        .assessmentCriteriaId(assessmentResult.getAssessmentCriteria() != null
+                                ? assessmentResult.getAssessmentCriteria().getId() : null));
+            }
+        });
         assessmentResultRepository.deleteById(id);
     }
 
@@ -99,16 +438,176 @@ public class AssessmentResultServiceImpl implements AssessmentResultService {
 
     @Override
     public long countByCategoryId(Long id) {
-        return assessmentResultRepository.countByAssessmentCriteria_Category_Id(id);
+        return assessmentResultRepository.countByCategoryId(id);
     }
 
     @Override
     public long countByTechAreaId(Long id) {
-        return assessmentResultRepository.countByAssessmentCriteria_Category_TechArea_Id(id);
+        return assessmentResultRepository.countByTechAreaId(id);
     }
 
     @Override
     public long countByTechDomainId(Long id) {
-        return assessmentResultRepository.countByAssessmentCriteria_Category_TechArea_Domain_Id(id);
+        return assessmentResultRepository.countByTechDomainId(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<HierarchyUsageCountDTO> getHierarchyUsageCounts() {
+        log.debug("Request to get AssessmentResult counts of the whole hierarchy");
+        Map<Long, HierarchyUsageCountDTO> techDomains = new LinkedHashMap<>();
+        Map<Long, HierarchyUsageCountDTO> techAreas = new LinkedHashMap<>();
+        Map<Long, HierarchyUsageCountDTO> categories = new LinkedHashMap<>();
+        Map<Long, HierarchyUsageCountDTO> assessmentCriteria = new LinkedHashMap<>();
+        for (HierarchyUsageCount usageCount : assessmentResultRepository.findHierarchyUsageCounts()) {
+            long resultCount = usageCount.getResultCount();
+            addUsageCount(techDomains, HierarchyUsageCountDTO.LEVEL_TECH_DOMAIN,
+                    usageCount.getDomainId(), null, resultCount);
+            addUsageCount(techAreas, HierarchyUsageCountDTO.LEVEL_TECH_AREA,
+                    usageCount.getTechAreaId(), usageCount.getDomainId(), resultCount);
+            addUsageCount(categories, HierarchyUsageCountDTO.LEVEL_CATEGORY,
+                    usageCount.getCategoryId(), usageCount.getTechAreaId(), resultCount);
+            addUsageCount(assessmentCriteria, HierarchyUsageCountDTO.LEVEL_ASSESSMENT_CRITERIA,
+                    usageCount.getAssessmentCriteriaId(), usageCount.getCategoryId(), resultCount);
+        }
+
+        List<HierarchyUsageCountDTO> usageCounts = new ArrayList<>(techDomains.values());
+        usageCounts.addAll(techAreas.values());
+        usageCounts.addAll(categories.values());
+        usageCounts.addAll(assessmentCriteria.values());
+        return usageCounts;
+    }
+
+    private static void addUsageCount(Map<Long, HierarchyUsageCountDTO> usageCounts, String level,
+                                      Long id, Long parentId, long resultCount) {
+        if (id == null) {
+            return;
+        }
+        HierarchyUsageCountDTO usageCount = usageCounts.computeIfAbsent(id, key -> HierarchyUsageCountDTO.builder()
+                .level(level)
+                .id(id)
+                .parentId(parentId)
+                .build());
+        usageCount.setResultCount(usageCount.getResultCount() + resultCount);
+    }
+
+    private Specification<AssessmentResult> toSpecification(AssessmentResultFilterDTO filter) {
+        return Specification.where(AssessmentResultSpecifications.siteIdIn(filter.getSiteIds()))
+                .and(AssessmentResultSpecifications.regionIn(filter.getRegions()))
+                .and(AssessmentResultSpecifications.recommendationStatusIdIn(filter.getRecommendationStatusIds()))
+                .and(AssessmentResultSpecifications.scoreAtLeast(filter.getMinScore()))
+                .and(AssessmentResultSpecifications.scoreAtMost(filter.getMaxScore()))
+                .and(AssessmentResultSpecifications.assessmentCriteriaIdEquals(filter.getAssessmentCriteriaId()))
+                .and(AssessmentResultSpecifications.categoryIdEquals(filter.getCategoryId()))
+                .and(AssessmentResultSpecifications.techAreaIdEquals(filter.getTechAreaId()))
+                .and(AssessmentResultSpecifications.techDomainIdEquals(filter.getTechDomainId()))
+                .and(AssessmentResultSpecifications.updatedFrom(dateMapper.asTimestamp(filter.getUpdatedFrom())))
+                .and(AssessmentResultSpecifications.updatedBefore(dateMapper.asTimestamp(filter.getUpdatedTo())));
+    }
+
+    private AssessmentResultRowDTO toRowDto(AssessmentResultRow row) {
+        return AssessmentResultRowDTO.builder()
+                .id(row.getId())
+                .score(row.getScore())
+                .recommendationText(row.getRecommendationText())
+                .updateDate(dateMapper.asOffsetDateTime(row.getUpdateDate()))
+                .updatedBy(row.getUpdatedBy())
+                .siteId(row.getSiteId())
+                .siteName(row.getSiteName())
+                .region(row.getRegion())
+                .assessmentCriteriaId(row.getAssessmentCriteriaId())
+                .categoryId(row.getCategoryId())
+                .techAreaId(row.getTechAreaId())
+                .techDomainId(row.getTechDomainId())
+                .recommendationStatusId(row.getRecommendationStatusId())
+                .recommendationStatusDescription(row.getRecommendationStatusDescription())
+                .build();
+    }
+
+    private static Set<Long> collectIds(List<AssessmentResultDTO> assessmentResultDTOs,
+                                        Function<AssessmentResultDTO, Long> idGetter) {
+        return assessmentResultDTOs.stream()
+                .map(idGetter)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<Long> findExistingIds(Set<Long> ids, Function<Set<Long>, Set<Long>> existingIdsFinder) {
+        return ids.isEmpty() ? Set.of() : existingIdsFinder.apply(ids);
+    }
+
+    private static String validate(AssessmentResultDTO assessmentResultDTO, Map<Long, AssessmentResult> assessmentResults,
+                                   Set<Long> siteIds, Set<Long> assessmentCriteriaIds, Set<Long> recommendationStatusIds) {
+        if (assessmentResultDTO.getId() != null) {
+            AssessmentResult storedAssessmentResult = assessmentResults.get(assessmentResultDTO.getId());
+            if (storedAssessmentResult == null) {
+                return "assessmentResult notexists";
+            }
+            if (assessmentResultDTO.getVersion() != null
+                    && !assessmentResultDTO.getVersion().equals(storedAssessmentResult.getVersion())) {
+                return "assessmentResult versionconflict";
+            }
+        }
+        if (assessmentResultDTO.getSite() == null || assessmentResultDTO.getSite().getId() == null) {
+            return "site id isnull";
+        }
+        if (!siteIds.contains(assessmentResultDTO.getSite().getId())) {
+            return "site notexists";
+        }
+        if (assessmentResultDTO.getAssessmentCriteria() == null || assessmentResultDTO.getAssessmentCriteria().getId() == null) {
+            return "assessmentCriteria id isnull";
+        }
+        if (!assessmentCriteriaIds.contains(assessmentResultDTO.getAssessmentCriteria().getId())) {
+            return "assessmentCriteria notexists";
+        }
+        if (assessmentResultDTO.getRecommendationStatus() == null || assessmentResultDTO.getRecommendationStatus().getId() == null) {
+            return "recommendationStatus id isnull";
+        }
+        if (!recommendationStatusIds.contains(assessmentResultDTO.getRecommendationStatus().getId())) {
+            return "recommendationStatus notexists";
+        }
+        return null;
+    }
+
+    /**
+     * Updates that do not carry the version they read overwrite the stored result, as they did before versioning.
+     */
+    private static void applyExpectedVersion(AssessmentResult assessmentResult, Long expectedVersion,
+                                             AssessmentResult storedAssessmentResult) {
+        assessmentResult.setVersion(expectedVersion != null ? expectedVersion : storedAssessmentResult.getVersion());
+    }
+
+    /**
+     * Partial updates are applied to the loaded result, so the version they read is compared here. Hibernate then
+     * only writes the result if its version did not change since it was loaded.
+     */
+    private static void checkVersion(AssessmentResult storedAssessmentResult, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != storedAssessmentResult.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(AssessmentResult.class, storedAssessmentResult.getId());
+        }
+    }
+
+    /**
+     * Points the result to the site, criteria and status whose ids are in the request, if any.
+     */
+    private void applyReferences(AssessmentResult assessmentResult, AssessmentResultDTO assessmentResultDTO) {
+        if (assessmentResultDTO.getSite() != null && assessmentResultDTO.getSite().getId() != null) {
+            assessmentResult.setSite(siteRepository.getReferenceById(assessmentResultDTO.getSite().getId()));
+        }
+        if (assessmentResultDTO.getAssessmentCriteria() != null && assessmentResultDTO.getAssessmentCriteria().getId() != null) {
+            assessmentResult.setAssessmentCriteria(
+                    assessmentCriteriaRepository.getReferenceById(assessmentResultDTO.getAssessmentCriteria().getId()));
+        }
+        if (assessmentResultDTO.getRecommendationStatus() != null && assessmentResultDTO.getRecommendationStatus().getId() != null) {
+            assessmentResult.setRecommendationStatus(
+                    recommendationStatusRepository.getReferenceById(assessmentResultDTO.getRecommendationStatus().getId()));
+        }
+    }
+
+    private void publishDashboardChanged(AssessmentResult assessmentResult) {
+        if (assessmentResult.getSite() != null && assessmentResult.getAssessmentCriteria() != null) {
+            applicationEventPublisher.publishEvent(new DashboardChangedEvent(assessmentResult.getSite().getId(),
+                    assessmentResult.getAssessmentCriteria().getId()));
+        }
     }
 }
@@ -0,0 +1,35 @@
+package com.mes.techdebt.service.impl;
+
+import com.mes.techdebt.service.AssessmentResultWriteBehindService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the queued updates of assessment results, when write-behind is enabled.
+ * Runs on the scheduler threads, so flushes never run concurrently on one instance, and a slow database
+ * delays the flushes instead of piling them up.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "assessment-result.write-behind.enabled", havingValue = "true")
+public class AssessmentResultWriteBehindFlusher {
+
+    private final AssessmentResultWriteBehindService assessmentResultWriteBehindService;
+
+    @Scheduled(fixedDelayString = "${assessment-result.write-behind.flush-delay:PT1S}")
+    public void flush() {
+        try {
+            int flushed;
+            do {
+                flushed = assessmentResultWriteBehindService.flushBatch();
+            } while (flushed >= AssessmentResultWriteBehindServiceImpl.FLUSH_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            // The updates that were not applied stay queued and are retried on the next run
+            log.error("Failed to apply queued updates of AssessmentResult", e);
+        }
+    }
+}
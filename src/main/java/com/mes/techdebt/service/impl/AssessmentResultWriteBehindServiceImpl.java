@@ -0,0 +1,221 @@
+package com.mes.techdebt.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mes.techdebt.domain.PendingAssessmentResultUpdate;
+import com.mes.techdebt.repository.AssessmentCriteriaRepository;
+import com.mes.techdebt.repository.PendingAssessmentResultUpdateRepository;
+import com.mes.techdebt.repository.RecommendationStatusRepository;
+import com.mes.techdebt.repository.SiteRepository;
+import com.mes.techdebt.service.AssessmentResultService;
+import com.mes.techdebt.service.AssessmentResultWriteBehindService;
+import com.mes.techdebt.service.dto.AssessmentResultDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service Implementation for applying partial updates of {@link com.mes.techdebt.domain.AssessmentResult} after
+ * acknowledging them.
+ */
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class AssessmentResultWriteBehindServiceImpl implements AssessmentResultWriteBehindService {
+
+    // Large enough for a whole site assessment, small enough to keep the transaction short
+    static final int FLUSH_BATCH_SIZE = 200;
+    // Failures that may go away, such as a lock timeout, are retried on the next flushes before giving up
+    static final int MAX_FLUSH_ATTEMPTS = 5;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final PendingAssessmentResultUpdateRepository pendingAssessmentResultUpdateRepository;
+    private final SiteRepository siteRepository;
+    private final AssessmentCriteriaRepository assessmentCriteriaRepository;
+    private final RecommendationStatusRepository recommendationStatusRepository;
+    private final AssessmentResultService assessmentResultService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public Optional<String> enqueue(AssessmentResultDTO assessmentResultDTO) {
+        log.debug("Request to queue a partial update of AssessmentResult : {}", assessmentResultDTO);
+        // Checked now, as a missing reference could only fail the update once it is acknowledged
+        if (assessmentResultDTO.getSite() != null && assessmentResultDTO.getSite().getId() != null
+                && !siteRepository.existsById(assessmentResultDTO.getSite().getId())) {
+            return Optional.of("site notexists");
+        }
+        if (assessmentResultDTO.getAssessmentCriteria() != null && assessmentResultDTO.getAssessmentCriteria().getId() != null
+                && !assessmentCriteriaRepository.existsById(assessmentResultDTO.getAssessmentCriteria().getId())) {
+            return Optional.of("assessmentCriteria notexists");
+        }
+        if (assessmentResultDTO.getRecommendationStatus() != null && assessmentResultDTO.getRecommendationStatus().getId() != null
+                && !recommendationStatusRepository.existsById(assessmentResultDTO.getRecommendationStatus().getId())) {
+            return Optional.of("recommendationStatus notexists");
+        }
+
+        try {
+            pendingAssessmentResultUpdateRepository.save(new PendingAssessmentResultUpdate()
+                    .assessmentResultId(assessmentResultDTO.getId())
+                    // Without a version the update was accepted unconditionally, so later writes must not fail it
+                    .expectedVersion(assessmentResultDTO.getVersion())
+                    .payload(objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT)
+                            .writeValueAsString(assessmentResultDTO)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot queue the update of AssessmentResult " + assessmentResultDTO.getId(), e);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int flushBatch() {
+        List<PendingAssessmentResultUpdate> batch = pendingAssessmentResultUpdateRepository.findByStatusOrderByIdAsc(
+                PendingAssessmentResultUpdate.STATUS_PENDING, PageRequest.ofSize(FLUSH_BATCH_SIZE));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        // Every queued update of these results, so the updates of a result are never split across batches
+        Set<Long> assessmentResultIds = batch.stream()
+                .map(PendingAssessmentResultUpdate::getAssessmentResultId)
+                .collect(Collectors.toSet());
+        Map<Long, List<PendingAssessmentResultUpdate>> pendingUpdatesByResult = pendingAssessmentResultUpdateRepository
+                .findByAssessmentResultIdInAndStatusOrderByIdAsc(assessmentResultIds, PendingAssessmentResultUpdate.STATUS_PENDING)
+                .stream()
+                .collect(Collectors.groupingBy(PendingAssessmentResultUpdate::getAssessmentResultId, LinkedHashMap::new,
+                        Collectors.toList()));
+        log.debug("Request to apply queued updates of {} AssessmentResults", pendingUpdatesByResult.size());
+
+        // One transaction per result and version, so a failure only holds back the updates it belongs to
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int flushed = 0;
+        for (List<PendingAssessmentResultUpdate> pendingUpdates : pendingUpdatesByResult.values()) {
+            List<PendingAssessmentResultUpdate> readableUpdates = new ArrayList<>();
+            for (PendingAssessmentResultUpdate pendingUpdate : pendingUpdates) {
+                if (isReadable(pendingUpdate)) {
+                    readableUpdates.add(pendingUpdate);
+                } else {
+                    recordFailure(transactionTemplate, List.of(pendingUpdate), "Unreadable payload", true);
+                    flushed++;
+                }
+            }
+            for (List<PendingAssessmentResultUpdate> run : splitByExpectedVersion(readableUpdates)) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(run));
+                    flushed += run.size();
+                } catch (RuntimeException e) {
+                    // A conflict with a later write does not go away on retry
+                    boolean conflict = e instanceof OptimisticLockingFailureException;
+                    log.error("Failed to apply {} queued updates of AssessmentResult {}",
+                            run.size(), run.get(0).getAssessmentResultId(), e);
+                    if (recordFailure(transactionTemplate, run, e.toString(), conflict)) {
+                        flushed += run.size();
+                    }
+                }
+            }
+        }
+        return flushed;
+    }
+
+    /**
+     * Consecutive updates queued against the same version, or all without one, each applied as a single write. An
+     * update queued against an older version than the one before it conflicts with the write in between.
+     */
+    private static List<List<PendingAssessmentResultUpdate>> splitByExpectedVersion(List<PendingAssessmentResultUpdate> pendingUpdates) {
+        List<List<PendingAssessmentResultUpdate>> runs = new ArrayList<>();
+        List<PendingAssessmentResultUpdate> run = null;
+        for (PendingAssessmentResultUpdate pendingUpdate : pendingUpdates) {
+            if (run == null || !Objects.equals(run.get(0).getExpectedVersion(), pendingUpdate.getExpectedVersion())) {
+                run = new ArrayList<>();
+                runs.add(run);
+            }
+            run.add(pendingUpdate);
+        }
+        return runs;
+    }
+
+    private void apply(List<PendingAssessmentResultUpdate> run) {
+        // Later updates of a result override the fields they set, as if they were applied one after the other
+        AssessmentResultDTO update = new AssessmentResultDTO();
+        for (PendingAssessmentResultUpdate pendingUpdate : run) {
+            readPayload(pendingUpdate, update);
+        }
+        Long assessmentResultId = run.get(0).getAssessmentResultId();
+        update.setId(assessmentResultId);
+        update.setVersion(run.get(0).getExpectedVersion());
+        if (assessmentResultService.partialUpdate(update).isEmpty()) {
+            log.warn("Dropping queued updates of deleted AssessmentResult {}", assessmentResultId);
+        }
+
+        int deleted = pendingAssessmentResultUpdateRepository.deleteByIdIn(
+                run.stream().map(PendingAssessmentResultUpdate::getId).toList());
+        if (deleted != run.size()) {
+            // Another instance applied some of these updates first, roll back rather than apply them twice
+            throw new IllegalStateException("Queued updates of AssessmentResult were flushed concurrently");
+        }
+    }
+
+    /**
+     * Counts a failed attempt on the updates still queued, and sets them aside if the failure is permanent or they
+     * ran out of attempts.
+     *
+     * @return whether the updates were set aside.
+     */
+    private boolean recordFailure(TransactionTemplate transactionTemplate, List<PendingAssessmentResultUpdate> run,
+                                  String error, boolean permanent) {
+        Boolean deadLettered = transactionTemplate.execute(status -> {
+            boolean setAside = false;
+            for (PendingAssessmentResultUpdate pendingUpdate : pendingAssessmentResultUpdateRepository.findAllById(
+                    run.stream().map(PendingAssessmentResultUpdate::getId).toList())) {
+                pendingUpdate.setAttemptCount(pendingUpdate.getAttemptCount() + 1);
+                pendingUpdate.setLastError(StringUtils.abbreviate(error, MAX_ERROR_LENGTH));
+                if (permanent || pendingUpdate.getAttemptCount() >= MAX_FLUSH_ATTEMPTS) {
+                    log.warn("Setting aside queued update {} of AssessmentResult {}",
+                            pendingUpdate.getId(), pendingUpdate.getAssessmentResultId());
+                    pendingUpdate.setStatus(PendingAssessmentResultUpdate.STATUS_DEAD_LETTER);
+                    setAside = true;
+                }
+            }
+            return setAside;
+        });
+        return Boolean.TRUE.equals(deadLettered);
+    }
+
+    private boolean isReadable(PendingAssessmentResultUpdate pendingUpdate) {
+        try {
+            objectMapper.readValue(pendingUpdate.getPayload(), AssessmentResultDTO.class);
+            return true;
+        } catch (JsonProcessingException e) {
+            log.error("Cannot read queued update {} of AssessmentResult {}",
+                    pendingUpdate.getId(), pendingUpdate.getAssessmentResultId(), e);
+            return false;
+        }
+    }
+
+    private void readPayload(PendingAssessmentResultUpdate pendingUpdate, AssessmentResultDTO update) {
+        try {
+            // Payloads only hold the fields that were set, so reading one over another merges them
+            objectMapper.readerForUpdating(update).readValue(pendingUpdate.getPayload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read queued update " + pendingUpdate.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.mes.techdebt.service.impl;
+
+import com.mes.techdebt.domain.AttachmentContent;
+import com.mes.techdebt.repository.AttachmentContentRepository;
+import com.mes.techdebt.service.AttachmentContentService;
+import com.mes.techdebt.service.AttachmentStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class AttachmentContentServiceImpl implements AttachmentContentService {
+
+    // Each attempt only fails if the content is deleted between its insert and its reuse
+    private static final int MAX_ACQUIRE_ATTEMPTS = 3;
+
+    private final AttachmentContentRepository attachmentContentRepository;
+    private final AttachmentStores attachmentStores;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    @Transactional(rollbackFor = IOException.class)
+    public Long acquire(InputStreamSource source) throws IOException {
+        // Multipart files are spooled to disk, reading them twice costs less than storing a duplicate
+        MessageDigest digest = ContentHashes.sha256();
+        long length;
+        try (InputStream content = new DigestInputStream(source.getInputStream(), digest)) {
+            length = content.transferTo(OutputStream.nullOutputStream());
+        }
+        String hash = ContentHashes.toHex(digest);
+
+        AttachmentStore store = attachmentStores.getActive();
+        for (int attempt = 1; attempt <= MAX_ACQUIRE_ATTEMPTS; attempt++) {
+            if (attachmentContentRepository.insertIfAbsent(hash, store.getName(), length) == 1) {
+                AttachmentContent attachmentContent = attachmentContentRepository.findByHash(hash).orElseThrow();
+                log.debug("Request to store AttachmentContent: {} in storage: {}", attachmentContent.getId(), store.getName());
+                try (InputStream content = source.getInputStream()) {
+                    attachmentContent.setContentKey(store.write(attachmentContent.getId(), content, length));
+                }
+                return attachmentContent.getId();
+            }
+            // The content may be deleted by its last release in the meantime, it is inserted again then
+            Optional<AttachmentContent> existingContent = attachmentContentRepository.findByHash(hash);
+            if (existingContent.isPresent() && attachmentContentRepository.incrementReferenceCount(existingContent.get().getId()) == 1) {
+                log.debug("Request to reuse AttachmentContent: {}", existingContent.get().getId());
+                return existingContent.get().getId();
+            }
+        }
+        throw new IllegalStateException("AttachmentContent " + hash + " was deleted by every attempt to reuse it");
+    }
+
+    @Override
+    public void release(Long id) {
+        log.debug("Request to release AttachmentContent: {}", id);
+        Optional<AttachmentContent> attachmentContent = attachmentContentRepository.findById(id);
+        attachmentContentRepository.decrementReferenceCount(id);
+        if (attachmentContent.isPresent() && attachmentContentRepository.deleteIfUnreferenced(id) == 1) {
+            deleteAfterCommit(attachmentContent.get().getStorage(), id, attachmentContent.get().getContentKey());
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void writeContent(Long id, long start, long length, OutputStream outputStream) throws IOException {
+        log.debug("Request to write AttachmentContent: {}, from: {}, length: {}", id, start, length);
+        AttachmentContent attachmentContent = attachmentContentRepository.findById(id)
+                .orElseThrow(() -> new FileNotFoundException("AttachmentContent deleted while being written: " + id));
+        attachmentStores.get(attachmentContent.getStorage())
+                .transferTo(id, attachmentContent.getContentKey(), start, length, outputStream);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int migrateStorage(String fromStorage, String toStorage, int limit) {
+        log.debug("Request to migrate at most {} AttachmentContents from storage: {} to storage: {}", limit, fromStorage, toStorage);
+        for (String storage : List.of(fromStorage, toStorage)) {
+            if (!attachmentStores.contains(storage)) {
+                throw new IllegalArgumentException("Attachment store not configured: " + storage);
+            }
+        }
+        // One transaction per content, so a failure only leaves that content in its previous store
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int migrated = 0;
+        for (Long id : attachmentContentRepository.findIdsByStorage(fromStorage, PageRequest.of(0, limit))) {
+            try {
+                Boolean moved = transactionTemplate.execute(status -> moveContent(id, toStorage));
+                if (Boolean.TRUE.equals(moved)) {
+                    migrated++;
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to migrate AttachmentContent {} to storage {}", id, toStorage, e);
+            }
+        }
+        log.info("Migrated {} AttachmentContents from storage: {} to storage: {}", migrated, fromStorage, toStorage);
+        return migrated;
+    }
+
+    /**
+     * Copies the content to the target store and points the content row to it. The content is deleted from the
+     * previous store once the row is committed, so a rollback leaves the content as it was.
+     */
+    private boolean moveContent(Long id, String toStorage) {
+        AttachmentContent attachmentContent = attachmentContentRepository.findById(id).orElse(null);
+        if (attachmentContent == null || toStorage.equals(attachmentContent.getStorage())) {
+            // Deleted or migrated concurrently
+            return false;
+        }
+        String fromStorage = attachmentContent.getStorage();
+        String fromContentKey = attachmentContent.getContentKey();
+        AttachmentStore target = attachmentStores.get(toStorage);
+        try (InputStream content = attachmentStores.get(fromStorage).openStream(id, fromContentKey)) {
+            attachmentContent.setContentKey(target.write(id, content, attachmentContent.getLength()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        attachmentContent.setStorage(toStorage);
+        attachmentContentRepository.saveAndFlush(attachmentContent);
+        deleteAfterCommit(fromStorage, id, fromContentKey);
+        return true;
+    }
+
+    /**
+     * Files are not transactional, so a content is deleted from its store once the transaction is committed. A
+     * failure leaves an unreferenced content behind, which is harmless.
+     */
+    private void deleteAfterCommit(String storage, Long id, String contentKey) {
+        AttachmentStore store = attachmentStores.get(storage);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    store.delete(id, contentKey);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Failed to delete AttachmentContent {} from storage {}", id, storage, e);
+                }
+            }
+        });
+    }
+}
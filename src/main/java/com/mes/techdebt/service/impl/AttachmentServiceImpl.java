@@ -3,21 +3,31 @@ package com.mes.techdebt.service.impl;
 import com.mes.techdebt.domain.AssessmentCriteria;
 import com.mes.techdebt.domain.Attachment;
 import com.mes.techdebt.domain.Site;
+import com.mes.techdebt.domain.Tombstone;
 import com.mes.techdebt.repository.AssessmentCriteriaRepository;
+import com.mes.techdebt.repository.AttachmentContentRepository;
 import com.mes.techdebt.repository.AttachmentRepository;
 import com.mes.techdebt.repository.SiteRepository;
+import com.mes.techdebt.repository.TombstoneRepository;
+import com.mes.techdebt.repository.projection.AttachmentMetadata;
+import com.mes.techdebt.service.AttachmentContentService;
 import com.mes.techdebt.service.AttachmentService;
-import com.mes.techdebt.service.dto.AttachmentDTO;
+import com.mes.techdebt.service.dto.AttachmentMetadataDTO;
 import com.mes.techdebt.service.mapper.AttachmentMapper;
+import com.mes.techdebt.service.event.DashboardChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,31 +40,43 @@ public class AttachmentServiceImpl implements AttachmentService {
     private final AttachmentRepository attachmentRepository;
     private final SiteRepository siteRepository;
     private final AssessmentCriteriaRepository assessmentCriteriaRepository;
+    private final TombstoneRepository tombstoneRepository;
     private final AttachmentMapper attachmentMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final AttachmentContentRepository attachmentContentRepository;
+    private final AttachmentContentService attachmentContentService;
 
     @Override
+    @Transactional(rollbackFor = IOException.class)
     public void save(MultipartFile file, Long siteId, Long assessmentCriteriaId, String createdBy) throws IOException {
         log.debug("Request to save Attachment file: {}", file.getOriginalFilename());
         Attachment attachment = setAttachment(file, siteId, assessmentCriteriaId, createdBy);
-        attachmentRepository.save(attachment);
+        writeContent(attachment, file);
+        publishDashboardChanged(attachment);
     }
 
     @Override
+    @Transactional(rollbackFor = IOException.class)
     public void saveMultiple(MultipartFile[] files, Long siteId, Long assessmentCriteriaId, String createdBy) throws IOException {
 
-        List<Attachment> attachments = Arrays.stream(files)
-                .map(file -> {
-                    try {
-                        return setAttachment(file, siteId, assessmentCriteriaId, createdBy);
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-                })
-                .toList();
-        attachmentRepository.saveAll(attachments);
+        List<Attachment> attachments = new ArrayList<>();
+        for (MultipartFile file : files) {
+            Attachment attachment = setAttachment(file, siteId, assessmentCriteriaId, createdBy);
+            writeContent(attachment, file);
+            attachments.add(attachment);
+        }
+        attachments.stream().findFirst().ifPresent(this::publishDashboardChanged);
+    }
+
+    /**
+     * Saves the attachment, referring to the content of an identical file if there is one.
+     */
+    private void writeContent(Attachment attachment, MultipartFile file) throws IOException {
+        attachment.setContent(attachmentContentRepository.getReferenceById(attachmentContentService.acquire(file)));
+        attachmentRepository.save(attachment);
     }
 
-    private Attachment setAttachment(MultipartFile file, Long siteId, Long assessmentCriteriaId, String createdBy) throws IOException {
+    private Attachment setAttachment(MultipartFile file, Long siteId, Long assessmentCriteriaId, String createdBy) {
         Attachment attachment = new Attachment();
         Site site = siteRepository.findById(siteId).orElse(null);
         if (assessmentCriteriaId !=null) {
@@ -68,43 +90,74 @@ public class AttachmentServiceImpl implements AttachmentService {
         attachment.setCreatedBy(createdBy);
         attachment.setFileName(StringUtils.cleanPath(file.getOriginalFilename()));
         attachment.setFileType(file.getContentType());
-        attachment.setData(file.getBytes());
         attachment.setFileSize(file.getSize());
         return attachment;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Optional<AttachmentDTO> findOne(Long id) {
-        log.debug("Request to get Attachment with id: {}", id);
-        return attachmentRepository.findById(id).map(attachmentMapper::toDto);
+    public Optional<AttachmentMetadataDTO> findMetadata(Long id) {
+        log.debug("Request to get Attachment metadata with id: {}", id);
+        return attachmentRepository.findMetadataById(id)
+                .map(attachment -> {
+                    AttachmentMetadataDTO attachmentDTO = attachmentMapper.toMetadataDto(attachment);
+                    attachmentDTO.setFileSize(attachment.getContentLength() != null ? attachment.getContentLength() : 0L);
+                    return attachmentDTO;
+                });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void writeContent(Long id, long start, long length, OutputStream outputStream) throws IOException {
+        log.debug("Request to write Attachment content with id: {}, from: {}, length: {}", id, start, length);
+        AttachmentMetadata attachment = attachmentRepository.findMetadataById(id)
+                .orElseThrow(() -> new FileNotFoundException("Attachment deleted while being written: " + id));
+        if (attachment.getContentId() == null) {
+            throw new FileNotFoundException("Attachment without content: " + id);
+        }
+        attachmentContentService.writeContent(attachment.getContentId(), start, length, outputStream);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<AttachmentDTO> findAll() {
+    public List<AttachmentMetadataDTO> findAll() {
         log.debug("Request to get all Attachments");
-        return attachmentRepository.findAll().stream().map(attachmentMapper::toDto).toList();
+        return attachmentMapper.toMetadataDto(attachmentRepository.findAllMetadata());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Optional<List<AttachmentDTO>> findBySiteId(Long siteId) {
+    public Optional<List<AttachmentMetadataDTO>> findBySiteId(Long siteId) {
         log.debug("Request to get Attachment with siteid: {}", siteId);
-        return attachmentRepository.findBySite_Id(siteId).map(attachmentMapper::toDto);
+        return Optional.of(attachmentMapper.toMetadataDto(attachmentRepository.findMetadataBySiteId(siteId)));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Optional<List<AttachmentDTO>> findBySiteIdAndAssessmentCriteriaId(Long siteId, Long assessmentCriteriaId) {
+    public Optional<List<AttachmentMetadataDTO>> findBySiteIdAndAssessmentCriteriaId(Long siteId, Long assessmentCriteriaId) {
         log.debug("Request to get Attachment with siteid: {} and assessmentCriteriaId", siteId, assessmentCriteriaId);
-        return attachmentRepository.findBySite_IdAndAssessmentCriteria_Id(siteId, assessmentCriteriaId).map(attachmentMapper::toDto);
+        return Optional.of(attachmentMapper.toMetadataDto(
+                attachmentRepository.findMetadataBySiteIdAndAssessmentCriteriaId(siteId, assessmentCriteriaId)));
     }
 
     @Override
     public void delete(Long id) {
         log.debug("Request to get Attachment with id: {}", id);
-        attachmentRepository.deleteById(id);
+        Optional<AttachmentMetadata> attachmentOptional = attachmentRepository.findMetadataById(id);
+        attachmentOptional.ifPresent(attachment -> {
+            publishDashboardChanged(attachment.getSiteId(), attachment.getAssessmentCriteriaId());
+            if (attachment.getSiteId() != null) {
+                tombstoneRepository.save(new Tombstone()
+                        .entityName(Tombstone.ATTACHMENT)
+                        .entityId(attachment.getId())
+                        .siteId(attachment.getSiteId())
+                        .assessmentCriteriaId(attachment.getAssessmentCriteriaId()));
+            }
+        });
+        attachmentRepository.deleteByIdWithoutLoading(id);
+        attachmentOptional
+                .map(AttachmentMetadata::getContentId)
+                .ifPresent(attachmentContentService::release);
     }
 
     @Override
@@ -113,4 +166,18 @@ public class AttachmentServiceImpl implements AttachmentService {
         log.debug("Request to check Attachment exists by id: {}", id);
         return attachmentRepository.existsById(id);
     }
+
+    private void publishDashboardChanged(Attachment attachment) {
+        publishDashboardChanged(attachment.getSite() != null ? attachment.getSite().getId() : null,
+                attachment.getAssessmentCriteria() != null ? attachment.getAssessmentCriteria().getId() : null);
+    }
+
+    /**
+     * Only attachments of an assessment criteria are listed on the site dashboard.
+     */
+    private void publishDashboardChanged(Long siteId, Long assessmentCriteriaId) {
+        if (siteId != null && assessmentCriteriaId != null) {
+            applicationEventPublisher.publishEvent(new DashboardChangedEvent(siteId, assessmentCriteriaId));
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package com.mes.techdebt.service.impl;
+
+import com.mes.techdebt.service.AttachmentStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The configured {@link AttachmentStore}s, by name. New contents go to the active one, existing contents are read
+ * from the store recorded on their attachment until they are migrated.
+ */
+@Component
+public class AttachmentStores {
+
+    private final Map<String, AttachmentStore> stores;
+    private final AttachmentStore active;
+
+    public AttachmentStores(List<AttachmentStore> stores,
+                            @Value("${attachment.store.active:" + AttachmentStore.DATABASE + "}") String active) {
+        this.stores = stores.stream().collect(Collectors.toMap(AttachmentStore::getName, Function.identity()));
+        this.active = get(active);
+    }
+
+    public AttachmentStore getActive() {
+        return active;
+    }
+
+    /**
+     * @param name the name of the store.
+     * @return the store.
+     * @throws IllegalStateException if the store is not configured.
+     */
+    public AttachmentStore get(String name) {
+        AttachmentStore store = stores.get(name);
+        if (store == null) {
+            throw new IllegalStateException("Attachment store not configured: " + name);
+        }
+        return store;
+    }
+
+    public boolean contains(String name) {
+        return stores.containsKey(name);
+    }
+}
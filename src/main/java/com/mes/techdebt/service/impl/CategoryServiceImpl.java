@@ -1,12 +1,15 @@
 package com.mes.techdebt.service.impl;
 
+import com.mes.techdebt.repository.AssessmentResultRepository;
 import com.mes.techdebt.repository.CategoryRepository;
 import com.mes.techdebt.domain.Category;
 import com.mes.techdebt.service.CategoryService;
 import com.mes.techdebt.service.dto.CategoryDTO;
 import com.mes.techdebt.service.mapper.CategoryMapper;
+import com.mes.techdebt.service.event.HierarchyChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,7 +26,9 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
+    private final AssessmentResultRepository assessmentResultRepository;
     private final CategoryMapper categoryMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
     @Override
     public CategoryDTO save(CategoryDTO categoryDTO) {
         log.debug("Request to save Category : {}", categoryDTO);
@@ -38,7 +43,8 @@ public class CategoryServiceImpl implements CategoryService {
             log.debug("New category: {}", category);
         }
 
-        category = categoryRepository.save(category);
+        category = syncHierarchyIds(categoryRepository.save(category));
+        publishHierarchyChanged(category.getId());
         return categoryMapper.toDto(category);
     }
 
@@ -46,7 +52,8 @@ public class CategoryServiceImpl implements CategoryService {
     public CategoryDTO update(CategoryDTO categoryDTO) {
         log.debug("Request to save Category : {}", categoryDTO);
         Category category = categoryMapper.toEntity(categoryDTO);
-        category = categoryRepository.save(category);
+        category = syncHierarchyIds(categoryRepository.save(category));
+        publishHierarchyChanged(category.getId());
         return categoryMapper.toDto(category);
     }
 
@@ -58,10 +65,12 @@ public class CategoryServiceImpl implements CategoryService {
             .findById(categoryDTO.getId())
             .map(existingCategory -> {
                 categoryMapper.partialUpdate(existingCategory, categoryDTO);
+                publishHierarchyChanged(existingCategory.getId());
 
                 return existingCategory;
             })
             .map(categoryRepository::save)
+            .map(this::syncHierarchyIds)
             .map(categoryMapper::toDto);
     }
 
@@ -84,6 +93,7 @@ public class CategoryServiceImpl implements CategoryService {
     public void delete(Long id) {
         log.debug("Request to delete Category : {}", id);
         categoryRepository.deleteById(id);
+        publishHierarchyChanged(id);
     }
 
     @Override
@@ -105,4 +115,16 @@ public class CategoryServiceImpl implements CategoryService {
         Optional<Category> category = categoryRepository.findByDescription(description);
         return category.isPresent() ? category.get().getId() : null;
     }
+
+    /**
+     * Re-copies the hierarchy ids held by the assessment results, in case the category moved to another tech area.
+     */
+    private Category syncHierarchyIds(Category category) {
+        assessmentResultRepository.syncHierarchyIdsByCategoryId(category.getId());
+        return category;
+    }
+
+    private void publishHierarchyChanged(Long id) {
+        applicationEventPublisher.publishEvent(new HierarchyChangedEvent(Category.class.getSimpleName(), id));
+    }
 }
@@ -0,0 +1,115 @@
+package com.mes.techdebt.service.impl;
+
+import com.mes.techdebt.domain.ChangeCounter;
+import com.mes.techdebt.repository.ChangeCounterRepository;
+import com.mes.techdebt.repository.projection.SiteChangeCount;
+import com.mes.techdebt.service.ChangeCountService;
+import com.mes.techdebt.service.event.DashboardChangedEvent;
+import com.mes.techdebt.service.event.HierarchyChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Service Implementation counting the changes in the transaction writing them.
+ * <p>
+ * The counters of a transaction are only incremented when it is about to commit, in name order, so their rows are
+ * locked briefly, and transactions changing several sites never wait on each other's counters in a cycle.
+ */
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class ChangeCountServiceImpl implements ChangeCountService {
+
+    private final ChangeCounterRepository changeCounterRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long getHierarchyChangeCount() {
+        return getChangeCount(ChangeCounter.HIERARCHY);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long getSiteChangeCount(Long siteId) {
+        return getChangeCount(ChangeCounter.SITE_PREFIX + siteId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<SiteChangeCount> getSiteChangeCount(String siteName) {
+        return changeCounterRepository.findSiteChangeCountBySiteName(siteName);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void countHierarchyChange() {
+        countChange(ChangeCounter.HIERARCHY);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void countSiteChanges(Collection<Long> siteIds) {
+        siteIds.forEach(siteId -> countChange(ChangeCounter.SITE_PREFIX + siteId));
+    }
+
+    @EventListener
+    public void onDashboardChanged(DashboardChangedEvent event) {
+        countChange(ChangeCounter.SITE_PREFIX + event.getSiteId());
+    }
+
+    @EventListener
+    public void onHierarchyChanged(HierarchyChangedEvent event) {
+        countChange(ChangeCounter.HIERARCHY);
+    }
+
+    private long getChangeCount(String name) {
+        // Nothing changed since the counter was introduced
+        return changeCounterRepository.findChangeCountByName(name).orElse(0L);
+    }
+
+    private void countChange(String name) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof ChangeCounting changeCounting) {
+                changeCounting.names.add(name);
+                return;
+            }
+        }
+        ChangeCounting changeCounting = new ChangeCounting();
+        changeCounting.names.add(name);
+        TransactionSynchronizationManager.registerSynchronization(changeCounting);
+    }
+
+    private void incrementChangeCount(String name) {
+        log.debug("Counting a change of: {}", name);
+        if (changeCounterRepository.incrementChangeCount(name) == 0) {
+            changeCounterRepository.insertIfAbsent(name);
+            changeCounterRepository.incrementChangeCount(name);
+        }
+    }
+
+    /**
+     * The changes of a transaction. Synchronizations are suspended with their transaction, so a nested transaction
+     * counts its own changes.
+     */
+    private class ChangeCounting implements TransactionSynchronization {
+
+        private final Set<String> names = new TreeSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            names.forEach(ChangeCountServiceImpl.this::incrementChangeCount);
+        }
+    }
+}
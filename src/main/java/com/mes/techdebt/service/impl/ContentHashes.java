@@ -0,0 +1,28 @@
+package com.mes.techdebt.service.impl;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 of attachment contents, identifying identical contents and naming the files of the file store.
+ */
+final class ContentHashes {
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return the digest in lowercase hexadecimal, as stored in {@code attachment_content.hash}.
+     */
+    static String toHex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private ContentHashes() {}
+}
@@ -1,12 +1,16 @@
 package com.mes.techdebt.service.impl;
 
 import com.mes.techdebt.domain.CostToFix;
+import com.mes.techdebt.repository.CategoryRepository;
+import com.mes.techdebt.repository.CostRangeRepository;
 import com.mes.techdebt.repository.CostToFixRepository;
+import com.mes.techdebt.repository.SiteRepository;
 import com.mes.techdebt.service.CostToFixService;
 import com.mes.techdebt.service.dto.CostToFixDTO;
 import com.mes.techdebt.service.mapper.CostToFixMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +32,12 @@ public class CostToFixServiceImpl implements CostToFixService {
 
     private final CostToFixMapper costToFixMapper;
 
+    private final SiteRepository siteRepository;
+
+    private final CostRangeRepository costRangeRepository;
+
+    private final CategoryRepository categoryRepository;
+
     @Override
     public CostToFixDTO save(CostToFixDTO costToFixDTO) {
         log.debug("Request to save CostToFix : {}", costToFixDTO);
@@ -40,7 +50,12 @@ public class CostToFixServiceImpl implements CostToFixService {
     public CostToFixDTO update(CostToFixDTO costToFixDTO) {
         log.debug("Request to save CostToFix : {}", costToFixDTO);
         CostToFix costToFix = costToFixMapper.toEntity(costToFixDTO);
-        costToFix = costToFixRepository.save(costToFix);
+        if (costToFixDTO.getVersion() == null) {
+            // Updates that do not carry the version they read overwrite the stored one, as before versioning
+            costToFixRepository.findById(costToFix.getId()).map(CostToFix::getVersion).ifPresent(costToFix::setVersion);
+        }
+        // Flushed to return the incremented version
+        costToFix = costToFixRepository.saveAndFlush(costToFix);
         return costToFixMapper.toDto(costToFix);
     }
 
@@ -51,12 +66,23 @@ public class CostToFixServiceImpl implements CostToFixService {
         return costToFixRepository
             .findById(costToFixDTO.getId())
             .map(existingCostToFix -> {
-
+                if (costToFixDTO.getVersion() != null && costToFixDTO.getVersion() != existingCostToFix.getVersion()) {
+                    throw new ObjectOptimisticLockingFailureException(CostToFix.class, existingCostToFix.getId());
+                }
                 costToFixMapper.partialUpdate(existingCostToFix, costToFixDTO);
+                if (costToFixDTO.getSite() != null && costToFixDTO.getSite().getId() != null) {
+                    existingCostToFix.setSite(siteRepository.getReferenceById(costToFixDTO.getSite().getId()));
+                }
+                if (costToFixDTO.getCostRange() != null && costToFixDTO.getCostRange().getId() != null) {
+                    existingCostToFix.setCostRange(costRangeRepository.getReferenceById(costToFixDTO.getCostRange().getId()));
+                }
+                if (costToFixDTO.getCategory() != null && costToFixDTO.getCategory().getId() != null) {
+                    existingCostToFix.setCategory(categoryRepository.getReferenceById(costToFixDTO.getCategory().getId()));
+                }
 
                 return existingCostToFix;
             })
-            .map(costToFixRepository::save)
+            .map(costToFixRepository::saveAndFlush)
             .map(costToFixMapper::toDto);
     }
 
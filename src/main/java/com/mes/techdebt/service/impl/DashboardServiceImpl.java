@@ -1,151 +1,374 @@
 package com.mes.techdebt.service.impl;
 
-import com.mes.techdebt.domain.AssessmentCriteria;
-import com.mes.techdebt.domain.Category;
-import com.mes.techdebt.domain.TechArea;
-import com.mes.techdebt.domain.TechDomain;
-import com.mes.techdebt.repository.AssessmentCriteriaRepository;
-import com.mes.techdebt.service.AssessmentCriteriaService;
-import com.mes.techdebt.service.AttachmentService;
+import com.mes.techdebt.domain.AssessmentResult;
+import com.mes.techdebt.domain.Site;
+import com.mes.techdebt.repository.AssessmentResultRepository;
+import com.mes.techdebt.repository.AttachmentRepository;
+import com.mes.techdebt.repository.SiteRepository;
+import com.mes.techdebt.repository.projection.AttachmentMetadata;
+import com.mes.techdebt.repository.projection.SiteCategoryScore;
+import com.mes.techdebt.repository.projection.SiteChangeCount;
+import com.mes.techdebt.service.AssessmentHierarchyService;
+import com.mes.techdebt.service.ChangeCountService;
 import com.mes.techdebt.service.DashboardService;
-import com.mes.techdebt.service.SiteService;
 import com.mes.techdebt.service.dto.AssessmentResultDTO;
-import com.mes.techdebt.service.dto.AttachmentDTO;
-import com.mes.techdebt.web.rest.request.DashboardRequestDTO;
+import com.mes.techdebt.service.dto.HierarchySnapshot;
+import com.mes.techdebt.service.dto.SiteDashboardSnapshot;
+import com.mes.techdebt.service.event.DashboardChangedEvent;
+import com.mes.techdebt.service.mapper.AssessmentResultMapper;
+import com.mes.techdebt.service.mapper.DateMapper;
 import com.mes.techdebt.web.rest.request.DashboardResponseDTO;
 import com.mes.techdebt.web.rest.request.HierarchyResponseDTO;
-import com.mes.techdebt.web.rest.request.HierarchyTuple;
 import com.mes.techdebt.web.rest.response.DashboardAttachmentListDTO;
+import com.mes.techdebt.web.rest.response.RegionDashboardResponseDTO;
+import com.mes.techdebt.web.rest.response.RegionScoreRollupDTO;
+import com.mes.techdebt.web.rest.response.ScoreRollupDTO;
+import com.mes.techdebt.web.rest.response.SiteScoreRollupDTO;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.LongObjectMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+/**
+ * Service Implementation serving site dashboards from precomputed {@link SiteDashboardSnapshot}s.
+ * A site dashboard is built on first read, its rows are refreshed after every committed assessment result or
+ * attachment write, and it is rebuilt as a whole when the hierarchy changes.
+ * <p>
+ * Snapshots record the site change count they were built at, and are rebuilt on read once it has moved, so writes
+ * committed by other application instances are served as well.
+ */
 @Service
 @Transactional
 @RequiredArgsConstructor
 @Slf4j
 public class DashboardServiceImpl implements DashboardService {
 
-    private final AttachmentService attachmentService;
-    private final SiteService siteService;
-    private final AssessmentCriteriaRepository assessmentCriteriaRepository;
+    private final AssessmentHierarchyService assessmentHierarchyService;
+    private final SiteRepository siteRepository;
+    private final AssessmentResultRepository assessmentResultRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final AssessmentResultMapper assessmentResultMapper;
+    private final DateMapper dateMapper;
+    private final ChangeCountService changeCountService;
 
-    private final AssessmentCriteriaService assessmentCriteriaService;
+    private final ConcurrentMap<Long, SiteDashboardSnapshot> siteDashboards = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
 
     @Override
-    public List<DashboardResponseDTO> getAssessmentResult(DashboardRequestDTO dashboardRequest,
-                                                          List<AssessmentResultDTO> assessmentResultDTO) {
-        String siteName= dashboardRequest.getName();
-        List<DashboardResponseDTO> response = new ArrayList<>();
-        Map<String, List<AssessmentResultDTO>> assessmentResultsByHierarchy = assessmentResultDTO.stream()
-                .collect(Collectors.groupingBy(assessmentResult ->
-                        HierarchyTuple.builder()
-                                .assessmentCriteriaDescription(assessmentResult.getAssessmentCriteria().getDescription())
-                                .categoryDescription(assessmentResult.getAssessmentCriteria().getCategory().getDescription())
-                                .techAreaDescription(assessmentResult.getAssessmentCriteria().getCategory().getTechArea().getDescription())
-                                .domainDescription(assessmentResult.getAssessmentCriteria().getCategory().getTechArea().getDomain().getDescription())
-                                .build().toString()));
-        log.debug("assessment results by hierarchy is: {}", assessmentResultsByHierarchy);
-
-        Long siteId = siteService.getIdByName(siteName);
-        List<HierarchyResponseDTO> hierarchyList = this.getHierarchy(Optional.of(Boolean.FALSE));
-        hierarchyList.stream().forEach(hierarchy -> {
-            List<AssessmentResultDTO> assessments = new ArrayList<>();
-            List<DashboardAttachmentListDTO> attachmentDownloadLinks = new ArrayList<>();
-            String keyToCompare = hierarchy.getAssessmentCriteriaDescription() + "-" + hierarchy.getCategoryDescription()
-                    + "-" + hierarchy.getTechAreaDescription() + '-' + hierarchy.getDomainDescription();
-
-            if (assessmentResultsByHierarchy.containsKey(keyToCompare)){
-                assessments = assessmentResultsByHierarchy.get(keyToCompare);
+    @Transactional(readOnly = true)
+    public Optional<SiteDashboardSnapshot> getSiteDashboard(String siteName) {
+        // Read before the rows, so the rows are never older than the version they record
+        HierarchySnapshot hierarchySnapshot = assessmentHierarchyService.getSnapshot();
+        Optional<SiteChangeCount> siteChangeCount = changeCountService.getSiteChangeCount(siteName);
+        if (siteChangeCount.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Long siteId = siteChangeCount.get().getSiteId();
+        long changeCount = siteChangeCount.get().getChangeCount();
+        SiteDashboardSnapshot siteDashboard = siteDashboards.get(siteId);
+        if (siteDashboard != null && siteDashboard.isCurrent(siteName, hierarchySnapshot.getVersion(), changeCount)) {
+            return Optional.of(siteDashboard);
+        }
+
+        // Built outside the map, which would otherwise lock other sites for the queries. Concurrent reads may build the
+        // same snapshot twice, only the first one at least as current as the built one is kept
+        SiteDashboardSnapshot builtSiteDashboard = buildSiteDashboard(siteId, siteName, hierarchySnapshot, changeCount);
+        return Optional.of(siteDashboards.compute(siteId, (id, existing) ->
+                existing != null && existing.isCurrent(siteName, hierarchySnapshot.getVersion(), changeCount)
+                        ? existing : builtSiteDashboard));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<String> getSiteDashboardVersion(String siteName) {
+        long hierarchyVersion = assessmentHierarchyService.getSnapshot().getVersion();
+        return changeCountService.getSiteChangeCount(siteName).map(siteChangeCount ->
+                SiteDashboardSnapshot.toDashboardVersion(siteChangeCount.getSiteId(), hierarchyVersion,
+                        siteChangeCount.getChangeCount()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int rebuildSiteDashboards() {
+        log.debug("Request to rebuild all site dashboards");
+        siteDashboards.clear();
+        List<Site> sites = siteRepository.findAll();
+        // Committed first, so the rebuilt dashboards get new versions, on every instance
+        changeCountService.countSiteChanges(sites.stream().map(Site::getId).toList());
+        HierarchySnapshot hierarchySnapshot = assessmentHierarchyService.getSnapshot();
+        sites.forEach(site -> siteDashboards.put(site.getId(), buildSiteDashboard(site.getId(), site.getName(),
+                hierarchySnapshot, changeCountService.getSiteChangeCount(site.getId()))));
+        return sites.size();
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onDashboardChanged(DashboardChangedEvent event) {
+        log.debug("Dashboard changed: {}", event);
+        if (event.getAssessmentCriteriaId() == null) {
+            // The site itself changed, its name may be gone or taken by another site
+            siteDashboards.remove(event.getSiteId());
+        }
+        // Dashboards not read yet are built on first read
+        Long siteId = event.getSiteId();
+        SiteDashboardSnapshot siteDashboard = siteDashboards.get(siteId);
+        if (siteDashboard == null) {
+            return;
+        }
+
+        // Counted before reading, so the rows never stand for a count older than the one they record
+        long changeCount = changeCountService.getSiteChangeCount(siteId);
+        HierarchySnapshot hierarchySnapshot = assessmentHierarchyService.getSnapshot();
+        if (siteDashboard.getHierarchyVersion() != hierarchySnapshot.getVersion()) {
+            // Stale against the hierarchy anyway, rebuilt as a whole on next read
+            siteDashboards.remove(siteId, siteDashboard);
+            return;
+        }
+
+        Set<Long> assessmentCriteriaIds = Set.of(event.getAssessmentCriteriaId());
+        List<HierarchyResponseDTO> hierarchies = hierarchySnapshot.getActiveHierarchies().stream()
+                .filter(hierarchy -> assessmentCriteriaIds.contains(hierarchy.getAssessmentCriteriaId()))
+                .toList();
+        Map<Long, DashboardResponseDTO> changedRows = buildRows(siteDashboard.getSiteId(), siteDashboard.getSiteName(),
+                hierarchySnapshot, hierarchies,
+                assessmentResultRepository.findBySite_IdAndAssessmentCriteria_IdInOrderByUpdateDateDesc(siteId, assessmentCriteriaIds),
+                attachmentRepository.findMetadataBySiteIdAndAssessmentCriteriaIdIn(siteId, assessmentCriteriaIds));
+        // A transaction counts one change per site. Any other change since the snapshot was built may have been
+        // committed by another instance, to other rows, so the snapshot keeps its count and is rebuilt on next read
+        SiteDashboardSnapshot changedSiteDashboard = siteDashboard.withRows(changedRows,
+                siteDashboard.getChangeCount() >= changeCount - 1 ? changeCount : siteDashboard.getChangeCount(),
+                version.incrementAndGet());
+        if (!siteDashboards.replace(siteId, siteDashboard, changedSiteDashboard)) {
+            // Replaced while the rows were read, the replacement may lack them, so it is rebuilt on next read
+            siteDashboards.remove(siteId);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RegionDashboardResponseDTO getRegionDashboard(Set<String> regions, boolean latestOnly) {
+        log.debug("Request to get dashboard of regions: {}, latestOnly: {}", regions, latestOnly);
+        List<Site> sites = siteRepository.findSitesByRegionIn(regions).orElse(Set.of()).stream()
+                .sorted(Comparator.comparing(Site::getName))
+                .toList();
+        if (sites.isEmpty()) {
+            return RegionDashboardResponseDTO.builder().regions(List.of()).sites(List.of()).build();
+        }
+
+        // Scores are aggregated per site and category in the database, and only rolled up further in memory
+        List<Long> siteIds = sites.stream().map(Site::getId).toList();
+        Map<Long, List<SiteCategoryScore>> categoryScoresBySiteId = (latestOnly
+                ? assessmentResultRepository.findLatestCategoryScoresBySiteIdIn(siteIds)
+                : assessmentResultRepository.findCategoryScoresBySiteIdIn(siteIds)).stream()
+                .collect(Collectors.groupingBy(SiteCategoryScore::getSiteId));
+
+        Map<String, ScoreRollup> regionRollups = new TreeMap<>();
+        List<SiteScoreRollupDTO> siteRollups = new ArrayList<>();
+        sites.forEach(site -> {
+            List<SiteCategoryScore> categoryScores = categoryScoresBySiteId.getOrDefault(site.getId(), List.of());
+            ScoreRollup siteRollup = new ScoreRollup();
+            ScoreRollup regionRollup = regionRollups.computeIfAbsent(site.getRegion(), region -> new ScoreRollup());
+            categoryScores.forEach(categoryScore -> {
+                siteRollup.add(categoryScore);
+                regionRollup.add(categoryScore);
+            });
+            regionRollup.siteCount++;
+
+            siteRollups.add(SiteScoreRollupDTO.builder()
+                    .siteId(site.getId())
+                    .siteName(site.getName())
+                    .region(site.getRegion())
+                    .domains(siteRollup.domains())
+                    .techAreas(siteRollup.techAreas())
+                    .categories(siteRollup.categories())
+                    .build());
+        });
+
+        List<RegionScoreRollupDTO> regionRollupList = new ArrayList<>();
+        regionRollups.forEach((region, regionRollup) -> regionRollupList.add(RegionScoreRollupDTO.builder()
+                .region(region)
+                .siteCount(regionRollup.siteCount)
+                .domains(regionRollup.domains())
+                .techAreas(regionRollup.techAreas())
+                .categories(regionRollup.categories())
+                .build()));
+
+        return RegionDashboardResponseDTO.builder()
+                .regions(regionRollupList)
+                .sites(siteRollups)
+                .build();
+    }
+
+    @Override
+    public List<HierarchyResponseDTO> getHierarchy(Optional<Boolean> isOnlyActive) {
+        HierarchySnapshot hierarchySnapshot = assessmentHierarchyService.getSnapshot();
+        return isOnlyActive.isPresent() ? hierarchySnapshot.getActiveHierarchies() : hierarchySnapshot.getHierarchies();
+    }
+
+    /**
+     * Builds the dashboard of a site, from the hierarchy snapshot and at the change count read before.
+     */
+    private SiteDashboardSnapshot buildSiteDashboard(Long siteId, String siteName, HierarchySnapshot hierarchySnapshot,
+                                                     long changeCount) {
+        log.debug("Building dashboard of site: {}", siteName);
+        Map<Long, DashboardResponseDTO> rows = buildRows(siteId, siteName, hierarchySnapshot,
+                hierarchySnapshot.getActiveHierarchies(),
+                assessmentResultRepository.findBySite_IdOrderByUpdateDateDesc(siteId),
+                // Fetch the attachment metadata of the whole site at once and join it per criteria in memory
+                attachmentRepository.findMetadataBySiteId(siteId));
+        return SiteDashboardSnapshot.builder()
+                .siteId(siteId)
+                .siteName(siteName)
+                .hierarchyVersion(hierarchySnapshot.getVersion())
+                .changeCount(changeCount)
+                .version(version.incrementAndGet())
+                .rowsByCriteriaId(rows)
+                .build();
+    }
+
+    /**
+     * Builds the dashboard rows of the given hierarchy entries, keyed and ordered by assessment criteria.
+     */
+    private Map<Long, DashboardResponseDTO> buildRows(Long siteId, String siteName, HierarchySnapshot hierarchySnapshot,
+                                                      List<HierarchyResponseDTO> hierarchyList,
+                                                      List<AssessmentResult> assessmentResults,
+                                                      List<AttachmentMetadata> attachments) {
+        LongObjectMap<List<AssessmentResultDTO>> assessmentResultsByCriteriaId =
+                groupByAssessmentCriteriaId(assessmentResultMapper.toDto(assessmentResults));
+
+        LongObjectMap<List<DashboardAttachmentListDTO>> attachmentsByCriteriaId = new LongObjectHashMap<>();
+        attachments.forEach(attachment -> {
+            if (attachment.getAssessmentCriteriaId() != null) {
+                addTo(attachmentsByCriteriaId, attachment.getAssessmentCriteriaId(), toDashboardAttachment(attachment));
+            }
+        });
+
+        Map<Long, DashboardResponseDTO> rows = new LinkedHashMap<>();
+        hierarchyList.forEach(hierarchy -> {
+            long assessmentCriteriaId = hierarchy.getAssessmentCriteriaId();
+            List<AssessmentResultDTO> assessments = assessmentResultsByCriteriaId.get(assessmentCriteriaId);
+            List<DashboardAttachmentListDTO> attachmentDownloadLinks = null;
+            if (assessments != null) {
                 log.debug("Assessment criteria description: {}", hierarchy.getAssessmentCriteriaDescription());
-                Long categoryId = assessmentCriteriaService.getIdByDescription(hierarchy.getAssessmentCriteriaDescription());
-                List<AttachmentDTO> attachmentDTO = attachmentService.findBySiteIdAndAssessmentCriteriaId(siteId, categoryId)
-                        .orElse(null);
-                if (!attachmentDTO.isEmpty()){
-                    attachmentDownloadLinks = attachmentDTO.stream().map(attachment ->
-                        DashboardAttachmentListDTO.builder()
-                                .attachmentEndpoint(String.format("/attachments/%s",attachment.getId()))
-                                .id(attachment.getId())
-                                .fileSize(attachment.getFileSize())
-                                .fileType(attachment.getFileType())
-                                .fileName(attachment.getFileName())
-                                .updateDate(attachment.getUpdateDate())
-                                .updatedBy(attachment.getUpdatedBy())
-                                .build()
-                    ).collect(Collectors.toList());
-                }
+                attachmentDownloadLinks = attachmentsByCriteriaId.get(assessmentCriteriaId);
             }
 
-            AssessmentCriteria criteria = assessmentCriteriaRepository.findByDescription(hierarchy.getAssessmentCriteriaDescription()).orElse(null);
             DashboardResponseDTO data = DashboardResponseDTO.builder()
-                    .siteName(dashboardRequest.getName())
+                    .siteName(siteName)
                     .siteId(siteId)
                     .assessmentCriteriaDescription(hierarchy.getAssessmentCriteriaDescription())
                     .assessmentCriteriaId(hierarchy.getAssessmentCriteriaId())
-                    .techStandardDescription(criteria != null ? criteria.getTechStandardDescription() : null)
+                    .techStandardDescription(hierarchySnapshot.getTechStandardDescription(hierarchy.getAssessmentCriteriaId()))
                     .categoryDescription(hierarchy.getCategoryDescription())
                     .categoryId(hierarchy.getCategoryId())
                     .techAreaDescription(hierarchy.getTechAreaDescription())
                     .techAreaId(hierarchy.getTechAreaId())
                     .domainDescription(hierarchy.getDomainDescription())
                     .domainId(hierarchy.getDomainId())
-                    .assessmentResults(assessments)
-                    .attachments(attachmentDownloadLinks)
+                    .assessmentResults(assessments != null ? assessments : new ArrayList<>())
+                    .attachments(attachmentDownloadLinks != null ? attachmentDownloadLinks : new ArrayList<>())
                     .build();
-            response.add(data);
+            rows.put(assessmentCriteriaId, data);
         });
 
-        return response;
+        return rows;
     }
 
-    @Override
-    public List<HierarchyResponseDTO> getHierarchy(Optional<Boolean> isOnlyActive) {
+    /**
+     * Groups assessment results by the primitive id of their criteria, keeping their order within each group.
+     */
+    static LongObjectMap<List<AssessmentResultDTO>> groupByAssessmentCriteriaId(List<AssessmentResultDTO> assessmentResults) {
+        LongObjectMap<List<AssessmentResultDTO>> assessmentResultsByCriteriaId = new LongObjectHashMap<>();
+        for (AssessmentResultDTO assessmentResult : assessmentResults) {
+            addTo(assessmentResultsByCriteriaId, assessmentResult.getAssessmentCriteria().getId(), assessmentResult);
+        }
+        return assessmentResultsByCriteriaId;
+    }
+
+    private static <T> void addTo(LongObjectMap<List<T>> map, long key, T value) {
+        List<T> values = map.get(key);
+        if (values == null) {
+            values = new ArrayList<>();
+            map.put(key, values);
+        }
+        values.add(value);
+    }
+
+    /**
+     * Sums the result counts and scores of categories up to their tech area and domain.
+     */
+    private static class ScoreRollup {
+
+        private final Map<Long, ScoreRollupDTO> domainsById = new HashMap<>();
+        private final Map<Long, ScoreRollupDTO> techAreasById = new HashMap<>();
+        private final Map<Long, ScoreRollupDTO> categoriesById = new HashMap<>();
+        private final Map<ScoreRollupDTO, Double> scoreSums = new IdentityHashMap<>();
+        private int siteCount;
+
+        void add(SiteCategoryScore categoryScore) {
+            add(domainsById, categoryScore.getDomainId(), categoryScore.getDomainDescription(), null, categoryScore);
+            add(techAreasById, categoryScore.getTechAreaId(), categoryScore.getTechAreaDescription(),
+                    categoryScore.getDomainId(), categoryScore);
+            add(categoriesById, categoryScore.getCategoryId(), categoryScore.getCategoryDescription(),
+                    categoryScore.getTechAreaId(), categoryScore);
+        }
+
+        private void add(Map<Long, ScoreRollupDTO> rollupsById, Long id, String description, Long parentId,
+                         SiteCategoryScore categoryScore) {
+            ScoreRollupDTO rollup = rollupsById.computeIfAbsent(id, key -> ScoreRollupDTO.builder()
+                    .id(id)
+                    .description(description)
+                    .parentId(parentId)
+                    .build());
+            rollup.setResultCount(rollup.getResultCount() + categoryScore.getResultCount());
+            rollup.setScoreCount(rollup.getScoreCount() + categoryScore.getScoreCount());
+            if (categoryScore.getScoreSum() != null) {
+                scoreSums.merge(rollup, categoryScore.getScoreSum(), Double::sum);
+            }
+        }
+
+        List<ScoreRollupDTO> domains() {
+            return toList(domainsById);
+        }
+
+        List<ScoreRollupDTO> techAreas() {
+            return toList(techAreasById);
+        }
+
+        List<ScoreRollupDTO> categories() {
+            return toList(categoriesById);
+        }
 
-        List<HierarchyResponseDTO> hierarchyList = getHierarchies(isOnlyActive);
-        return hierarchyList;
+        private List<ScoreRollupDTO> toList(Map<Long, ScoreRollupDTO> rollupsById) {
+            rollupsById.values().forEach(rollup -> rollup.setAverageScore(rollup.getScoreCount() == 0
+                    ? null : scoreSums.get(rollup) / rollup.getScoreCount()));
+            return rollupsById.values().stream()
+                    .sorted(Comparator.comparing(ScoreRollupDTO::getDescription))
+                    .toList();
+        }
     }
 
-    private List<HierarchyResponseDTO> getHierarchies(Optional<Boolean> isOnlyActive) {
-        List<AssessmentCriteria> assessmentCriteriaList = assessmentCriteriaRepository
-                .findAll();
-
-        List<HierarchyResponseDTO> hierarchyList = new ArrayList<>();
-        Comparator<AssessmentCriteria> sortByCriteria = Comparator.comparing(AssessmentCriteria::getDescription);
-        assessmentCriteriaList.stream().filter(assessmentCriteria -> assessmentCriteria.getIsActive())
-                .sorted(sortByCriteria).forEach(
-                        assessmentCriteria ->     {
-                            Category category = assessmentCriteria.getCategory();
-                            TechArea techArea = category.getTechArea();
-                            TechDomain techDomain = techArea.getDomain();
-
-                            HierarchyResponseDTO hierarchy = HierarchyResponseDTO.builder()
-                                    .assessmentCriteriaDescription(assessmentCriteria.getDescription())
-                                    .assessmentCriteriaId(assessmentCriteria.getId())
-                                    .categoryDescription(category.getDescription())
-                                    .categoryId(category.getId())
-                                    .techAreaDescription(techArea.getDescription())
-                                    .techAreaId(techArea.getId())
-                                    .domainDescription(techDomain.getDescription())
-                                    .domainId(techDomain.getId())
-                                    .build();
-
-                            if (isOnlyActive.isPresent()){
-                                // Technical choice to not add to hierarchy if not active
-                                boolean isActiveCategory = category.getIsActive()==null ? true : category.getIsActive();
-                                boolean isActiveTechArea = techArea.getIsActive()==null ? true : techArea.getIsActive();
-                                boolean isActiveTechDomain = techDomain.getIsActive()==null ? true : techDomain.getIsActive();
-                                if (isActiveCategory && isActiveTechArea && isActiveTechDomain){
-                                    hierarchyList.add(hierarchy);
-                                }
-                            }else{
-                                hierarchyList.add(hierarchy);
-                            }
-                        }
-                );
-        return hierarchyList;
+    private DashboardAttachmentListDTO toDashboardAttachment(AttachmentMetadata attachment) {
+        return DashboardAttachmentListDTO.builder()
+                .attachmentEndpoint(String.format("/attachments/%s", attachment.getId()))
+                .id(attachment.getId())
+                .fileSize(attachment.getFileSize())
+                .fileType(attachment.getFileType())
+                .fileName(attachment.getFileName())
+                .assessmentCriteriaId(attachment.getAssessmentCriteriaId())
+                .updateDate(dateMapper.asOffsetDateTime(attachment.getUpdateDate()))
+                .updatedBy(attachment.getUpdatedBy())
+                .build();
     }
-}
\ No newline at end of file
+}
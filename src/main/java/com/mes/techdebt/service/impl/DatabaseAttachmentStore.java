@@ -0,0 +1,136 @@
+package com.mes.techdebt.service.impl;
+
+import com.mes.techdebt.repository.AttachmentContentRepository;
+import com.mes.techdebt.service.AttachmentStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Keeps the content in the {@code data} column of {@code attachment_content}, which is read in slices.
+ */
+@Component
+@RequiredArgsConstructor
+public class DatabaseAttachmentStore implements AttachmentStore {
+
+    /**
+     * Bytes read from the database per statement while reading a content.
+     */
+    static final int CONTENT_SLICE_SIZE = 64 * 1024;
+
+    /**
+     * End of a content read to its last byte, whatever its length.
+     */
+    private static final long END_OF_CONTENT = Long.MAX_VALUE;
+
+    private final AttachmentContentRepository attachmentContentRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public String getName() {
+        return DATABASE;
+    }
+
+    /**
+     * Streams the content to the driver, which sends it as it is read given its length. Runs on the connection of
+     * the current transaction, which flushed the content row.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String write(Long contentId, InputStream content, long length) {
+        jdbcTemplate.update("update attachment_content set data = ? where id = ?", statement -> {
+            statement.setBinaryStream(1, content, length);
+            statement.setLong(2, contentId);
+        });
+        return null;
+    }
+
+    @Override
+    public InputStream openStream(Long contentId, String contentKey) {
+        return new ContentInputStream(contentId, 0, END_OF_CONTENT);
+    }
+
+    @Override
+    public void transferTo(Long contentId, String contentKey, long start, long length, OutputStream outputStream) throws IOException {
+        try (InputStream content = new ContentInputStream(contentId, start, start + length)) {
+            content.transferTo(outputStream);
+        }
+    }
+
+    /**
+     * Runs after the commit of the transaction that moved or deleted the content, so in a transaction of its own.
+     * A deleted content is gone with its row already.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void delete(Long contentId, String contentKey) {
+        attachmentContentRepository.clearData(contentId);
+    }
+
+    /**
+     * Reads the content from a position to an end, one slice at a time.
+     */
+    private class ContentInputStream extends InputStream {
+
+        private final Long contentId;
+        private final long end;
+        private long position;
+        private byte[] slice = new byte[0];
+        private int offset;
+
+        ContentInputStream(Long contentId, long start, long end) {
+            this.contentId = contentId;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (offset == slice.length && !readSlice()) {
+                return -1;
+            }
+            return slice[offset++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (offset == slice.length && !readSlice()) {
+                return -1;
+            }
+            int read = Math.min(len, slice.length - offset);
+            System.arraycopy(slice, offset, bytes, off, read);
+            offset += read;
+            return read;
+        }
+
+        private boolean readSlice() throws IOException {
+            if (position >= end) {
+                return false;
+            }
+            int sliceLength = (int) Math.min(CONTENT_SLICE_SIZE, end - position);
+            // SQL positions start at 1
+            byte[] read = attachmentContentRepository.findDataSlice(contentId, position + 1, sliceLength);
+            if (read == null || read.length == 0) {
+                if (end == END_OF_CONTENT) {
+                    return false;
+                }
+                // Deleted or moved while being read
+                throw new IOException(String.format("AttachmentContent %d ended at %d instead of %d",
+                        contentId, position, end));
+            }
+            slice = read;
+            offset = 0;
+            position += read.length;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mes.techdebt.service.impl;
+
+import com.mes.techdebt.service.AttachmentStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the contents in files named after their SHA-256 and the id of their content row, under two levels of
+ * directories named after the first bytes of the SHA-256, so that no directory grows too large. A content stored again
+ * after its row was deleted gets a file of its own, so deleting the previous file never deletes the new one.
+ * <p>
+ * A content is written to a temporary file, which is renamed once complete, so a content file is never seen
+ * partially written.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "attachment.store.filesystem.root")
+public class FileSystemAttachmentStore implements AttachmentStore {
+
+    private static final String TEMPORARY_DIRECTORY = "tmp";
+    // SHA-256, then the id of the content row, which keys written before it was added lack
+    private static final Pattern CONTENT_KEY = Pattern.compile("[0-9a-f]{64}(-[0-9]+)?");
+
+    private final Path root;
+    private final Path temporaryDirectory;
+
+    public FileSystemAttachmentStore(@Value("${attachment.store.filesystem.root}") Path root) throws IOException {
+        this.root = root.toAbsolutePath();
+        // Same file system as the contents, so that the rename is atomic
+        this.temporaryDirectory = Files.createDirectories(this.root.resolve(TEMPORARY_DIRECTORY));
+    }
+
+    @Override
+    public String getName() {
+        return FILE_SYSTEM;
+    }
+
+    @Override
+    public String write(Long contentId, InputStream content, long length) throws IOException {
+        MessageDigest digest = ContentHashes.sha256();
+        Path temporaryFile = Files.createTempFile(temporaryDirectory, "content-" + contentId + "-", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                content.transferTo(new DigestOutputStream(Channels.newOutputStream(channel), digest));
+                // The content has to be on disk before the rename makes it visible
+                channel.force(false);
+            }
+            String contentKey = ContentHashes.toHex(digest) + "-" + contentId;
+            Path path = resolve(contentKey);
+            Files.createDirectories(path.getParent());
+            // Only replaces the file of the same row, written again by a migration back to this store
+            Files.move(temporaryFile, path, StandardCopyOption.ATOMIC_MOVE);
+            return contentKey;
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    @Override
+    public InputStream openStream(Long contentId, String contentKey) throws IOException {
+        try {
+            return Files.newInputStream(resolve(contentKey));
+        } catch (NoSuchFileException e) {
+            throw missingContent(contentId, contentKey);
+        }
+    }
+
+    /**
+     * Lets the file channel copy the range, without reading it into the heap first.
+     */
+    @Override
+    public void transferTo(Long contentId, String contentKey, long start, long length, OutputStream outputStream) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(contentKey), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    throw new IOException(String.format("Content %s of AttachmentContent %d ended at %d instead of %d",
+                            contentKey, contentId, position, end));
+                }
+                position += transferred;
+            }
+        } catch (NoSuchFileException e) {
+            throw missingContent(contentId, contentKey);
+        }
+    }
+
+    @Override
+    public void delete(Long contentId, String contentKey) throws IOException {
+        Files.deleteIfExists(resolve(contentKey));
+    }
+
+    /**
+     * The key is checked, as it ends up in a path.
+     */
+    private Path resolve(String contentKey) {
+        if (contentKey == null || !CONTENT_KEY.matcher(contentKey).matches()) {
+            throw new IllegalArgumentException("Invalid content key: " + contentKey);
+        }
+        return root.resolve(contentKey.substring(0, 2)).resolve(contentKey.substring(2, 4)).resolve(contentKey);
+    }
+
+    private static FileNotFoundException missingContent(Long contentId, String contentKey) {
+        return new FileNotFoundException(String.format("Content %s of AttachmentContent %d is missing", contentKey, contentId));
+    }
+}
@@ -5,11 +5,14 @@ import com.mes.techdebt.service.mapper.SiteMapper;
 import com.mes.techdebt.domain.Site;
 import com.mes.techdebt.service.SiteService;
 import com.mes.techdebt.service.dto.SiteDTO;
+import com.mes.techdebt.service.event.DashboardChangedEvent;
 import com.mes.techdebt.web.rest.response.DashboardSiteAndCountryFilterDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +32,7 @@ import java.util.stream.Collectors;
 public class SiteServiceImpl implements SiteService {
     private final SiteRepository siteRepository;
     private final SiteMapper siteMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
     @Override
     public SiteDTO save(SiteDTO siteDTO) {
         log.debug("Request to save Site : {}", siteDTO);
@@ -42,7 +46,8 @@ public class SiteServiceImpl implements SiteService {
             site = siteMapper.toEntity(siteDTO);
             log.debug("New site: {}", site);
         }
-        site = siteRepository.save(site);
+        site = siteRepository.saveAndFlush(site);
+        publishSiteChanged(site.getId());
         return siteMapper.toDto(site);
     }
 
@@ -50,7 +55,13 @@ public class SiteServiceImpl implements SiteService {
     public SiteDTO update(SiteDTO siteDTO) {
         log.debug("Request to save Site : {}", siteDTO);
         Site site = siteMapper.toEntity(siteDTO);
-        site = siteRepository.save(site);
+        if (siteDTO.getVersion() == null) {
+            // Updates that do not carry the version they read overwrite the stored one, as before versioning
+            siteRepository.findById(site.getId()).map(Site::getVersion).ifPresent(site::setVersion);
+        }
+        // Flushed to return the incremented version
+        site = siteRepository.saveAndFlush(site);
+        publishSiteChanged(site.getId());
         return siteMapper.toDto(site);
     }
 
@@ -61,12 +72,18 @@ public class SiteServiceImpl implements SiteService {
         return siteRepository
             .findById(siteDTO.getId())
             .map(existingSite -> {
+                if (siteDTO.getVersion() != null && siteDTO.getVersion() != existingSite.getVersion()) {
+                    throw new ObjectOptimisticLockingFailureException(Site.class, existingSite.getId());
+                }
                 siteMapper.partialUpdate(existingSite, siteDTO);
 
                 return existingSite;
             })
-            .map(siteRepository::save)
-            .map(siteMapper::toDto);
+            .map(siteRepository::saveAndFlush)
+            .map(site -> {
+                publishSiteChanged(site.getId());
+                return siteMapper.toDto(site);
+            });
     }
 
     @Override
@@ -110,6 +127,7 @@ public class SiteServiceImpl implements SiteService {
     public void delete(Long id) {
         log.debug("Request to delete Site : {}", id);
         siteRepository.deleteById(id);
+        publishSiteChanged(id);
     }
 
     @Override
@@ -135,8 +153,7 @@ public class SiteServiceImpl implements SiteService {
     @Override
     public Long getIdByName(String name) {
         log.debug("Request to get Site id by name: {}", name);
-        Optional<Site> site = siteRepository.findByName(name);
-        return site.isPresent() ? site.get().getId() : null;
+        return siteRepository.findIdByName(name).orElse(null);
     }
 
     @Override
@@ -145,4 +162,11 @@ public class SiteServiceImpl implements SiteService {
         Optional<Site> site = siteRepository.findByMdmSiteId(mdmSiteId);
         return site.isPresent() ? site.get().getId() : null;
     }
+
+    /**
+     * The site name is part of every dashboard row, so any site write invalidates its dashboard.
+     */
+    private void publishSiteChanged(Long id) {
+        applicationEventPublisher.publishEvent(new DashboardChangedEvent(id, null));
+    }
 }
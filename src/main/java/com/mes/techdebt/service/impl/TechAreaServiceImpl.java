@@ -1,12 +1,15 @@
 package com.mes.techdebt.service.impl;
 
 import com.mes.techdebt.domain.TechArea;
+import com.mes.techdebt.repository.AssessmentResultRepository;
 import com.mes.techdebt.repository.TechAreaRepository;
 import com.mes.techdebt.service.TechAreaService;
 import com.mes.techdebt.service.dto.TechAreaDTO;
 import com.mes.techdebt.service.mapper.TechAreaMapper;
+import com.mes.techdebt.service.event.HierarchyChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,7 +26,9 @@ import java.util.Optional;
 @Slf4j
 public class TechAreaServiceImpl implements TechAreaService {
     private final TechAreaRepository techAreaRepository;
+    private final AssessmentResultRepository assessmentResultRepository;
     private final TechAreaMapper techAreaMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
     @Override
     public TechAreaDTO save(TechAreaDTO techAreaDTO) {
         log.debug("Request to save TechArea : {}", techAreaDTO);
@@ -40,7 +45,8 @@ public class TechAreaServiceImpl implements TechAreaService {
             log.debug("New TechArea: {}", techArea);
         }
 
-        techArea = techAreaRepository.save(techArea);
+        techArea = syncHierarchyIds(techAreaRepository.save(techArea));
+        publishHierarchyChanged(techArea.getId());
         return techAreaMapper.toDto(techArea);
     }
 
@@ -48,7 +54,8 @@ public class TechAreaServiceImpl implements TechAreaService {
     public TechAreaDTO update(TechAreaDTO techAreaDTO) {
         log.debug("Request to save TechArea : {}", techAreaDTO);
         TechArea techArea = techAreaMapper.toEntity(techAreaDTO);
-        techArea = techAreaRepository.save(techArea);
+        techArea = syncHierarchyIds(techAreaRepository.save(techArea));
+        publishHierarchyChanged(techArea.getId());
         return techAreaMapper.toDto(techArea);
     }
 
@@ -60,10 +67,12 @@ public class TechAreaServiceImpl implements TechAreaService {
             .findById(techAreaDTO.getId())
             .map(existingTechArea -> {
                 techAreaMapper.partialUpdate(existingTechArea, techAreaDTO);
+                publishHierarchyChanged(existingTechArea.getId());
 
                 return existingTechArea;
             })
             .map(techAreaRepository::save)
+            .map(this::syncHierarchyIds)
             .map(techAreaMapper::toDto);
     }
 
@@ -85,6 +94,7 @@ public class TechAreaServiceImpl implements TechAreaService {
     public void delete(Long id) {
         log.debug("Request to delete TechArea : {}", id);
         techAreaRepository.deleteById(id);
+        publishHierarchyChanged(id);
     }
 
     @Override
@@ -106,4 +116,16 @@ public class TechAreaServiceImpl implements TechAreaService {
         Optional<TechArea> techArea = techAreaRepository.findByDescription(description);
         return techArea.isPresent() ? techArea.get().getId() : null;
     }
+
+    /**
+     * Re-copies the hierarchy ids held by the assessment results, in case the tech area moved to another domain.
+     */
+    private TechArea syncHierarchyIds(TechArea techArea) {
+        assessmentResultRepository.syncHierarchyIdsByTechAreaId(techArea.getId());
+        return techArea;
+    }
+
+    private void publishHierarchyChanged(Long id) {
+        applicationEventPublisher.publishEvent(new HierarchyChangedEvent(TechArea.class.getSimpleName(), id));
+    }
 }
@@ -5,8 +5,10 @@ import com.mes.techdebt.repository.TechDomainRepository;
 import com.mes.techdebt.service.TechDomainService;
 import com.mes.techdebt.service.dto.TechDomainDTO;
 import com.mes.techdebt.service.mapper.TechDomainMapper;
+import com.mes.techdebt.service.event.HierarchyChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,6 +27,7 @@ public class TechDomainServiceImpl implements TechDomainService {
 
     private final TechDomainRepository techDomainRepository;
     private final TechDomainMapper techDomainMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Override
     public TechDomainDTO save(TechDomainDTO techDomainDTO) {
@@ -43,6 +46,7 @@ public class TechDomainServiceImpl implements TechDomainService {
         }
 
         techDomain = techDomainRepository.save(techDomain);
+        publishHierarchyChanged(techDomain.getId());
         return techDomainMapper.toDto(techDomain);
     }
 
@@ -51,6 +55,7 @@ public class TechDomainServiceImpl implements TechDomainService {
         log.debug("Request to save TechDomain : {}", techDomainDTO);
         TechDomain techDomain = techDomainMapper.toEntity(techDomainDTO);
         techDomain = techDomainRepository.save(techDomain);
+        publishHierarchyChanged(techDomain.getId());
         return techDomainMapper.toDto(techDomain);
     }
 
@@ -62,6 +67,7 @@ public class TechDomainServiceImpl implements TechDomainService {
             .findById(techDomainDTO.getId())
             .map(existingTechDomain -> {
                 techDomainMapper.partialUpdate(existingTechDomain, techDomainDTO);
+                publishHierarchyChanged(existingTechDomain.getId());
 
                 return existingTechDomain;
             })
@@ -87,6 +93,7 @@ public class TechDomainServiceImpl implements TechDomainService {
     public void delete(Long id) {
         log.debug("Request to delete TechDomain : {}", id);
         techDomainRepository.deleteById(id);
+        publishHierarchyChanged(id);
     }
 
     @Override
@@ -108,4 +115,8 @@ public class TechDomainServiceImpl implements TechDomainService {
         Optional<TechDomain> techDomain = techDomainRepository.findByDescription(description);
         return techDomain.isPresent() ? techDomain.get().getId() : null;
     }
+
+    private void publishHierarchyChanged(Long id) {
+        applicationEventPublisher.publishEvent(new HierarchyChangedEvent(TechDomain.class.getSimpleName(), id));
+    }
 }
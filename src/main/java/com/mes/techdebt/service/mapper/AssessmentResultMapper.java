@@ -11,7 +11,9 @@ import com.mes.techdebt.service.dto.SiteDTO;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
 /**
  * Mapper for the entity {@link AssessmentResult} and its DTO {@link AssessmentResultDTO}.
@@ -23,6 +25,14 @@ public interface AssessmentResultMapper extends EntityMapper<AssessmentResultDTO
     @Mapping(target = "recommendationStatus", source = "recommendationStatus", qualifiedByName = "recommendationStatusId")
     AssessmentResultDTO toDto(AssessmentResult s);
 
+    /**
+     * The hierarchy ids are copied from the assessment criteria by the service.
+     */
+    @Mapping(target = "categoryId", ignore = true)
+    @Mapping(target = "techAreaId", ignore = true)
+    @Mapping(target = "techDomainId", ignore = true)
+    AssessmentResult toEntity(AssessmentResultDTO dto);
+
     @Named("assessmentCriteriaId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
@@ -32,6 +42,22 @@ public interface AssessmentResultMapper extends EntityMapper<AssessmentResultDTO
     @Mapping(target = "isActive", source = "isActive")
     AssessmentCriteriaDTO toDtoAssessmentCriteriaId(AssessmentCriteria assessmentCriteria);
 
+    /**
+     * Associations are left to the service, which sets references to the stored entities: copying the request
+     * into the loaded ones would change their ids. The version is checked by the service before updating, and the
+     * hierarchy ids are copied from the assessment criteria.
+     */
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "assessmentCriteria", ignore = true)
+    @Mapping(target = "site", ignore = true)
+    @Mapping(target = "recommendationStatus", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "categoryId", ignore = true)
+    @Mapping(target = "techAreaId", ignore = true)
+    @Mapping(target = "techDomainId", ignore = true)
+    void partialUpdate(@MappingTarget AssessmentResult entity, AssessmentResultDTO dto);
+
     @Named("siteId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
@@ -1,17 +1,23 @@
 package com.mes.techdebt.service.mapper;
 
-import com.cargill.techdebt.domain.*;
-import com.cargill.techdebt.service.dto.*;
+import com.mes.techdebt.domain.*;
+import com.mes.techdebt.service.dto.*;
 import com.mes.techdebt.domain.AssessmentCriteria;
 import com.mes.techdebt.domain.Attachment;
 import com.mes.techdebt.domain.Site;
 import com.mes.techdebt.service.dto.AssessmentCriteriaDTO;
+import com.mes.techdebt.repository.projection.AttachmentMetadata;
 import com.mes.techdebt.service.dto.AttachmentDTO;
+import com.mes.techdebt.service.dto.AttachmentMetadataDTO;
 import com.mes.techdebt.service.dto.SiteDTO;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+
+import java.util.List;
 
 /**
  * Mapper for the entity {@link Attachment} and its DTO {@link AttachmentDTO}.
@@ -22,6 +28,17 @@ public interface AttachmentMapper extends EntityMapper<AttachmentDTO, Attachment
     @Mapping(target = "assessmentCriteria", source = "assessmentCriteria", qualifiedByName = "assessmentCriteriaId")
     AttachmentDTO toDto(Attachment s);
 
+    /**
+     * The content is stored and referenced by the attachment service, never taken from a request.
+     */
+    @Mapping(target = "content", ignore = true)
+    Attachment toEntity(AttachmentDTO dto);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "content", ignore = true)
+    void partialUpdate(@MappingTarget Attachment entity, AttachmentDTO dto);
+
     @Named("siteId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
@@ -31,4 +48,30 @@ public interface AttachmentMapper extends EntityMapper<AttachmentDTO, Attachment
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
     AssessmentCriteriaDTO toDtoAssessmentCriteriaId(AssessmentCriteria assessmentCriteria);
+
+    @Mapping(target = "site", source = "siteId", qualifiedByName = "siteFromId")
+    @Mapping(target = "assessmentCriteria", source = "assessmentCriteriaId", qualifiedByName = "assessmentCriteriaFromId")
+    AttachmentMetadataDTO toMetadataDto(AttachmentMetadata attachmentMetadata);
+
+    List<AttachmentMetadataDTO> toMetadataDto(List<AttachmentMetadata> attachmentMetadata);
+
+    @Named("siteFromId")
+    default SiteDTO siteFromId(Long siteId) {
+        if (siteId == null) {
+            return null;
+        }
+        SiteDTO site = new SiteDTO();
+        site.setId(siteId);
+        return site;
+    }
+
+    @Named("assessmentCriteriaFromId")
+    default AssessmentCriteriaDTO assessmentCriteriaFromId(Long assessmentCriteriaId) {
+        if (assessmentCriteriaId == null) {
+            return null;
+        }
+        AssessmentCriteriaDTO assessmentCriteria = new AssessmentCriteriaDTO();
+        assessmentCriteria.setId(assessmentCriteriaId);
+        return assessmentCriteria;
+    }
 }
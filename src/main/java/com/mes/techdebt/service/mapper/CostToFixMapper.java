@@ -11,7 +11,9 @@ import com.mes.techdebt.service.dto.SiteDTO;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
 /**
  * Mapper for the entity {@link CostToFix} and its DTO {@link CostToFixDTO}.
@@ -23,6 +25,18 @@ public interface CostToFixMapper extends EntityMapper<CostToFixDTO, CostToFix> {
     @Mapping(target = "category", source = "category", qualifiedByName = "categoryId")
     CostToFixDTO toDto(CostToFix s);
 
+    /**
+     * Associations are left to the service, which sets references to the stored entities: copying the request
+     * into the loaded ones would change their ids. The version is checked by the service before updating.
+     */
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "site", ignore = true)
+    @Mapping(target = "costRange", ignore = true)
+    @Mapping(target = "category", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void partialUpdate(@MappingTarget CostToFix entity, CostToFixDTO dto);
+
     @Named("siteId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
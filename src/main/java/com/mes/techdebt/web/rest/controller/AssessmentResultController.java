@@ -1,11 +1,23 @@
 package com.mes.techdebt.web.rest.controller;
 
-import com.cargill.techdebt.service.*;
+import com.mes.techdebt.service.*;
 import com.mes.techdebt.service.dto.AssessmentResultDTO;
+import com.mes.techdebt.service.dto.KeysetCursor;
+import com.mes.techdebt.service.mapper.DateMapper;
+import com.mes.techdebt.web.rest.controller.utils.EntityTagUtil;
+import com.mes.techdebt.web.rest.controller.utils.SlicePaginationUtil;
 import com.mes.techdebt.web.rest.errors.BadRequestAlertException;
+import com.mes.techdebt.web.rest.request.AssessmentResultFilterDTO;
 import com.mes.techdebt.web.rest.request.DashboardRequestDTO;
+import com.mes.techdebt.web.rest.request.ScoreHistoryRequestDTO;
+import com.mes.techdebt.web.rest.request.ScoreRollupRequestDTO;
+import com.mes.techdebt.web.rest.response.AssessmentResultRowDTO;
+import com.mes.techdebt.web.rest.response.BulkItemResultDTO;
+import com.mes.techdebt.web.rest.response.HierarchyScoreRollupDTO;
+import com.mes.techdebt.web.rest.response.HierarchyUsageCountDTO;
+import com.mes.techdebt.web.rest.response.ScoreHistoryPointDTO;
+import com.mes.techdebt.web.rest.response.SiteChangesResponseDTO;
 import com.mes.techdebt.domain.AssessmentResult;
-import com.mes.techdebt.service.*;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,11 +25,15 @@ import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -26,6 +42,8 @@ import tech.jhipster.web.util.ResponseUtil;
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -44,23 +62,57 @@ import java.util.Optional;
 public class AssessmentResultController {
 
     private static final String ENTITY_NAME = "assessmentResult";
+    // A whole site assessment is around 90 items
+    private static final int MAX_BULK_SIZE = 500;
+    // Two years of days, enough points for any chart
+    private static final int MAX_HISTORY_BUCKETS = 731;
+    private static final String CSV_MEDIA_TYPE = "text/csv";
     @Value("${spring.application.name}")
     private String applicationName;
+    @Value("${assessment-result.write-behind.enabled:false}")
+    private boolean writeBehind;
 
     private final AssessmentResultService assessmentResultService;
+    private final AssessmentResultWriteBehindService assessmentResultWriteBehindService;
     private final AssessmentCriteriaService assessmentCriteriaService;
     private final CategoryService categoryService;
     private final TechAreaService techAreaService;
     private final TechDomainService techDomainService;
+    private final DateMapper dateMapper;
 
     /**
      * {@code GET  /assessment-results} : get all the assessmentResult.
+     * <p>
+     * With an {@code after} cursor, pages are read most recently updated first, right after the last row of the
+     * previous page, and the cursor of the next page is returned in the {@code X-Next-Cursor} header. An empty
+     * cursor reads the first page. The {@code page} and {@code sort} parameters are then ignored.
      *
      * @param pageable the pagination information.
+     * @param after the cursor returned with the previous page, to read pages by cursor instead of by number.
+     * @param count whether to count all the assessmentResult for the {@code X-Total-Count} header.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of assessmentResult in body.
      */
     @GetMapping(path="/assessment-results", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<AssessmentResultDTO>> getAllAssessmentResult(@ParameterObject Pageable pageable) {
+    public ResponseEntity<List<AssessmentResultDTO>> getAllAssessmentResult(@ParameterObject Pageable pageable,
+                                                                            @RequestParam(required = false) String after,
+                                                                            @RequestParam(required = false, defaultValue = "true") boolean count) {
+        if (after != null) {
+            log.debug("REST request to get a page of AssessmentResult after: {}", after);
+            Slice<AssessmentResultDTO> slice = assessmentResultService.findAllAfter(toKeysetCursor(after), pageable.getPageSize());
+            String nextCursor = null;
+            if (slice.hasNext()) {
+                AssessmentResultDTO last = slice.getContent().get(slice.getNumberOfElements() - 1);
+                nextCursor = new KeysetCursor(dateMapper.asTimestamp(last.getUpdateDate()), last.getId()).encode();
+            }
+            HttpHeaders headers = SlicePaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), nextCursor);
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
+        if (!count) {
+            log.debug("REST request to get a slice of AssessmentResult");
+            Slice<AssessmentResultDTO> slice = assessmentResultService.findSlice(pageable);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         log.debug("REST request to get a page of AssessmentResult");
         Page<AssessmentResultDTO> page = assessmentResultService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
@@ -71,28 +123,133 @@ public class AssessmentResultController {
      * {@code GET  /assessment-results/:id} : get the "id" assessmentResult.
      *
      * @param id the id of the assessmentResultDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the assessmentResultDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the assessmentResultDTO and its version
+     * as {@code ETag}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping(path="/assessment-results/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<AssessmentResultDTO> getAssessmentResult(@PathVariable Long id) {
         log.debug("REST request to get AssessmentResult: {}", id);
         Optional<AssessmentResultDTO> assessmentResultDTO = assessmentResultService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(assessmentResultDTO);
+        return ResponseUtil.wrapOrNotFound(assessmentResultDTO, EntityTagUtil.withEntityTag(new HttpHeaders(),
+                assessmentResultDTO.map(AssessmentResultDTO::getVersion).orElse(null)));
     }
 
     /**
      * {@code GET  /assessment-results/site} : get the "site" assessmentResult.
      *
      * @param dashboardRequest the request details to retrieve assessmentResultDTO.
+     * @param latestOnly whether to only return the latest assessmentResult per assessment criteria.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the assessmentResultDTO, or with status {@code 404 (Not Found)}.
      */
     @PostMapping(path="/assessment-results/site", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<AssessmentResultDTO>> getAssessmentResult(@Valid @RequestBody DashboardRequestDTO dashboardRequest) {
-        log.debug("REST request to get AssessmentResult by site: {}", dashboardRequest.getName());
-        Optional<List<AssessmentResultDTO>> assessmentResultDTO = assessmentResultService.findBySiteName(dashboardRequest.getName());
+    public ResponseEntity<List<AssessmentResultDTO>> getAssessmentResult(@Valid @RequestBody DashboardRequestDTO dashboardRequest,
+                                                                         @RequestParam(required = false, defaultValue = "false") boolean latestOnly) {
+        log.debug("REST request to get AssessmentResult by site: {}, latestOnly: {}", dashboardRequest.getName(), latestOnly);
+        Optional<List<AssessmentResultDTO>> assessmentResultDTO = latestOnly
+                ? assessmentResultService.findLatestBySiteName(dashboardRequest.getName())
+                : assessmentResultService.findBySiteName(dashboardRequest.getName());
         return ResponseUtil.wrapOrNotFound(assessmentResultDTO);
     }
 
+    /**
+     * {@code POST  /assessment-results/site/changes} : get the assessmentResults and attachments of a site created, updated or deleted since a date.
+     *
+     * @param dashboardRequest the request details to retrieve the site.
+     * @param since the watermark returned by the previous sync.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the changes and the watermark of the next sync, or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping(path="/assessment-results/site/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SiteChangesResponseDTO> getAssessmentResultChanges(@Valid @RequestBody DashboardRequestDTO dashboardRequest,
+                                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime since) {
+        log.debug("REST request to get AssessmentResult changes by site: {}, since: {}", dashboardRequest.getName(), since);
+        return ResponseUtil.wrapOrNotFound(assessmentResultService.findChangesBySiteName(dashboardRequest.getName(), since));
+    }
+
+    /**
+     * {@code POST  /assessment-results/rollup} : get the score rollup of a set of sites.
+     *
+     * @param scoreRollupRequest the ids of the sites.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result count, average, min, max and latest score over all results and per tech domain, tech area and category.
+     */
+    @PostMapping(path="/assessment-results/rollup", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<HierarchyScoreRollupDTO>> getScoreRollup(@Valid @RequestBody ScoreRollupRequestDTO scoreRollupRequest) {
+        log.debug("REST request to get score rollup by sites: {}", scoreRollupRequest.getSiteIds());
+        return ResponseEntity.ok().body(assessmentResultService.getScoreRollup(scoreRollupRequest.getSiteIds()));
+    }
+
+    /**
+     * {@code POST  /assessment-results/filter} : get the assessmentResults matching a filter, as flat rows.
+     *
+     * @param filter the filter, every criterion being optional.
+     * @param pageable the pagination information, most recently updated first by default.
+     * @param count whether to count all the matching assessmentResult for the {@code X-Total-Count} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of rows in body.
+     */
+    @PostMapping(path="/assessment-results/filter", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<AssessmentResultRowDTO>> filterAssessmentResults(@RequestBody AssessmentResultFilterDTO filter,
+                                                                               @ParameterObject Pageable pageable,
+                                                                               @RequestParam(required = false, defaultValue = "true") boolean count) {
+        log.debug("REST request to get a page of AssessmentResult by filter: {}", filter);
+        if (!count) {
+            Slice<AssessmentResultRowDTO> slice = assessmentResultService.findSliceByFilter(filter, pageable);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
+        Page<AssessmentResultRowDTO> page = assessmentResultService.findByFilter(filter, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code POST  /assessment-results/export} with {@code Accept: text/csv} : export all the assessmentResults matching
+     * a filter as a CSV file, with the same columns as the filtered listing.
+     * Rows are streamed from the database as they are written, so the export is never held in memory.
+     *
+     * @param filter the filter, every criterion being optional.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the CSV file in body.
+     */
+    @PostMapping(path="/assessment-results/export", produces = CSV_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportAssessmentResults(@RequestBody AssessmentResultFilterDTO filter) {
+        log.debug("REST request to export AssessmentResult by filter: {}", filter);
+        StreamingResponseBody body = outputStream -> assessmentResultService.exportByFilter(filter, outputStream);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("assessment-results.csv").build().toString())
+                .contentType(MediaType.parseMediaType(CSV_MEDIA_TYPE))
+                .body(body);
+    }
+
+    /**
+     * {@code POST  /assessment-results/history} : get the score history of sites, regions or a hierarchy node,
+     * bucketed by day, week or month.
+     *
+     * @param scoreHistoryRequest the interval, date range and filters.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the buckets holding results, oldest first,
+     * or with status {@code 400 (Bad Request)} if the range holds too many buckets or the hierarchy filter is incomplete.
+     */
+    @PostMapping(path="/assessment-results/history", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ScoreHistoryPointDTO>> getScoreHistory(@Valid @RequestBody ScoreHistoryRequestDTO scoreHistoryRequest) {
+        log.debug("REST request to get score history: {}", scoreHistoryRequest);
+        OffsetDateTime to = scoreHistoryRequest.getTo() != null ? scoreHistoryRequest.getTo() : OffsetDateTime.now();
+        if (!scoreHistoryRequest.getFrom().isBefore(to)) {
+            throw new BadRequestAlertException("The history has to start before it ends", ENTITY_NAME, "historyempty");
+        }
+        if (!scoreHistoryRequest.isHierarchyFilterComplete()) {
+            throw new BadRequestAlertException("The history hierarchy level and id have to be given together",
+                    ENTITY_NAME, "historyhierarchyincomplete");
+        }
+        ChronoUnit unit = switch (scoreHistoryRequest.getInterval()) {
+            case ScoreHistoryRequestDTO.INTERVAL_DAY -> ChronoUnit.DAYS;
+            case ScoreHistoryRequestDTO.INTERVAL_WEEK -> ChronoUnit.WEEKS;
+            default -> ChronoUnit.MONTHS;
+        };
+        if (unit.between(scoreHistoryRequest.getFrom(), to) >= MAX_HISTORY_BUCKETS) {
+            throw new BadRequestAlertException("The history cannot hold more than " + MAX_HISTORY_BUCKETS + " buckets",
+                    ENTITY_NAME, "historytoolong");
+        }
+        return ResponseEntity.ok().body(assessmentResultService.getScoreHistory(scoreHistoryRequest));
+    }
+
     /**
      * {@code POST  /assessment-results} : Create a new assessmentResult.
      *
@@ -129,6 +286,40 @@ public class AssessmentResultController {
                 ).body(result);
     }
 
+    /**
+     * {@code POST  /assessment-results/bulk} : Create or update a batch of assessmentResults in a single transaction.
+     *
+     * @param assessmentResultDTOs the assessmentResultDTOs to save, created if they have no id and updated otherwise.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of every item,
+     * or with status {@code 400 (Bad Request)} if the batch is empty or too large.
+     */
+    @PreAuthorize("hasAuthority('APPROLE_TechHealth_User_Write') or hasAuthority('APPROLE_TechHealth_User_Admin')")
+    @PostMapping(path="/assessment-results/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BulkItemResultDTO>> saveAssessmentResults(@RequestBody List<AssessmentResultDTO> assessmentResultDTOs) {
+        log.debug("REST request to save {} AssessmentResults", assessmentResultDTOs.size());
+        if (assessmentResultDTOs.isEmpty()) {
+            throw new BadRequestAlertException("A batch of assessmentResults cannot be empty", ENTITY_NAME, "bulkempty");
+        }
+
+        if (assessmentResultDTOs.size() > MAX_BULK_SIZE) {
+            throw new BadRequestAlertException("A batch of assessmentResults cannot hold more than " + MAX_BULK_SIZE + " items",
+                    ENTITY_NAME, "bulktoolarge");
+        }
+
+        return ResponseEntity.ok().body(assessmentResultService.saveAll(assessmentResultDTOs));
+    }
+
+    private KeysetCursor toKeysetCursor(String after) {
+        if (after.isEmpty()) {
+            return null;
+        }
+        try {
+            return KeysetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+
     private void validateDependencies(AssessmentResultDTO assessmentResultDTO) {
         if(assessmentResultDTO.getAssessmentCriteria() == null){
             throw new BadRequestAlertException("Entity assessmentCriteria dependency not exists", ENTITY_NAME, "assessmentCriteria isnull");
@@ -183,26 +374,33 @@ public class AssessmentResultController {
      * {@code PUT  /assessment-results/:id} : Updates an existing assessmentResult.
      *
      * @param id the id of the assessmentResultDTO to save.
+     * @param ifMatch the {@code ETag} of the version that was read, to only update if it is still the current one.
      * @param assessmentResultDTO the assessmentResultDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated assessmentResultDTO,
      * or with status {@code 400 (Bad Request)} if the assessmentResultDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the assessmentResult was updated since the {@code If-Match} version,
      * or with status {@code 500 (Internal Server Error)} if the assessmentResultDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PreAuthorize("hasAuthority('APPROLE_TechHealth_User_Write') or hasAuthority('APPROLE_TechHealth_User_Admin')")
     @PutMapping(path="/assessment-results/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<AssessmentResultDTO> updateAssessmentResult(@PathVariable(value = "id", required = false) final Long id, @RequestBody AssessmentResultDTO assessmentResultDTO)
+    public ResponseEntity<AssessmentResultDTO> updateAssessmentResult(@PathVariable(value = "id", required = false) final Long id,
+                                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                      @RequestBody AssessmentResultDTO assessmentResultDTO)
             throws URISyntaxException {
         log.debug("REST request to update AssessmentResult : {}, {}", id, assessmentResultDTO);
 
         exists(id, assessmentResultDTO);
+        // The If-Match version takes precedence over the version in the body
+        Optional.ofNullable(EntityTagUtil.parseIfMatch(ifMatch)).ifPresent(assessmentResultDTO::setVersion);
 
         AssessmentResultDTO result = assessmentResultService.save(assessmentResultDTO);
         return ResponseEntity
                 .ok()
-                .headers(
+                .headers(EntityTagUtil.withEntityTag(
                         HeaderUtil
-                                .createEntityUpdateAlert(applicationName, true, ENTITY_NAME, assessmentResultDTO.getId().toString()))
+                                .createEntityUpdateAlert(applicationName, true, ENTITY_NAME, assessmentResultDTO.getId().toString()),
+                        result.getVersion()))
                 .body(result);
     }
 
@@ -210,10 +408,14 @@ public class AssessmentResultController {
      * {@code PATCH  /assessment-results/:id} : Partial updates given fields of an existing assessmentResult, field will ignore if it is null
      *
      * @param id the id of the assessmentResultDTO to save.
+     * @param ifMatch the {@code ETag} of the version that was read, to only update if it is still the current one.
      * @param assessmentResultDTO the assessmentResultDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated assessmentResultDTO,
+     * or with status {@code 202 (Accepted)} and no body if write-behind is enabled and the update is unconditional,
+     * the update being queued,
      * or with status {@code 400 (Bad Request)} if the assessmentResultDTO is not valid,
      * or with status {@code 404 (Not Found)} if the assessmentResultDTO is not found,
+     * or with status {@code 412 (Precondition Failed)} if the assessmentResult was updated since the {@code If-Match} version,
      * or with status {@code 500 (Internal Server Error)} if the assessmentResultDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -221,17 +423,32 @@ public class AssessmentResultController {
     @PatchMapping(path = "/assessment-results/{id}", consumes = { "application/json", "application/merge-patch+json" }, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<AssessmentResultDTO> partialUpdateAssessmentResult(
             @PathVariable(value = "id", required = false) final Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody AssessmentResultDTO assessmentResultDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update AssessmentResult partially : {}, {}", id, assessmentResultDTO);
 
         exists(id, assessmentResultDTO);
+        // The If-Match version takes precedence over the version in the body
+        Optional.ofNullable(EntityTagUtil.parseIfMatch(ifMatch)).ifPresent(assessmentResultDTO::setVersion);
+
+        // Conditional updates are applied right away, to answer a conflict with 412
+        if (writeBehind && assessmentResultDTO.getVersion() == null) {
+            assessmentResultWriteBehindService.enqueue(assessmentResultDTO).ifPresent(error -> {
+                throw new BadRequestAlertException("Entity dependency not exists", ENTITY_NAME, error);
+            });
+            return ResponseEntity.accepted()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, assessmentResultDTO.getId().toString()))
+                    .build();
+        }
 
         Optional<AssessmentResultDTO> result = assessmentResultService.partialUpdate(assessmentResultDTO);
 
         return ResponseUtil.wrapOrNotFound(
                 result,
-                HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, assessmentResultDTO.getId().toString())
+                EntityTagUtil.withEntityTag(
+                        HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, assessmentResultDTO.getId().toString()),
+                        result.map(AssessmentResultDTO::getVersion).orElse(null))
         );
     }
 
@@ -266,12 +483,26 @@ public class AssessmentResultController {
                 .build();
     }
 
+    /**
+     * {@code GET  /assessment-results/count/hierarchy} : get the assessmentResult count of every tech domain, tech area,
+     * category and assessment criteria, in one round trip.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the counts, tech domains first.
+     */
+    @GetMapping(path="/assessment-results/count/hierarchy", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<HierarchyUsageCountDTO>> getAssessmentResultCountByHierarchy() {
+        log.debug("REST request to get count of AssessmentResult by hierarchy");
+        return ResponseEntity.ok().body(assessmentResultService.getHierarchyUsageCounts());
+    }
+
     /**
      * {@code GET  /assessment-results/count/assessment-criteria/:id} : get the assessmentResult count by assessment criteria "id".
      *
      * @param id the id of the assessmentCriteria to within assessment results
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the long, or with status {@code 404 (Not Found)}.
+     * @deprecated the admin screen loads all the counts at once with {@code GET /assessment-results/count/hierarchy}.
      */
+    @Deprecated
     @GetMapping(path="/assessment-results/count/assessment-criteria/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Long> getAssessmentResultCountByByCriteria(@PathVariable Long id) {
         log.debug("REST request to get count of AssessmentResult by criteria id: {}", id);
@@ -285,7 +516,9 @@ public class AssessmentResultController {
      *
      * @param id the id of the assessmentCriteria within assessment results
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the long, or with status {@code 404 (Not Found)}.
+     * @deprecated the admin screen loads all the counts at once with {@code GET /assessment-results/count/hierarchy}.
      */
+    @Deprecated
     @GetMapping(path="/assessment-results/count/category/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Long> getAssessmentResultCountByByCategory(@PathVariable Long id) {
         log.debug("REST request to get count of AssessmentResult by category id: {}", id);
@@ -299,7 +532,9 @@ public class AssessmentResultController {
      *
      * @param id the id of the tech-area within assessment results
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the long, or with status {@code 404 (Not Found)}.
+     * @deprecated the admin screen loads all the counts at once with {@code GET /assessment-results/count/hierarchy}.
      */
+    @Deprecated
     @GetMapping(path="/assessment-results/count/tech-area/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Long> getAssessmentResultCountByByTechArea(@PathVariable Long id) {
         log.debug("REST request to get count of AssessmentResult by tech-area id: {}", id);
@@ -312,7 +547,9 @@ public class AssessmentResultController {
      *
      * @param id the id of the tech-domain within assessment results
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the long, or with status {@code 404 (Not Found)}.
+     * @deprecated the admin screen loads all the counts at once with {@code GET /assessment-results/count/hierarchy}.
      */
+    @Deprecated
     @GetMapping(path="/assessment-results/count/tech-domain/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Long> getAssessmentResultCountByByTechDomain(@PathVariable Long id) {
         log.debug("REST request to get count of AssessmentResult by tech-domain id: {}", id);
@@ -1,9 +1,11 @@
 package com.mes.techdebt.web.rest.controller;
 
 import com.mes.techdebt.service.AssessmentCriteriaService;
+import com.mes.techdebt.service.AttachmentContentService;
 import com.mes.techdebt.service.AttachmentService;
 import com.mes.techdebt.service.SiteService;
-import com.mes.techdebt.service.dto.AttachmentDTO;
+import com.mes.techdebt.service.dto.AttachmentMetadataDTO;
+import com.mes.techdebt.web.rest.controller.utils.EntityTagUtil;
 import com.mes.techdebt.web.rest.errors.BadRequestAlertException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mes.techdebt.domain.AssessmentResult;
@@ -13,12 +15,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import tech.jhipster.web.util.HeaderUtil;
 
 import java.util.Arrays;
@@ -39,6 +43,7 @@ import java.util.Optional;
 public class AttachmentController {
 
     private static final String ENTITY_NAME = "attachment";
+    private static final int MAX_MIGRATION_SIZE = 1000;
     @Value("${spring.application.name}")
     private String applicationName;
 
@@ -46,62 +51,108 @@ public class AttachmentController {
     private ObjectMapper objectMapper;
 
     private final AttachmentService attachmentService;
+    private final AttachmentContentService attachmentContentService;
     private final SiteService siteService;
     private final AssessmentCriteriaService assessmentCriteriaService;
 
     /**
      * {@code GET  /attachments} : get all the attachment.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of attachment in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of attachment in body, without
+     * their binary content.
      */
     @PreAuthorize("hasAuthority('APPROLE_TechHealth_User_Admin')")
     @GetMapping(path="/attachments", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<AttachmentDTO>> getAllAttachments() {
+    public ResponseEntity<List<AttachmentMetadataDTO>> getAllAttachments() {
         log.debug("REST request to get a page of Attachment");
-        List<AttachmentDTO> attachmentDTOs = attachmentService.findAll();
+        List<AttachmentMetadataDTO> attachmentDTOs = attachmentService.findAll();
         return ResponseEntity
                 .ok()
                 .body(attachmentDTOs);
     }
 	
     /**
-     * {@code GET  /attachments/:id} : get the "id" attachment.
+     * {@code GET  /attachments/:id} : download the "id" attachment, or the byte range of it given in the
+     * {@code Range} header. The entity tag of the download is the SHA-256 of the content.
      *
      * @param id the id of the attachmentDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the attachmentDTO, or with status {@code 404 (Not Found)}.
+     * @param range the {@code Range} header, if any. Only a single range is served, otherwise the whole content is.
+     * @param ifRange the {@code If-Range} header, if any. The range is only served if it holds the current tag.
+     * @param ifNoneMatch the {@code If-None-Match} header, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the content,
+     * or with status {@code 206 (Partial Content)} and with body the range of the content,
+     * or with status {@code 304 (Not Modified)} if {@code If-None-Match} holds the current tag,
+     * or with status {@code 416 (Requested Range Not Satisfiable)} if the range starts past the end of the content,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping(path="/attachments/{id}")
-    public ResponseEntity<byte[]> getAttachmentById(@PathVariable Long id) {
-        log.debug("REST request to get Attachment: {}", id);
-        Optional<AttachmentDTO> attachmentDTOOptional = attachmentService.findOne(id);
+    public ResponseEntity<StreamingResponseBody> getAttachmentById(@PathVariable Long id,
+                                                                   @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                                   @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("REST request to get Attachment: {}, range: {}", id, range);
+        Optional<AttachmentMetadataDTO> attachmentDTOOptional = attachmentService.findMetadata(id);
         if (!attachmentDTOOptional.isPresent()) {
             return ResponseEntity.notFound()
                     .build();
         }
 
-        AttachmentDTO attachmentDTO = attachmentDTOOptional.get();
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + attachmentDTO.getFileName() + "\"")
-                .contentType(MediaType.valueOf(attachmentDTO.getFileType()))
-                .body(attachmentDTO.getData());
+        AttachmentMetadataDTO attachmentDTO = attachmentDTOOptional.get();
+        long contentLength = attachmentDTO.getFileSize();
+        HttpHeaders headers = new HttpHeaders();
+        String entityTag = attachmentDTO.getContentHash() != null
+                ? EntityTagUtil.toEntityTag(attachmentDTO.getContentHash()) : null;
+        if (entityTag != null) {
+            headers.setETag(entityTag);
+            if (EntityTagUtil.matchesIfNoneMatch(ifNoneMatch, entityTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .headers(headers)
+                        .build();
+            }
+        }
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + attachmentDTO.getFileName() + "\"");
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setContentType(attachmentDTO.getFileType() != null
+                ? MediaType.valueOf(attachmentDTO.getFileType()) : MediaType.APPLICATION_OCTET_STREAM);
+
+        // A range of another version of the content would be spliced into the client copy, the whole content is sent
+        HttpRange httpRange = ifRange == null || ifRange.trim().equals(entityTag) ? parseSingleRange(range) : null;
+        if (httpRange == null) {
+            headers.setContentLength(contentLength);
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(outputStream -> attachmentService.writeContent(id, 0, contentLength, outputStream));
+        }
+        long start = httpRange.getRangeStart(contentLength);
+        long end = httpRange.getRangeEnd(contentLength);
+        if (start >= contentLength || start > end) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + contentLength)
+                    .build();
+        }
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + contentLength);
+        headers.setContentLength(end - start + 1);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .headers(headers)
+                .body(outputStream -> attachmentService.writeContent(id, start, end - start + 1, outputStream));
     }
 
     /**
      * {@code GET  /attachments/site/:id} : get the site "id" of attachment.
      *
      * @param siteId the siteId of the attachmentDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the attachmentDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the attachmentDTOs without their binary content.
      */
     @GetMapping(path="/attachments/site/{siteId}")
-    public ResponseEntity<List<AttachmentDTO>> getAttachmentBySiteId(@PathVariable Long siteId) {
+    public ResponseEntity<List<AttachmentMetadataDTO>> getAttachmentBySiteId(@PathVariable Long siteId) {
         log.debug("REST request to get Attachment siteId: {}", siteId);
-        Optional<List<AttachmentDTO>> attachmentDTOOptional = attachmentService.findBySiteId(siteId);
+        Optional<List<AttachmentMetadataDTO>> attachmentDTOOptional = attachmentService.findBySiteId(siteId);
         if (!attachmentDTOOptional.isPresent()) {
             return ResponseEntity.notFound()
                     .build();
         }
 
-        List<AttachmentDTO> attachmentDTOs = attachmentDTOOptional.get();
+        List<AttachmentMetadataDTO> attachmentDTOs = attachmentDTOOptional.get();
         return ResponseEntity
                 .ok()
                 .body(attachmentDTOs);
@@ -111,18 +162,18 @@ public class AttachmentController {
      * {@code GET  /attachments/site/:id} : get the site "id" of attachment.
      *
      * @param siteId the siteId of the attachmentDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the attachmentDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the attachmentDTOs without their binary content.
      */
     @GetMapping(path="/attachments/site/{siteId}/criteria/{assessmentCriteriaId}")
-    public ResponseEntity<List<AttachmentDTO>> getAttachmentBySiteIdAndCriteriaId(@PathVariable Long siteId, @PathVariable Long assessmentCriteriaId) {
+    public ResponseEntity<List<AttachmentMetadataDTO>> getAttachmentBySiteIdAndCriteriaId(@PathVariable Long siteId, @PathVariable Long assessmentCriteriaId) {
         log.debug("REST request to get Attachment siteid: {}, assessmentCriteriaId: {}", siteId, assessmentCriteriaId);
-        Optional<List<AttachmentDTO>> attachmentDTOOptional = attachmentService.findBySiteIdAndAssessmentCriteriaId(siteId, assessmentCriteriaId);
+        Optional<List<AttachmentMetadataDTO>> attachmentDTOOptional = attachmentService.findBySiteIdAndAssessmentCriteriaId(siteId, assessmentCriteriaId);
         if (!attachmentDTOOptional.isPresent()) {
             return ResponseEntity.notFound()
                     .build();
         }
 
-        List<AttachmentDTO> attachmentDTOs = attachmentDTOOptional.get();
+        List<AttachmentMetadataDTO> attachmentDTOs = attachmentDTOOptional.get();
         return ResponseEntity
                 .ok()
                 .body(attachmentDTOs);
@@ -222,4 +273,47 @@ public class AttachmentController {
                 .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
                 .build();
     }
+
+    /**
+     * {@code POST  /attachments/storage/migrate} : move the contents of attachments from a store to another.
+     * Each content is moved in a transaction of its own, so a large migration is run in several calls.
+     *
+     * @param fromStorage the name of the store to move contents from.
+     * @param toStorage the name of the store to move contents to.
+     * @param limit the maximum number of contents to move in this call.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of moved contents,
+     * or with status {@code 400 (Bad Request)} if a store is not configured.
+     */
+    @PreAuthorize("hasAuthority('APPROLE_TechHealth_User_Admin')")
+    @PostMapping(path="/attachments/storage/migrate", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Integer> migrateAttachmentStorage(@RequestParam("from") String fromStorage,
+                                                            @RequestParam("to") String toStorage,
+                                                            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        log.debug("REST request to migrate at most {} AttachmentContents from storage: {} to storage: {}", limit, fromStorage, toStorage);
+        if (limit < 1 || limit > MAX_MIGRATION_SIZE) {
+            throw new BadRequestAlertException("A migration moves between 1 and " + MAX_MIGRATION_SIZE + " contents",
+                    ENTITY_NAME, "migrationlimit");
+        }
+        try {
+            return ResponseEntity.ok().body(attachmentContentService.migrateStorage(fromStorage, toStorage, limit));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "storagenotconfigured");
+        }
+    }
+
+    /**
+     * A malformed {@code Range} header is ignored, as well as several ranges, which would need a multipart response.
+     */
+    private static HttpRange parseSingleRange(String range) {
+        if (range == null) {
+            return null;
+        }
+        try {
+            List<HttpRange> httpRanges = HttpRange.parseRanges(range);
+            return httpRanges.size() == 1 ? httpRanges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring invalid Range header: {}", range);
+            return null;
+        }
+    }
 }
@@ -2,12 +2,14 @@ package com.mes.techdebt.web.rest.controller;
 
 import com.mes.techdebt.service.CostToFixService;
 import com.mes.techdebt.service.dto.CostToFixDTO;
+import com.mes.techdebt.web.rest.controller.utils.EntityTagUtil;
 import com.mes.techdebt.web.rest.errors.BadRequestAlertException;
 import com.mes.techdebt.domain.CostToFix;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -52,13 +54,15 @@ public class CostToFixController {
      * {@code GET  /cost-to-fixes/:id} : get the "id" costToFix.
      *
      * @param id the id of the costToFixDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the costToFixDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the costToFixDTO and its version
+     * as {@code ETag}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping(path="/cost-to-fixes/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<CostToFixDTO> getCostToFix(@PathVariable Long id) {
         log.debug("REST request to get CostToFix: {}", id);
         Optional<CostToFixDTO> costToFixDTO = costToFixService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(costToFixDTO);
+        return ResponseUtil.wrapOrNotFound(costToFixDTO, EntityTagUtil.withEntityTag(new HttpHeaders(),
+                costToFixDTO.map(CostToFixDTO::getVersion).orElse(null)));
     }
 
     /**
@@ -113,15 +117,19 @@ public class CostToFixController {
      * {@code PUT  /cost-to-fixes/:id} : Updates an existing costToFix.
      *
      * @param id the id of the costToFixDTO to save.
+     * @param ifMatch the {@code ETag} of the version that was read, to only update if it is still the current one.
      * @param costToFixDTO the costToFixDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated costToFixDTO,
      * or with status {@code 400 (Bad Request)} if the costToFixDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the costToFix was updated since the {@code If-Match} version,
      * or with status {@code 500 (Internal Server Error)} if the costToFixDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PreAuthorize("hasAuthority('APPROLE_TechHealth_User_Admin')")
     @PutMapping(path="/cost-to-fixes/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<CostToFixDTO> updateCostToFix(@PathVariable(value = "id", required = false) final Long id, @RequestBody CostToFixDTO costToFixDTO)
+    public ResponseEntity<CostToFixDTO> updateCostToFix(@PathVariable(value = "id", required = false) final Long id,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @RequestBody CostToFixDTO costToFixDTO)
             throws URISyntaxException {
         log.debug("REST request to update CostToFix : {}, {}", id, costToFixDTO);
 
@@ -159,12 +167,15 @@ public class CostToFixController {
             }
         }
 
+        // The If-Match version takes precedence over the version in the body
+        Optional.ofNullable(EntityTagUtil.parseIfMatch(ifMatch)).ifPresent(costToFixDTO::setVersion);
         CostToFixDTO result = costToFixService.update(costToFixDTO);
         return ResponseEntity
                 .ok()
-                .headers(
+                .headers(EntityTagUtil.withEntityTag(
                         HeaderUtil
-                                .createEntityUpdateAlert(applicationName, true, ENTITY_NAME, costToFixDTO.getId().toString()))
+                                .createEntityUpdateAlert(applicationName, true, ENTITY_NAME, costToFixDTO.getId().toString()),
+                        result.getVersion()))
                 .body(result);
     }
 
@@ -172,10 +183,12 @@ public class CostToFixController {
      * {@code PATCH  /cost-to-fixes/:id} : Partial updates given fields of an existing costToFix, field will ignore if it is null
      *
      * @param id the id of the costToFixDTO to save.
+     * @param ifMatch the {@code ETag} of the version that was read, to only update if it is still the current one.
      * @param costToFixDTO the costToFixDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated costToFixDTO,
      * or with status {@code 400 (Bad Request)} if the costToFixDTO is not valid,
      * or with status {@code 404 (Not Found)} if the costToFixDTO is not found,
+     * or with status {@code 412 (Precondition Failed)} if the costToFix was updated since the {@code If-Match} version,
      * or with status {@code 500 (Internal Server Error)} if the costToFixDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -183,6 +196,7 @@ public class CostToFixController {
     @PatchMapping(path = "/cost-to-fixes/{id}", consumes = { "application/json", "application/merge-patch+json" }, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<CostToFixDTO> partialUpdateCostToFix(
             @PathVariable(value = "id", required = false) final Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody CostToFixDTO costToFixDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update CostToFix partially : {}, {}", id, costToFixDTO);
@@ -220,12 +234,16 @@ public class CostToFixController {
             }
         }
 
+        // The If-Match version takes precedence over the version in the body
+        Optional.ofNullable(EntityTagUtil.parseIfMatch(ifMatch)).ifPresent(costToFixDTO::setVersion);
         Optional<CostToFixDTO> result = costToFixService.partialUpdate(costToFixDTO);
         log.debug("Saved result: {}", result.isPresent() ? result.get() : "No result");
 
         return ResponseUtil.wrapOrNotFound(
                 result,
-                HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, costToFixDTO.getId().toString())
+                EntityTagUtil.withEntityTag(
+                        HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, costToFixDTO.getId().toString()),
+                        result.map(CostToFixDTO::getVersion).orElse(null))
         );
     }
 
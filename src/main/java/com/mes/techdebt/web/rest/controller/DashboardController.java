@@ -1,21 +1,33 @@
 package com.mes.techdebt.web.rest.controller;
 
-import com.mes.techdebt.service.AssessmentResultService;
+import com.mes.techdebt.service.AssessmentHierarchyService;
 import com.mes.techdebt.service.DashboardService;
-import com.mes.techdebt.service.dto.AssessmentResultDTO;
+import com.mes.techdebt.service.dto.HierarchySnapshot;
+import com.mes.techdebt.service.dto.SiteDashboardSnapshot;
+import com.mes.techdebt.web.rest.controller.utils.EntityTagUtil;
 import com.mes.techdebt.web.rest.request.DashboardRequestDTO;
 import com.mes.techdebt.web.rest.request.DashboardResponseDTO;
 import com.mes.techdebt.web.rest.request.HierarchyResponseDTO;
+import com.mes.techdebt.web.rest.request.SiteRequestDTO;
+import com.mes.techdebt.web.rest.response.RegionDashboardResponseDTO;
 import com.mes.techdebt.domain.AssessmentResult;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -37,37 +49,133 @@ public class DashboardController {
     private static final String ENTITY_NAME = "dashboardData";
     @Value("${spring.application.name}")
     private String applicationName;
-    private final AssessmentResultService assessmentResultService;
     private final DashboardService dashboardService;
+    private final AssessmentHierarchyService assessmentHierarchyService;
+    private final ObjectMapper objectMapper;
 
     /**
      * {@code POST  /dashboard-data/site} : get the "dashboard-data" DashboardResponseDTO and attachments.
      *
      * @param dashboardRequest the request details to retrieve DashboardRequestDTO.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the assessmentResultDTO, or with status {@code 404 (Not Found)}.
+     * @param latestOnly whether each row should only hold its latest assessment result.
+     * @param webRequest the request, revalidated with {@code If-None-Match} against the site dashboard version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the dashboard rows, with status {@code 304 (Not Modified)} if the client copy is current, or with status {@code 204 (No Content)} if the site does not exist.
      */
     @PostMapping(path="/dashboard-data/site", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<DashboardResponseDTO>> getAssessmentResult(@Valid @RequestBody DashboardRequestDTO dashboardRequest) {
-        log.debug("REST request to get DashboardData by site: {}", dashboardRequest.getName());
-        Optional<List<AssessmentResultDTO>> assessmentResultDTOOptional = assessmentResultService.findBySiteName(dashboardRequest.getName());
+    public ResponseEntity<List<DashboardResponseDTO>> getAssessmentResult(@Valid @RequestBody DashboardRequestDTO dashboardRequest,
+                                                                          @RequestParam(required = false, defaultValue = "false") boolean latestOnly,
+                                                                          WebRequest webRequest) {
+        log.debug("REST request to get DashboardData by site: {}, latestOnly: {}", dashboardRequest.getName(), latestOnly);
+        // The version is taken before the rows, so an entity tag never stands for rows older than it
+        String representation = latestOnly ? "latest" : "all";
+        Optional<String> etag = dashboardService.getSiteDashboardVersion(dashboardRequest.getName())
+                .map(version -> toSiteDashboardETag(version, representation));
+        // Not WebRequest#checkNotModified, which answers a matching If-None-Match on a POST with 412 instead of 304
+        if (etag.isPresent() && EntityTagUtil.matchesIfNoneMatch(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH), etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+        }
 
-        if (!assessmentResultDTOOptional.isPresent())  return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        Optional<SiteDashboardSnapshot> siteDashboard = dashboardService.getSiteDashboard(dashboardRequest.getName());
 
-        List<DashboardResponseDTO> response = dashboardService.getAssessmentResult(dashboardRequest, assessmentResultDTOOptional.get());
+        if (!siteDashboard.isPresent())  return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
 
-        return ResponseEntity.ok().body(response);
+        // Tagged with the version of the served rows, the site may not have existed when the version above was read
+        return ResponseEntity.ok().eTag(toSiteDashboardETag(siteDashboard.get().getDashboardVersion(), representation))
+                .cacheControl(CacheControl.noCache())
+                .body(latestOnly ? siteDashboard.get().getLatestRows() : siteDashboard.get().getRows());
+    }
+
+    /**
+     * {@code POST  /dashboard-data/site} with {@code Accept: application/x-ndjson} : stream the "dashboard-data" rows
+     * of a site as newline delimited JSON, one hierarchy row per line.
+     * Every row is serialized and flushed on its own, so the whole response is never buffered.
+     *
+     * @param dashboardRequest the request details to retrieve DashboardRequestDTO.
+     * @param latestOnly whether each row should only hold its latest assessment result.
+     * @param webRequest the request, revalidated with {@code If-None-Match} against the site dashboard version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the streamed dashboard rows, with status {@code 304 (Not Modified)} if the client copy is current, or with status {@code 204 (No Content)} if the site does not exist.
+     */
+    @PostMapping(path="/dashboard-data/site", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAssessmentResult(@Valid @RequestBody DashboardRequestDTO dashboardRequest,
+                                                                        @RequestParam(required = false, defaultValue = "false") boolean latestOnly,
+                                                                        WebRequest webRequest) {
+        log.debug("REST request to stream DashboardData by site: {}, latestOnly: {}", dashboardRequest.getName(), latestOnly);
+        String representation = latestOnly ? "latest-ndjson" : "all-ndjson";
+        Optional<String> etag = dashboardService.getSiteDashboardVersion(dashboardRequest.getName())
+                .map(version -> toSiteDashboardETag(version, representation));
+        if (etag.isPresent() && EntityTagUtil.matchesIfNoneMatch(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH), etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+        }
+
+        Optional<SiteDashboardSnapshot> siteDashboard = dashboardService.getSiteDashboard(dashboardRequest.getName());
+
+        if (!siteDashboard.isPresent())  return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+
+        // The snapshot is immutable, so it can safely be written after the request thread has been released
+        List<DashboardResponseDTO> rows = latestOnly ? siteDashboard.get().getLatestRows() : siteDashboard.get().getRows();
+        ObjectWriter rowWriter = objectMapper.writerFor(DashboardResponseDTO.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = outputStream -> {
+            for (DashboardResponseDTO row : rows) {
+                rowWriter.writeValue(outputStream, row);
+                outputStream.write('\n');
+            }
+        };
+        return ResponseEntity.ok().eTag(toSiteDashboardETag(siteDashboard.get().getDashboardVersion(), representation))
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * {@code POST  /dashboard-data/region} : get the assessment score rollups of all sites of the given regions.
+     *
+     * @param siteRequest the regions of the sites.
+     * @param latestOnly whether only the latest assessment result per site and criteria should be counted.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the score rollups per region and per site.
+     */
+    @PostMapping(path="/dashboard-data/region", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RegionDashboardResponseDTO> getRegionDashboard(@Valid @RequestBody SiteRequestDTO siteRequest,
+                                                                         @RequestParam(required = false, defaultValue = "false") boolean latestOnly) {
+        log.debug("REST request to get DashboardData by regions: {}, latestOnly: {}", siteRequest.getRegion(), latestOnly);
+        return ResponseEntity.ok().body(dashboardService.getRegionDashboard(siteRequest.getRegion(), latestOnly));
+    }
+
+    /**
+     * {@code POST  /dashboard-data/site/rebuild} : discard and rebuild the precomputed dashboards of all sites.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of site dashboards rebuilt.
+     */
+    @PreAuthorize("hasAuthority('APPROLE_TechHealth_User_Admin')")
+    @PostMapping(path="/dashboard-data/site/rebuild", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Integer> rebuildSiteDashboards() {
+        log.debug("REST request to rebuild all site dashboards");
+        return ResponseEntity.ok().body(dashboardService.rebuildSiteDashboards());
     }
 
     /**
      * {@code GET  /dashboard-data/hierarchy} : get the "dashboard data" hierarchy.
+     * The hierarchy is served from memory with a strong {@code ETag}, so clients revalidating with {@code If-None-Match}
+     * get a {@code 304 (Not Modified)} while it is unchanged.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the assessmentResultDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the hierarchy, or with status {@code 304 (Not Modified)}.
      */
     @GetMapping(path="/dashboard-data/hierarchy", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<HierarchyResponseDTO>> getHierarchy(@RequestParam(required = false, defaultValue = "false") Optional<Boolean> isOnlyActive) {
+    public ResponseEntity<List<HierarchyResponseDTO>> getHierarchy(@RequestParam(required = false, defaultValue = "false") Optional<Boolean> isOnlyActive,
+                                                                   WebRequest webRequest) {
         log.debug("REST request to get Hierarchy for Filters");
-        List<HierarchyResponseDTO> response = dashboardService.getHierarchy(isOnlyActive);
-        return ResponseEntity.ok().body(response);
+        HierarchySnapshot hierarchySnapshot = assessmentHierarchyService.getSnapshot();
+        String etag = hierarchySnapshot.getEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        List<HierarchyResponseDTO> response = isOnlyActive.isPresent()
+                ? hierarchySnapshot.getActiveHierarchies() : hierarchySnapshot.getHierarchies();
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(response);
     }
 
+    private static String toSiteDashboardETag(String version, String representation) {
+        return "\"" + version + "-" + representation + "\"";
+    }
 }
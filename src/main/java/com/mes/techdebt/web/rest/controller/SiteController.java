@@ -3,6 +3,7 @@ package com.mes.techdebt.web.rest.controller;
 import com.mes.techdebt.service.InvestmentCriticalityService;
 import com.mes.techdebt.service.SiteService;
 import com.mes.techdebt.service.dto.SiteDTO;
+import com.mes.techdebt.web.rest.controller.utils.EntityTagUtil;
 import com.mes.techdebt.web.rest.errors.BadRequestAlertException;
 import com.mes.techdebt.web.rest.request.SiteRequestDTO;
 import com.mes.techdebt.web.rest.response.DashboardSiteAndCountryFilterDTO;
@@ -67,13 +68,15 @@ public class SiteController {
      * {@code GET  /sites/:id} : get the "id" site.
      *
      * @param id the id of the siteDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the siteDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the siteDTO and its version
+     * as {@code ETag}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping(path="/sites/{id}",produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<SiteDTO> getSite(@PathVariable Long id) {
         log.debug("REST request to get Site : {}", id);
         Optional<SiteDTO> siteDTO = siteService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(siteDTO);
+        return ResponseUtil.wrapOrNotFound(siteDTO, EntityTagUtil.withEntityTag(new HttpHeaders(),
+                siteDTO.map(SiteDTO::getVersion).orElse(null)));
     }
 
     @PostMapping(path="/region/sites",produces = MediaType.APPLICATION_JSON_VALUE)
@@ -129,15 +132,19 @@ public class SiteController {
      * {@code PUT  /sites/:id} : Updates an existing site.
      *
      * @param id the id of the siteDTO to save.
+     * @param ifMatch the {@code ETag} of the version that was read, to only update if it is still the current one.
      * @param siteDTO the siteDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated siteDTO,
      * or with status {@code 400 (Bad Request)} if the siteDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the site was updated since the {@code If-Match} version,
      * or with status {@code 500 (Internal Server Error)} if the siteDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PreAuthorize("hasAuthority('APPROLE_TechHealth_User_Admin')")
     @PutMapping(path="/sites/{id}",produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<SiteDTO> updateSite(@PathVariable(value = "id", required = false) final Long id, @RequestBody SiteDTO siteDTO)
+    public ResponseEntity<SiteDTO> updateSite(@PathVariable(value = "id", required = false) final Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestBody SiteDTO siteDTO)
             throws URISyntaxException {
         log.debug("REST request to update Site : {}, {}", id, siteDTO);
 
@@ -158,12 +165,15 @@ public class SiteController {
             }
         }
 
+        // The If-Match version takes precedence over the version in the body
+        Optional.ofNullable(EntityTagUtil.parseIfMatch(ifMatch)).ifPresent(siteDTO::setVersion);
         SiteDTO result = siteService.update(siteDTO);
         return ResponseEntity
                 .ok()
-                .headers(
+                .headers(EntityTagUtil.withEntityTag(
                         HeaderUtil
-                                .createEntityUpdateAlert(applicationName, true, ENTITY_NAME, siteDTO.getId().toString()))
+                                .createEntityUpdateAlert(applicationName, true, ENTITY_NAME, siteDTO.getId().toString()),
+                        result.getVersion()))
                 .body(result);
     }
 
@@ -171,10 +181,12 @@ public class SiteController {
      * {@code PATCH  /sites/:id} : Partial updates given fields of an existing site, field will ignore if it is null
      *
      * @param id the id of the siteDTO to save.
+     * @param ifMatch the {@code ETag} of the version that was read, to only update if it is still the current one.
      * @param siteDTO the siteDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated siteDTO,
      * or with status {@code 400 (Bad Request)} if the siteDTO is not valid,
      * or with status {@code 404 (Not Found)} if the siteDTO is not found,
+     * or with status {@code 412 (Precondition Failed)} if the site was updated since the {@code If-Match} version,
      * or with status {@code 500 (Internal Server Error)} if the siteDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -182,6 +194,7 @@ public class SiteController {
     @PatchMapping(path = "/sites/{id}", consumes = { "application/json", "application/merge-patch+json" }, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<SiteDTO> partialUpdateSite(
             @PathVariable(value = "id", required = false) final Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody SiteDTO siteDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update Site partially : {}, {}", id, siteDTO);
@@ -202,11 +215,15 @@ public class SiteController {
             }
         }
 
+        // The If-Match version takes precedence over the version in the body
+        Optional.ofNullable(EntityTagUtil.parseIfMatch(ifMatch)).ifPresent(siteDTO::setVersion);
         Optional<SiteDTO> result = siteService.partialUpdate(siteDTO);
 
         return ResponseUtil.wrapOrNotFound(
                 result,
-                HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, siteDTO.getId().toString())
+                EntityTagUtil.withEntityTag(
+                        HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, siteDTO.getId().toString()),
+                        result.map(SiteDTO::getVersion).orElse(null))
         );
     }
 
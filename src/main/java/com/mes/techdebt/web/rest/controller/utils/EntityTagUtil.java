@@ -0,0 +1,95 @@
+package com.mes.techdebt.web.rest.controller.utils;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Utility class for the entity tags of versioned entities, used for conditional updates with {@code If-Match}.
+ * The tag of an entity is its version in quotes, such as {@code "3"}.
+ * <p>
+ * Downloaded contents are tagged with their hash instead, used for conditional downloads with {@code If-None-Match}
+ * and {@code If-Range}.
+ */
+public final class EntityTagUtil {
+
+    private static final String ANY = "*";
+
+    /**
+     * @param version the version of the entity.
+     * @return the strong entity tag of the version.
+     */
+    public static String toEntityTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * @param hash the hash of a content.
+     * @return the strong entity tag of the content.
+     */
+    public static String toEntityTag(String hash) {
+        return "\"" + hash + "\"";
+    }
+
+    /**
+     * Weak comparison of the {@code If-None-Match} header to the current tag, as the header may hold weak tags.
+     *
+     * @param ifNoneMatch the {@code If-None-Match} header of the request, if any.
+     * @param entityTag the current entity tag.
+     * @return whether the client holds the current representation already.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String entityTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmedTag = tag.trim();
+            if (trimmedTag.startsWith("W/")) {
+                trimmedTag = trimmedTag.substring(2);
+            }
+            if (trimmedTag.equals(ANY) || trimmedTag.equals(entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add the entity tag of a version to response headers.
+     *
+     * @param headers the headers of the response.
+     * @param version the version of the entity in the response, or {@code null} to leave the headers unchanged.
+     * @return the headers.
+     */
+    public static HttpHeaders withEntityTag(HttpHeaders headers, Long version) {
+        if (version != null) {
+            headers.setETag(toEntityTag(version));
+        }
+        return headers;
+    }
+
+    /**
+     * Read the version an update is conditional on.
+     *
+     * @param ifMatch the {@code If-Match} header of the request, if any.
+     * @return the expected version, or {@code null} if the update is unconditional ({@code If-Match: *} included).
+     * @throws ResponseStatusException with status {@code 412 (Precondition Failed)} if the header is not a single tag
+     * returned by this API, as it cannot match the current version.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals(ANY)) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Not one of our tags, so it cannot match
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match the current version");
+    }
+
+    private EntityTagUtil() {}
+}
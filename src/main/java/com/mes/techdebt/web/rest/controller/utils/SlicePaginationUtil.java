@@ -0,0 +1,73 @@
+package com.mes.techdebt.web.rest.controller.utils;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for handling pagination of listings that are not counted.
+ * Same {@code Link} header format as {@link tech.jhipster.web.util.PaginationUtil}, without the total count and the
+ * last page, which both need a {@code count(*)}.
+ */
+public final class SlicePaginationUtil {
+
+    public static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
+    /**
+     * Generate pagination headers for a Spring Data {@link Slice} object.
+     *
+     * @param uriBuilder the current request uri.
+     * @param slice the slice.
+     * @return http headers linking to the previous and next pages, when they exist.
+     */
+    public static <T> HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice) {
+        int pageNumber = slice.getNumber();
+        int pageSize = slice.getSize();
+        List<String> links = new ArrayList<>();
+        if (slice.hasNext()) {
+            links.add(link(preparePageUri(uriBuilder, pageNumber + 1, pageSize), "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(link(preparePageUri(uriBuilder, pageNumber - 1, pageSize), "prev"));
+        }
+        links.add(link(preparePageUri(uriBuilder, 0, pageSize), "first"));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, String.join(",", links));
+        return headers;
+    }
+
+    /**
+     * Generate pagination headers for a page read after a cursor.
+     *
+     * @param uriBuilder the current request uri.
+     * @param nextCursor the token to read the next page with, or {@code null} on the last page.
+     * @return http headers holding the next cursor and linking to the next page, when it exists.
+     */
+    public static HttpHeaders generateCursorHttpHeaders(UriComponentsBuilder uriBuilder, String nextCursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            headers.add(HEADER_NEXT_CURSOR, nextCursor);
+            headers.add(HttpHeaders.LINK, link(uriBuilder.replaceQueryParam("after", nextCursor)
+                    .replaceQueryParam("page").toUriString(), "next"));
+        }
+        return headers;
+    }
+
+    private static String preparePageUri(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize) {
+        return uriBuilder.replaceQueryParam("page", Integer.toString(pageNumber))
+                .replaceQueryParam("size", Integer.toString(pageSize))
+                .toUriString()
+                .replace(",", "%2C")
+                .replace(";", "%3B");
+    }
+
+    private static String link(String uri, String rel) {
+        return "<" + uri + ">; rel=\"" + rel + "\"";
+    }
+
+    private SlicePaginationUtil() {}
+}
@@ -0,0 +1,38 @@
+package com.mes.techdebt.web.rest.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.Set;
+
+/**
+ * A DTO for filtering assessment results. Every criterion is optional and the given ones are combined with "and".
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AssessmentResultFilterDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 7384520593381062281L;
+
+    private Set<Long> siteIds;
+    private Set<String> regions;
+    private Set<Long> recommendationStatusIds;
+    private Double minScore;
+    private Double maxScore;
+    private Long assessmentCriteriaId;
+    private Long categoryId;
+    private Long techAreaId;
+    private Long techDomainId;
+    /**
+     * Inclusive lower bound of the update date.
+     */
+    private OffsetDateTime updatedFrom;
+    /**
+     * Exclusive upper bound of the update date.
+     */
+    private OffsetDateTime updatedTo;
+}
@@ -14,7 +14,7 @@ import java.util.List;
  * A DTO for the dashboard data request response.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class DashboardResponseDTO implements Serializable {
 
@@ -0,0 +1,62 @@
+package com.mes.techdebt.web.rest.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.Set;
+
+/**
+ * A DTO for the score history of sites, regions or a hierarchy node. Filters left empty are not applied.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ScoreHistoryRequestDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 5406117263328841739L;
+
+    public static final String INTERVAL_DAY = "DAY";
+    public static final String INTERVAL_WEEK = "WEEK";
+    public static final String INTERVAL_MONTH = "MONTH";
+
+    public static final String HIERARCHY_LEVEL_TECH_DOMAIN = "TECH_DOMAIN";
+    public static final String HIERARCHY_LEVEL_TECH_AREA = "TECH_AREA";
+    public static final String HIERARCHY_LEVEL_CATEGORY = "CATEGORY";
+    public static final String HIERARCHY_LEVEL_ASSESSMENT_CRITERIA = "ASSESSMENT_CRITERIA";
+
+    @NotNull
+    @Pattern(regexp = INTERVAL_DAY + "|" + INTERVAL_WEEK + "|" + INTERVAL_MONTH)
+    private String interval;
+    /**
+     * Inclusive lower bound of the update date.
+     */
+    @NotNull
+    private OffsetDateTime from;
+    /**
+     * Exclusive upper bound of the update date, now if empty.
+     */
+    private OffsetDateTime to;
+    private Set<Long> siteIds;
+    private Set<String> regions;
+    /**
+     * One of the {@code HIERARCHY_LEVEL_*} constants, given together with {@link #hierarchyId}.
+     */
+    @Pattern(regexp = HIERARCHY_LEVEL_TECH_DOMAIN + "|" + HIERARCHY_LEVEL_TECH_AREA + "|"
+            + HIERARCHY_LEVEL_CATEGORY + "|" + HIERARCHY_LEVEL_ASSESSMENT_CRITERIA)
+    private String hierarchyLevel;
+    private Long hierarchyId;
+
+    /**
+     * Whether the hierarchy level and id are either both given or both left empty.
+     */
+    @JsonIgnore
+    public boolean isHierarchyFilterComplete() {
+        return (hierarchyLevel == null) == (hierarchyId == null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.mes.techdebt.web.rest.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * A DTO for score rollup request.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ScoreRollupRequestDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2817366083447905614L;
+
+    @NotEmpty
+    private Set<Long> siteIds;
+}
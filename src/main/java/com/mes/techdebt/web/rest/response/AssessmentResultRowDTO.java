@@ -0,0 +1,42 @@
+package com.mes.techdebt.web.rest.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+/**
+ * An assessment result flattened with the names of its site and recommendation status, for filtered listings
+ * and exports. The property order is the column order of the exported files.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"id", "score", "recommendationText", "updateDate", "updatedBy", "siteId", "siteName", "region",
+        "assessmentCriteriaId", "categoryId", "techAreaId", "techDomainId", "recommendationStatusId",
+        "recommendationStatusDescription"})
+public class AssessmentResultRowDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -1829566215720485529L;
+
+    private Long id;
+    private Double score;
+    private String recommendationText;
+    private OffsetDateTime updateDate;
+    private String updatedBy;
+    private Long siteId;
+    private String siteName;
+    private String region;
+    private Long assessmentCriteriaId;
+    private Long categoryId;
+    private Long techAreaId;
+    private Long techDomainId;
+    private Long recommendationStatusId;
+    private String recommendationStatusDescription;
+}
@@ -0,0 +1,39 @@
+package com.mes.techdebt.web.rest.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * The outcome of one item of a bulk write.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkItemResultDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -4405519163276000617L;
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String REJECTED = "REJECTED";
+
+    /**
+     * Position of the item in the request.
+     */
+    private int index;
+    private Long id;
+    /**
+     * One of {@code CREATED}, {@code UPDATED} or {@code REJECTED}.
+     */
+    private String status;
+    /**
+     * Why the item was rejected.
+     */
+    private String error;
+}
@@ -25,6 +25,7 @@ public class DashboardAttachmentListDTO implements Serializable {
     private String fileName;
     private String fileType;
     private Long fileSize;
+    private Long assessmentCriteriaId;
     private OffsetDateTime updateDate;
     private String updatedBy;
 }
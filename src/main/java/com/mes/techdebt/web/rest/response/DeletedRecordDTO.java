@@ -0,0 +1,30 @@
+package com.mes.techdebt.web.rest.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+/**
+ * An assessment result or attachment deleted from a site.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DeletedRecordDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2315306781749480537L;
+
+    /**
+     * Either {@code assessmentResult} or {@code attachment}.
+     */
+    private String entityName;
+    private Long id;
+    private Long assessmentCriteriaId;
+    private OffsetDateTime deleteDate;
+}
@@ -0,0 +1,46 @@
+package com.mes.techdebt.web.rest.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Assessment score rollup of a set of sites over all results, or of one tech domain, tech area or category.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class HierarchyScoreRollupDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -6530791853390287147L;
+
+    public static final String LEVEL_TOTAL = "TOTAL";
+    public static final String LEVEL_TECH_DOMAIN = "TECH_DOMAIN";
+    public static final String LEVEL_TECH_AREA = "TECH_AREA";
+    public static final String LEVEL_CATEGORY = "CATEGORY";
+
+    /**
+     * One of {@code TOTAL}, {@code TECH_DOMAIN}, {@code TECH_AREA} or {@code CATEGORY}.
+     */
+    private String level;
+    private Long id;
+    private String description;
+    /**
+     * Id of the tech domain of a tech area, or of the tech area of a category.
+     */
+    private Long parentId;
+    private long resultCount;
+    private long scoreCount;
+    private Double averageScore;
+    private Double minScore;
+    private Double maxScore;
+    /**
+     * Score of the most recently updated scored result.
+     */
+    private Double latestScore;
+}
@@ -0,0 +1,37 @@
+package com.mes.techdebt.web.rest.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Number of assessment results using one tech domain, tech area, category or assessment criteria.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class HierarchyUsageCountDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2870317426014528841L;
+
+    public static final String LEVEL_TECH_DOMAIN = "TECH_DOMAIN";
+    public static final String LEVEL_TECH_AREA = "TECH_AREA";
+    public static final String LEVEL_CATEGORY = "CATEGORY";
+    public static final String LEVEL_ASSESSMENT_CRITERIA = "ASSESSMENT_CRITERIA";
+
+    /**
+     * One of {@code TECH_DOMAIN}, {@code TECH_AREA}, {@code CATEGORY} or {@code ASSESSMENT_CRITERIA}.
+     */
+    private String level;
+    private Long id;
+    /**
+     * Id of the tech domain of a tech area, of the tech area of a category, or of the category of a criteria.
+     */
+    private Long parentId;
+    private long resultCount;
+}
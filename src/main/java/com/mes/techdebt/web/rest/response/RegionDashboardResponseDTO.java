@@ -0,0 +1,25 @@
+package com.mes.techdebt.web.rest.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Assessment score rollups of a set of regions, per region and per site.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RegionDashboardResponseDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -6094627427071569357L;
+
+    private List<RegionScoreRollupDTO> regions;
+    private List<SiteScoreRollupDTO> sites;
+}
@@ -0,0 +1,28 @@
+package com.mes.techdebt.web.rest.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Assessment score rollups of all sites of one region by tech domain, tech area and category.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RegionScoreRollupDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 7806426151470961178L;
+
+    private String region;
+    private int siteCount;
+    private List<ScoreRollupDTO> domains;
+    private List<ScoreRollupDTO> techAreas;
+    private List<ScoreRollupDTO> categories;
+}
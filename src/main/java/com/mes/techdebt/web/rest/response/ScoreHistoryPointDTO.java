@@ -0,0 +1,35 @@
+package com.mes.techdebt.web.rest.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * Assessment results updated within one day, week or month.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ScoreHistoryPointDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2395716820460378173L;
+
+    /**
+     * Start of the day, week or month.
+     */
+    private OffsetDateTime bucket;
+    private long resultCount;
+    private long scoreCount;
+    private Double averageScore;
+    /**
+     * Result count per recommendation status id, results without status left out.
+     */
+    private Map<Long, Long> recommendationStatusCounts;
+}
@@ -0,0 +1,31 @@
+package com.mes.techdebt.web.rest.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Assessment score rollup of one tech domain, tech area or category.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ScoreRollupDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4213873364591785716L;
+
+    private Long id;
+    private String description;
+    /**
+     * Id of the tech domain of a tech area, or of the tech area of a category.
+     */
+    private Long parentId;
+    private long resultCount;
+    private long scoreCount;
+    private Double averageScore;
+}
@@ -0,0 +1,33 @@
+package com.mes.techdebt.web.rest.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.mes.techdebt.service.dto.AssessmentResultDTO;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * The assessment results and attachments of a site created, updated or deleted since a given date.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SiteChangesResponseDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -1739870125582283714L;
+
+    private Long siteId;
+    /**
+     * The date to pass as {@code since} on the next sync.
+     */
+    private OffsetDateTime watermark;
+    private List<AssessmentResultDTO> assessmentResults;
+    private List<DashboardAttachmentListDTO> attachments;
+    private List<DeletedRecordDTO> deleted;
+}
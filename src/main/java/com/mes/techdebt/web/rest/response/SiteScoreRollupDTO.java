@@ -0,0 +1,29 @@
+package com.mes.techdebt.web.rest.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Assessment score rollups of one site by tech domain, tech area and category.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SiteScoreRollupDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2260553590947013946L;
+
+    private Long siteId;
+    private String siteName;
+    private String region;
+    private List<ScoreRollupDTO> domains;
+    private List<ScoreRollupDTO> techAreas;
+    private List<ScoreRollupDTO> categories;
+}
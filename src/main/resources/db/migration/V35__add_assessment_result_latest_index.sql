@@ -0,0 +1,3 @@
+--Supports ranking the assessment results of a site per criteria to read the latest one
+CREATE INDEX IF NOT EXISTS idx_assessment_result_site_criteria_update_date
+    ON public.assessment_result (site_id, assessment_criteria_id, update_date DESC, id DESC);
@@ -0,0 +1,20 @@
+-- Records deleted assessment results and attachments, so sites can be synced since a given date
+CREATE TABLE IF NOT EXISTS public.tombstone (
+    id BIGINT NOT NULL,
+    entity_name VARCHAR(255) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    site_id BIGINT NOT NULL,
+    assessment_criteria_id BIGINT,
+    delete_date TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_tombstone_site_delete_date
+    ON public.tombstone (site_id, delete_date);
+
+-- Supports reading what changed on a site since a given date
+CREATE INDEX IF NOT EXISTS idx_assessment_result_site_update_date
+    ON public.assessment_result (site_id, update_date);
+
+CREATE INDEX IF NOT EXISTS idx_attachment_site_update_date
+    ON public.attachment (site_id, update_date);
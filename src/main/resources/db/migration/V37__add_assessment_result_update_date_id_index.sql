@@ -0,0 +1,3 @@
+-- Supports reading all the assessment results page by page, most recently updated first, after a cursor
+CREATE INDEX IF NOT EXISTS idx_assessment_result_update_date_id
+    ON public.assessment_result (update_date DESC, id DESC);
@@ -0,0 +1,28 @@
+-- Copies of the hierarchy of the assessment criteria, to filter and count results without joining the hierarchy
+ALTER TABLE public.assessment_result ADD COLUMN IF NOT EXISTS category_id BIGINT;
+ALTER TABLE public.assessment_result ADD COLUMN IF NOT EXISTS tech_area_id BIGINT;
+ALTER TABLE public.assessment_result ADD COLUMN IF NOT EXISTS tech_domain_id BIGINT;
+
+UPDATE public.assessment_result SET
+    category_id = (SELECT assessment_criteria.category_id FROM public.assessment_criteria
+                   WHERE assessment_criteria.id = assessment_result.assessment_criteria_id),
+    tech_area_id = (SELECT category.tech_area_id FROM public.assessment_criteria
+                    JOIN public.category ON category.id = assessment_criteria.category_id
+                    WHERE assessment_criteria.id = assessment_result.assessment_criteria_id),
+    tech_domain_id = (SELECT tech_area.domain_id FROM public.assessment_criteria
+                      JOIN public.category ON category.id = assessment_criteria.category_id
+                      JOIN public.tech_area ON tech_area.id = category.tech_area_id
+                      WHERE assessment_criteria.id = assessment_result.assessment_criteria_id);
+
+-- Counting the results of one node of the hierarchy only reads its index
+CREATE INDEX IF NOT EXISTS idx_assessment_result_assessment_criteria
+    ON public.assessment_result (assessment_criteria_id);
+
+CREATE INDEX IF NOT EXISTS idx_assessment_result_category
+    ON public.assessment_result (category_id);
+
+CREATE INDEX IF NOT EXISTS idx_assessment_result_tech_area
+    ON public.assessment_result (tech_area_id);
+
+CREATE INDEX IF NOT EXISTS idx_assessment_result_tech_domain
+    ON public.assessment_result (tech_domain_id);
@@ -0,0 +1,9 @@
+-- Supports filtering assessment results by region, recommendation status and score, most recently updated first
+CREATE INDEX IF NOT EXISTS idx_site_region
+    ON public.site (region);
+
+CREATE INDEX IF NOT EXISTS idx_assessment_result_status_update_date
+    ON public.assessment_result (recommendation_status_id, update_date);
+
+CREATE INDEX IF NOT EXISTS idx_assessment_result_site_score
+    ON public.assessment_result (site_id, score);
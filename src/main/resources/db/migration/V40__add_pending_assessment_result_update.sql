@@ -0,0 +1,8 @@
+-- Partial updates of assessment results acknowledged before being applied, when write-behind is enabled
+CREATE TABLE IF NOT EXISTS public.pending_assessment_result_update (
+    id BIGINT NOT NULL,
+    assessment_result_id BIGINT NOT NULL,
+    payload VARCHAR(10000) NOT NULL,
+    create_date TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id)
+);
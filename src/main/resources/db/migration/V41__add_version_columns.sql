@@ -0,0 +1,6 @@
+-- Optimistic locking of the entities edited concurrently, existing rows start at version 0
+ALTER TABLE public.assessment_result ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE public.cost_to_fix ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE public.site ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
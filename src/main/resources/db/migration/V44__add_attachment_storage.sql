@@ -0,0 +1,7 @@
+-- Store holding the content of an attachment, existing contents stay in attachment.data
+ALTER TABLE public.attachment ADD COLUMN IF NOT EXISTS storage VARCHAR(50) NOT NULL DEFAULT 'database';
+
+-- Key of the content in its store, the SHA-256 of the content for the file system store
+ALTER TABLE public.attachment ADD COLUMN IF NOT EXISTS content_key VARCHAR(255);
+
+CREATE INDEX IF NOT EXISTS ix_attachment_storage_content_key ON public.attachment (storage, content_key);
@@ -0,0 +1,22 @@
+-- Contents of the attachments, stored once per SHA-256 and shared by the attachments of identical files
+CREATE TABLE IF NOT EXISTS public.attachment_content (
+    id BIGINT NOT NULL,
+    hash VARCHAR(64) NOT NULL,
+    storage VARCHAR(50) NOT NULL,
+    content_key VARCHAR(255),
+    length BIGINT NOT NULL,
+    reference_count INTEGER NOT NULL,
+    data BYTEA,
+    create_date TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id),
+    CONSTRAINT ux_attachment_content_hash UNIQUE (hash)
+);
+
+CREATE INDEX IF NOT EXISTS ix_attachment_content_storage ON public.attachment_content (storage);
+
+ALTER TABLE public.attachment ADD COLUMN IF NOT EXISTS content_id BIGINT;
+
+ALTER TABLE public.attachment ADD CONSTRAINT fk_attachment_content_id
+    FOREIGN KEY (content_id) REFERENCES public.attachment_content (id);
+
+CREATE INDEX IF NOT EXISTS ix_attachment_content_id ON public.attachment (content_id);
@@ -0,0 +1,8 @@
+-- Contents are held by attachment_content, see V45
+DROP INDEX IF EXISTS public.ix_attachment_storage_content_key;
+
+ALTER TABLE public.attachment DROP COLUMN IF EXISTS data;
+
+ALTER TABLE public.attachment DROP COLUMN IF EXISTS storage;
+
+ALTER TABLE public.attachment DROP COLUMN IF EXISTS content_key;
@@ -0,0 +1,7 @@
+-- Counts the committed changes of each site and of the hierarchy, so every application instance can tell whether the
+-- views it keeps in memory are still current
+CREATE TABLE IF NOT EXISTS public.change_counter (
+    name VARCHAR(100) NOT NULL,
+    change_count BIGINT NOT NULL,
+    PRIMARY KEY (name)
+);
@@ -0,0 +1,5 @@
+-- Results are listed, paged and ranked by update date, which every write sets. Results left without one get their
+-- create date, so no result sorts apart from the others.
+UPDATE public.assessment_result SET update_date = COALESCE(create_date, CURRENT_TIMESTAMP) WHERE update_date IS NULL;
+
+ALTER TABLE public.assessment_result ALTER COLUMN update_date SET NOT NULL;
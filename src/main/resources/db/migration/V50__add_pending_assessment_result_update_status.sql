@@ -0,0 +1,6 @@
+-- Queued updates keep the version they were made against, and failed updates are set aside instead of blocking the queue
+ALTER TABLE IF EXISTS public.pending_assessment_result_update ADD COLUMN expected_version BIGINT;
+ALTER TABLE IF EXISTS public.pending_assessment_result_update ADD COLUMN status VARCHAR(20) DEFAULT 'PENDING' NOT NULL;
+ALTER TABLE IF EXISTS public.pending_assessment_result_update ADD COLUMN attempt_count INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE IF EXISTS public.pending_assessment_result_update ADD COLUMN last_error VARCHAR(1000);
+CREATE INDEX IF NOT EXISTS ix_pending_assessment_result_update_status ON public.pending_assessment_result_update (status, id);
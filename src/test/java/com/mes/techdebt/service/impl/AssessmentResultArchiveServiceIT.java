@@ -0,0 +1,141 @@
+package com.mes.techdebt.service.impl;
+
+import com.mes.techdebt.IntegrationTest;
+import com.mes.techdebt.domain.*;
+import com.mes.techdebt.repository.*;
+import com.mes.techdebt.service.AssessmentResultArchiveService;
+import com.mes.techdebt.service.event.DashboardChangedEvent;
+import com.mes.techdebt.web.rest.controller.utils.TestUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link AssessmentResultArchiveService}.
+ * <p>
+ * The table is only partitioned on PostgreSQL, so these tests only run against a PostgreSQL database, given with
+ * {@code -Dspring.datasource.url=jdbc:postgresql://...} and its username and password.
+ */
+@IntegrationTest
+@EnabledIfSystemProperty(named = "spring.datasource.url", matches = "jdbc:postgresql:.*")
+@TestPropertySource(properties = "spring.flyway.locations=classpath:db/migration,classpath:db/vendor/{vendor}")
+@RecordApplicationEvents
+@Transactional
+class AssessmentResultArchiveServiceIT {
+
+    @Autowired
+    private AssessmentResultArchiveService assessmentResultArchiveService;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Autowired
+    private InvestmentCriticalityRepository investmentCriticalityRepository;
+    @Autowired
+    private RecommendationStatusRepository recommendationStatusRepository;
+    @Autowired
+    private AssessmentCriteriaRepository assessmentCriteriaRepository;
+    @Autowired
+    private SiteRepository siteRepository;
+    @Autowired
+    private AssessmentResultRepository assessmentResultRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private TechAreaRepository techAreaRepository;
+    @Autowired
+    private TechDomainRepository techDomainRepository;
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    private Site site;
+    private RecommendationStatus recommendationStatus;
+    private AssessmentCriteria assessmentCriteria;
+
+    @BeforeEach
+    void setUp() {
+        InvestmentCriticality investmentCriticality = investmentCriticalityRepository.saveAndFlush(
+                TestUtil.createInvestmentCriticalityEntity(TestUtil.DEFAULT_INVESTMENT_CRITICALITY));
+        TechDomain techDomain = techDomainRepository.saveAndFlush(
+                TestUtil.createTechDomainEntity(TestUtil.DEFAULT_DOMAIN_DESCRIPTION, TestUtil.DEFAULT_ACTIVE_FLAG));
+        TechArea techArea = techAreaRepository.saveAndFlush(
+                TestUtil.createTechAreaEntity(techDomain, TestUtil.DEFAULT_TECH_AREA_DESCRIPTION, TestUtil.DEFAULT_ACTIVE_FLAG));
+        Category category = categoryRepository.saveAndFlush(
+                TestUtil.createCategoryEntity(techArea, TestUtil.DEFAULT_CATEGORY_DESCRIPTION, TestUtil.DEFAULT_ACTIVE_FLAG));
+        assessmentCriteria = assessmentCriteriaRepository.saveAndFlush(
+                TestUtil.createAssessmentCriteriaEntity(category, TestUtil.DEFAULT_CRITERIA_DESCRIPTION, TestUtil.DEFAULT_ACTIVE_FLAG));
+        site = siteRepository.saveAndFlush(
+                TestUtil.createSiteEntity(investmentCriticality, TestUtil.DEFAULT_SITE_NAME, TestUtil.DEFAULT_MDM_SITE_ID));
+        recommendationStatus = recommendationStatusRepository.saveAndFlush(
+                TestUtil.createRecommendationStatusEntity(TestUtil.DEFAULT_RECOMMENDATION_STATUS));
+    }
+
+    @Test
+    void createUpcomingPartitions() {
+        int currentYear = Year.now(ZoneOffset.UTC).getValue();
+
+        assessmentResultArchiveService.createUpcomingPartitions();
+        assertThat(assessmentResultRepository.findPartitionYears()).contains(currentYear, currentYear + 1);
+
+        // Existing partitions are kept
+        assessmentResultArchiveService.createUpcomingPartitions();
+        assertThat(assessmentResultRepository.findPartitionYears()).containsOnlyOnce(currentYear, currentYear + 1);
+    }
+
+    @Test
+    void archiveBefore() {
+        int archivedYear = Year.now(ZoneOffset.UTC).getValue() - 5;
+        assessmentResultRepository.createPartition(archivedYear);
+        AssessmentResult supersededResult = saveResultUpdatedAt(archivedYear + "-06-01T12:00:00Z");
+        AssessmentResult latestResult = saveResultUpdatedAt(archivedYear + "-07-01T12:00:00Z");
+
+        Instant cutoff = ZonedDateTime.of(archivedYear + 2, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toInstant();
+        assertThat(assessmentResultArchiveService.archiveBefore(cutoff)).isEqualTo(1);
+        entityManager.clear();
+
+        // The latest result stays, so the partition is kept
+        assertThat(assessmentResultRepository.findById(supersededResult.getId())).isEmpty();
+        assertThat(assessmentResultRepository.findById(latestResult.getId())).isPresent();
+        assertThat(assessmentResultRepository.findPartitionYears()).contains(archivedYear);
+        Number archivedCount = (Number) entityManager
+                .createNativeQuery("select count(*) from assessment_result_archive where id = :id")
+                .setParameter("id", supersededResult.getId())
+                .getSingleResult();
+        assertThat(archivedCount.longValue()).isEqualTo(1);
+
+        // Recorded as a deletion for the clients and the dashboards
+        assertThat(tombstoneRepository.findBySiteIdAndDeleteDateAfterOrderByDeleteDate(site.getId(), Timestamp.from(Instant.EPOCH)))
+                .extracting(Tombstone::getEntityId)
+                .containsExactly(supersededResult.getId());
+        assertThat(applicationEvents.stream(DashboardChangedEvent.class))
+                .anyMatch(event -> site.getId().equals(event.getSiteId())
+                        && assessmentCriteria.getId().equals(event.getAssessmentCriteriaId()));
+    }
+
+    private AssessmentResult saveResultUpdatedAt(String updateDate) {
+        AssessmentResult assessmentResult = assessmentResultRepository.saveAndFlush(TestUtil.createAssessmentResultEntity(
+                recommendationStatus, assessmentCriteria, site, TestUtil.DEFAULT_ASSESSMENT_RESULT_RECOMMENDATION_TEXT));
+        // Moves the result to the partition of that year
+        entityManager.createNativeQuery("update assessment_result set update_date = cast(:updateDate as timestamp with time zone) where id = :id")
+                .setParameter("updateDate", updateDate)
+                .setParameter("id", assessmentResult.getId())
+                .executeUpdate();
+        return assessmentResult;
+    }
+}
@@ -0,0 +1,141 @@
+package com.mes.techdebt.service.impl;
+
+import com.carrotsearch.hppc.LongObjectMap;
+import com.mes.techdebt.service.dto.AssessmentCriteriaDTO;
+import com.mes.techdebt.service.dto.AssessmentResultDTO;
+import com.mes.techdebt.service.dto.CategoryDTO;
+import com.mes.techdebt.service.dto.TechAreaDTO;
+import com.mes.techdebt.service.dto.TechDomainDTO;
+import com.mes.techdebt.web.rest.request.HierarchyResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares grouping the assessment results of a dashboard by hierarchy description keys with grouping them by
+ * primitive assessment criteria id, for a single site holding every row of {@code db/data/assessmentResult.csv}.
+ * <p>
+ * Run {@link #main(String[])} from the test classpath after {@code mvn test-compile}; the GC profiler reports the
+ * allocation rate ({@code gc.alloc.rate.norm}) next to the average latency.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardGroupingBenchmark {
+
+    private static final String ASSESSMENT_RESULT_CSV = "db/data/assessmentResult.csv";
+
+    private List<AssessmentResultDTO> assessmentResults;
+    private List<HierarchyResponseDTO> hierarchies;
+
+    @Setup
+    public void setUp() throws IOException {
+        Map<Long, AssessmentCriteriaDTO> assessmentCriteriaById = new HashMap<>();
+        assessmentResults = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream(ASSESSMENT_RESULT_CSV)),
+                StandardCharsets.UTF_8))) {
+            // Free text columns may contain the separator, so the criteria id is read from the end of the row
+            reader.lines().skip(1).forEach(line -> {
+                String[] columns = line.split(";", -1);
+                long assessmentCriteriaId = Long.parseLong(columns[columns.length - 2]);
+                AssessmentResultDTO assessmentResult = new AssessmentResultDTO();
+                assessmentResult.setId(Long.parseLong(columns[0]));
+                assessmentResult.setAssessmentCriteria(assessmentCriteriaById
+                        .computeIfAbsent(assessmentCriteriaId, DashboardGroupingBenchmark::createAssessmentCriteria));
+                assessmentResults.add(assessmentResult);
+            });
+        }
+
+        hierarchies = assessmentCriteriaById.values().stream()
+                .sorted(Comparator.comparing(AssessmentCriteriaDTO::getDescription))
+                .map(DashboardGroupingBenchmark::toHierarchy)
+                .toList();
+    }
+
+    /**
+     * The former grouping: a description key per result, and a rebuilt key per hierarchy row to probe the map.
+     */
+    @Benchmark
+    public void groupByDescriptionKey(Blackhole blackhole) {
+        Map<String, List<AssessmentResultDTO>> assessmentResultsByHierarchy = assessmentResults.stream()
+                .collect(Collectors.groupingBy(assessmentResult -> {
+                    AssessmentCriteriaDTO assessmentCriteria = assessmentResult.getAssessmentCriteria();
+                    return assessmentCriteria.getDescription() + "-" + assessmentCriteria.getCategory().getDescription()
+                            + "-" + assessmentCriteria.getCategory().getTechArea().getDescription()
+                            + '-' + assessmentCriteria.getCategory().getTechArea().getDomain().getDescription();
+                }));
+        for (HierarchyResponseDTO hierarchy : hierarchies) {
+            String keyToCompare = hierarchy.getAssessmentCriteriaDescription() + "-" + hierarchy.getCategoryDescription()
+                    + "-" + hierarchy.getTechAreaDescription() + '-' + hierarchy.getDomainDescription();
+            blackhole.consume(assessmentResultsByHierarchy.get(keyToCompare));
+        }
+    }
+
+    @Benchmark
+    public void groupByAssessmentCriteriaId(Blackhole blackhole) {
+        LongObjectMap<List<AssessmentResultDTO>> assessmentResultsByCriteriaId =
+                DashboardServiceImpl.groupByAssessmentCriteriaId(assessmentResults);
+        for (HierarchyResponseDTO hierarchy : hierarchies) {
+            blackhole.consume(assessmentResultsByCriteriaId.get(hierarchy.getAssessmentCriteriaId()));
+        }
+    }
+
+    private static AssessmentCriteriaDTO createAssessmentCriteria(long id) {
+        TechDomainDTO techDomain = new TechDomainDTO();
+        techDomain.setId(id % 5);
+        techDomain.setDescription("Tech Domain - " + techDomain.getId());
+        TechAreaDTO techArea = new TechAreaDTO();
+        techArea.setId(id % 20);
+        techArea.setDescription("Tech Area - " + techArea.getId());
+        techArea.setDomain(techDomain);
+        CategoryDTO category = new CategoryDTO();
+        category.setId(id % 60);
+        category.setDescription("Category - " + category.getId());
+        category.setTechArea(techArea);
+        AssessmentCriteriaDTO assessmentCriteria = new AssessmentCriteriaDTO();
+        assessmentCriteria.setId(id);
+        assessmentCriteria.setDescription("Assessment Criteria - " + id);
+        assessmentCriteria.setCategory(category);
+        return assessmentCriteria;
+    }
+
+    private static HierarchyResponseDTO toHierarchy(AssessmentCriteriaDTO assessmentCriteria) {
+        CategoryDTO category = assessmentCriteria.getCategory();
+        TechAreaDTO techArea = category.getTechArea();
+        TechDomainDTO techDomain = techArea.getDomain();
+        return HierarchyResponseDTO.builder()
+                .assessmentCriteriaDescription(assessmentCriteria.getDescription())
+                .assessmentCriteriaId(assessmentCriteria.getId())
+                .categoryDescription(category.getDescription())
+                .categoryId(category.getId())
+                .techAreaDescription(techArea.getDescription())
+                .techAreaId(techArea.getId())
+                .domainDescription(techDomain.getDescription())
+                .domainId(techDomain.getId())
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DashboardGroupingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
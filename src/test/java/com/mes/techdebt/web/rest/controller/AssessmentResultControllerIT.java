@@ -1,32 +1,54 @@
 package com.mes.techdebt.web.rest.controller;
 
 import com.mes.techdebt.IntegrationTest;
-import com.cargill.techdebt.domain.*;
-import com.cargill.techdebt.repository.*;
 import com.mes.techdebt.domain.*;
 import com.mes.techdebt.repository.*;
+import com.mes.techdebt.service.AssessmentResultService;
+import com.mes.techdebt.service.AssessmentResultWriteBehindService;
+import com.mes.techdebt.service.CategoryService;
 import com.mes.techdebt.service.dto.AssessmentResultDTO;
+import com.mes.techdebt.service.dto.CategoryDTO;
+import com.mes.techdebt.service.dto.SiteDTO;
 import com.mes.techdebt.service.mapper.AssessmentResultMapper;
+import com.mes.techdebt.service.mapper.CategoryMapper;
+import com.mes.techdebt.service.mapper.DateMapper;
+import com.mes.techdebt.service.mapper.TechAreaMapper;
+import com.mes.techdebt.web.rest.controller.utils.SlicePaginationUtil;
 import com.mes.techdebt.web.rest.controller.utils.TestUtil;
 import com.mes.techdebt.web.rest.errors.BadRequestAlertException;
+import com.mes.techdebt.web.rest.request.AssessmentResultFilterDTO;
+import com.mes.techdebt.web.rest.request.DashboardRequestDTO;
+import com.mes.techdebt.web.rest.request.ScoreHistoryRequestDTO;
+import com.mes.techdebt.web.rest.request.ScoreRollupRequestDTO;
+import com.jayway.jsonpath.JsonPath;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.util.NestedServletException;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
@@ -43,12 +65,24 @@ class AssessmentResultControllerIT {
 
     private static final String ENTITY_API_URL = "/api/v1/assessment-results";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String ENTITY_API_URL_SITE = ENTITY_API_URL + "/site";
+    private static final String ENTITY_API_URL_ROLLUP = ENTITY_API_URL + "/rollup";
+    private static final String ENTITY_API_URL_SITE_CHANGES = ENTITY_API_URL_SITE + "/changes";
+    private static final String ENTITY_API_URL_BULK = ENTITY_API_URL + "/bulk";
+    private static final String ENTITY_API_URL_EXPORT = ENTITY_API_URL + "/export";
+    private static final String ENTITY_API_URL_FILTER = ENTITY_API_URL + "/filter";
+    private static final String ENTITY_API_URL_HISTORY = ENTITY_API_URL + "/history";
+
+    // Reference checks, id allocation and a few insert and update batches
+    private static final long BULK_STATEMENT_BUDGET = 10;
 
     private static final Random random = new Random();
     private static final AtomicLong count = new AtomicLong(random.nextInt() + (2L * Integer.MAX_VALUE));
 
     @Autowired
     private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Autowired
     private MockMvc restAssessmentResultMockMvc;
@@ -58,6 +92,20 @@ class AssessmentResultControllerIT {
 
     @Autowired
     private AssessmentResultMapper assessmentResultMapper;
+    @Autowired
+    private DateMapper dateMapper;
+    @Autowired
+    private CategoryMapper categoryMapper;
+    @Autowired
+    private TechAreaMapper techAreaMapper;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private AssessmentResultService assessmentResultService;
+    @Autowired
+    private AssessmentResultWriteBehindService assessmentResultWriteBehindService;
+    @Autowired
+    private PendingAssessmentResultUpdateRepository pendingAssessmentResultUpdateRepository;
 
     @Autowired
     private RecommendationStatusRepository recommendationStatusRepository;
@@ -139,6 +187,70 @@ class AssessmentResultControllerIT {
         assertThat(testAssessmentResult.getRecommendationStatus().getDescription()).isEqualTo(TestUtil.DEFAULT_RECOMMENDATION_STATUS);
     }
 
+    @Test
+    @Transactional
+    void saveAssessmentResultsInBulk() throws Exception {
+        assessmentResultRepository.saveAndFlush(assessmentResult);
+        int databaseSizeBeforeCreate = assessmentResultRepository.findAll().size();
+
+        List<AssessmentResultDTO> assessmentResultDTOs = new ArrayList<>();
+        AssessmentResultDTO updatedAssessmentResultDTO = assessmentResultMapper.toDto(assessmentResult);
+        updatedAssessmentResultDTO.setRecommendationText(TestUtil.UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT);
+        assessmentResultDTOs.add(updatedAssessmentResultDTO);
+        for (int i = 0; i < 30; i++) {
+            AssessmentResultDTO createdAssessmentResultDTO = assessmentResultMapper.toDto(assessmentResult);
+            createdAssessmentResultDTO.setId(null);
+            createdAssessmentResultDTO.setScore((double) i);
+            assessmentResultDTOs.add(createdAssessmentResultDTO);
+        }
+        AssessmentResultDTO rejectedAssessmentResultDTO = assessmentResultMapper.toDto(assessmentResult);
+        rejectedAssessmentResultDTO.setId(null);
+        rejectedAssessmentResultDTO.getSite().setId(Long.MAX_VALUE);
+        assessmentResultDTOs.add(rejectedAssessmentResultDTO);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_BULK)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(assessmentResultDTOs))
+                                .with(jwt().authorities(TestUtil.writeAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(32))
+                .andExpect(jsonPath("$.[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$.[0].id").value(assessmentResult.getId().intValue()))
+                .andExpect(jsonPath("$.[1].status").value("CREATED"))
+                .andExpect(jsonPath("$.[1].id").isNumber())
+                .andExpect(jsonPath("$.[31].index").value(31))
+                .andExpect(jsonPath("$.[31].status").value("REJECTED"))
+                .andExpect(jsonPath("$.[31].error").value("site notexists"));
+        long statementCount = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        assertThat(statementCount).isLessThanOrEqualTo(BULK_STATEMENT_BUDGET);
+
+        assertThat(assessmentResultRepository.findAll()).hasSize(databaseSizeBeforeCreate + 30);
+        assertThat(assessmentResultRepository.findById(assessmentResult.getId()).orElseThrow().getRecommendationText())
+                .isEqualTo(TestUtil.UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT);
+    }
+
+    @Test
+    @Transactional
+    void saveEmptyBulkIsRejected() throws Exception {
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_BULK)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[]")
+                                .with(jwt().authorities(TestUtil.writeAuthority))
+                )
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void createAssessmentResultWithExistingId() throws Exception {
@@ -261,6 +373,175 @@ class AssessmentResultControllerIT {
         assertThat(assessmentResult.getSite().getName()).isEqualTo(TestUtil.DEFAULT_SITE_NAME);
     }
 
+    @Test
+    void writeBehindCoalescesQueuedUpdates() throws Exception {
+        // Initialize the database, committed as every result is updated in its own transaction
+        assessmentResultRepository.saveAndFlush(assessmentResult);
+
+        double[] scores = {2.0, 4.0};
+        for (double score : scores) {
+            AssessmentResultDTO scoreUpdate = new AssessmentResultDTO();
+            scoreUpdate.setId(assessmentResult.getId());
+            scoreUpdate.setScore(score);
+            assertThat(assessmentResultWriteBehindService.enqueue(scoreUpdate)).isEmpty();
+        }
+        AssessmentResultDTO textUpdate = new AssessmentResultDTO();
+        textUpdate.setId(assessmentResult.getId());
+        textUpdate.setRecommendationText(TestUtil.UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT);
+        assertThat(assessmentResultWriteBehindService.enqueue(textUpdate)).isEmpty();
+        assertThat(pendingAssessmentResultUpdateRepository.count()).isEqualTo(3);
+        // The queued updates were accepted unconditionally, so a synchronous write before the flush does not fail them
+        AssessmentResultDTO synchronousUpdate = new AssessmentResultDTO();
+        synchronousUpdate.setId(assessmentResult.getId());
+        synchronousUpdate.setScore(3.0);
+        assessmentResultService.partialUpdate(synchronousUpdate);
+
+        assertThat(assessmentResultWriteBehindService.flushBatch()).isEqualTo(3);
+
+        // Later updates win, and updates of other fields are kept, in a single write
+        AssessmentResult updatedAssessmentResult = assessmentResultRepository.findById(assessmentResult.getId()).get();
+        assertThat(updatedAssessmentResult.getScore()).isEqualTo(4.0);
+        assertThat(updatedAssessmentResult.getRecommendationText()).isEqualTo(TestUtil.UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT);
+        assertThat(updatedAssessmentResult.getVersion()).isEqualTo(assessmentResult.getVersion() + 2);
+        assertThat(pendingAssessmentResultUpdateRepository.count()).isZero();
+        assertThat(assessmentResultWriteBehindService.flushBatch()).isZero();
+    }
+
+    @Test
+    void writeBehindSetsAsideFailedUpdates() throws Exception {
+        // Initialize the database
+        assessmentResultRepository.saveAndFlush(assessmentResult);
+        AssessmentResult otherAssessmentResult = assessmentResultRepository.saveAndFlush(TestUtil.createAssessmentResultEntity(
+                recommendationStatus, assessmentCriteria, site, TestUtil.DEFAULT_ASSESSMENT_RESULT_RECOMMENDATION_TEXT));
+
+        // Queued against the current version, then overtaken by a synchronous write
+        AssessmentResultDTO staleUpdate = new AssessmentResultDTO();
+        staleUpdate.setId(assessmentResult.getId());
+        staleUpdate.setVersion(assessmentResult.getVersion());
+        staleUpdate.setScore(2.0);
+        assertThat(assessmentResultWriteBehindService.enqueue(staleUpdate)).isEmpty();
+        AssessmentResultDTO synchronousUpdate = new AssessmentResultDTO();
+        synchronousUpdate.setId(assessmentResult.getId());
+        synchronousUpdate.setScore(3.0);
+        assessmentResultService.partialUpdate(synchronousUpdate);
+
+        // An unreadable update queued between two readable ones of the other result
+        AssessmentResultDTO scoreUpdate = new AssessmentResultDTO();
+        scoreUpdate.setId(otherAssessmentResult.getId());
+        scoreUpdate.setScore(4.0);
+        assertThat(assessmentResultWriteBehindService.enqueue(scoreUpdate)).isEmpty();
+        PendingAssessmentResultUpdate unreadableUpdate = pendingAssessmentResultUpdateRepository.saveAndFlush(
+                new PendingAssessmentResultUpdate()
+                        .assessmentResultId(otherAssessmentResult.getId())
+                        .expectedVersion(otherAssessmentResult.getVersion())
+                        .payload("{\"score\": \"not a score\"}"));
+        AssessmentResultDTO textUpdate = new AssessmentResultDTO();
+        textUpdate.setId(otherAssessmentResult.getId());
+        textUpdate.setRecommendationText(TestUtil.UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT);
+        assertThat(assessmentResultWriteBehindService.enqueue(textUpdate)).isEmpty();
+
+        assertThat(assessmentResultWriteBehindService.flushBatch()).isEqualTo(4);
+
+        // The synchronous write is kept, and the other result is updated regardless
+        assertThat(assessmentResultRepository.findById(assessmentResult.getId()).get().getScore()).isEqualTo(3.0);
+        AssessmentResult updatedAssessmentResult = assessmentResultRepository.findById(otherAssessmentResult.getId()).get();
+        assertThat(updatedAssessmentResult.getScore()).isEqualTo(4.0);
+        assertThat(updatedAssessmentResult.getRecommendationText()).isEqualTo(TestUtil.UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT);
+        List<PendingAssessmentResultUpdate> deadLetters = pendingAssessmentResultUpdateRepository.findAll();
+        assertThat(deadLetters).hasSize(2).allMatch(pendingUpdate ->
+                PendingAssessmentResultUpdate.STATUS_DEAD_LETTER.equals(pendingUpdate.getStatus())
+                        && pendingUpdate.getAttemptCount() == 1);
+        assertThat(deadLetters).extracting(PendingAssessmentResultUpdate::getId).contains(unreadableUpdate.getId());
+        assertThat(assessmentResultWriteBehindService.flushBatch()).isZero();
+    }
+
+    @Test
+    @Transactional
+    void writeBehindRejectsMissingReferences() throws Exception {
+        // Initialize the database
+        assessmentResultRepository.saveAndFlush(assessmentResult);
+
+        AssessmentResultDTO siteUpdate = new AssessmentResultDTO();
+        siteUpdate.setId(assessmentResult.getId());
+        SiteDTO missingSite = new SiteDTO();
+        missingSite.setId(Long.MAX_VALUE);
+        siteUpdate.setSite(missingSite);
+        assertThat(assessmentResultWriteBehindService.enqueue(siteUpdate)).contains("site notexists");
+        assertThat(pendingAssessmentResultUpdateRepository.count()).isZero();
+    }
+
+    @Test
+    @Transactional
+    void putAssessmentResultWithIfMatch() throws Exception {
+        // Initialize the database
+        assessmentResultRepository.saveAndFlush(assessmentResult);
+
+        restAssessmentResultMockMvc
+                .perform(get(ENTITY_API_URL_ID, assessmentResult.getId()).with(jwt().authorities(TestUtil.readAuthority)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.version").value(0));
+
+        AssessmentResultDTO updatedAssessmentResultDTO = assessmentResultMapper.toDto(assessmentResult);
+        updatedAssessmentResultDTO.setRecommendationText(TestUtil.UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT);
+        restAssessmentResultMockMvc
+                .perform(
+                        put(ENTITY_API_URL_ID, assessmentResult.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                                .content(TestUtil.convertObjectToJsonBytes(updatedAssessmentResultDTO))
+                                .with(jwt().authorities(TestUtil.writeAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // The second writer read the same version, so it must read the result again
+        restAssessmentResultMockMvc
+                .perform(
+                        put(ENTITY_API_URL_ID, assessmentResult.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                                .content(TestUtil.convertObjectToJsonBytes(updatedAssessmentResultDTO))
+                                .with(jwt().authorities(TestUtil.writeAuthority))
+                )
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @Transactional
+    void patchAssessmentResultWithStaleVersion() throws Exception {
+        // Initialize the database
+        assessmentResultRepository.saveAndFlush(assessmentResult);
+
+        AssessmentResultDTO scoreUpdate = new AssessmentResultDTO();
+        scoreUpdate.setId(assessmentResult.getId());
+        scoreUpdate.setScore(4.0);
+        restAssessmentResultMockMvc
+                .perform(
+                        patch(ENTITY_API_URL_ID, assessmentResult.getId())
+                                .contentType("application/merge-patch+json")
+                                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                                .content(TestUtil.convertObjectToJsonBytes(scoreUpdate))
+                                .with(jwt().authorities(TestUtil.writeAuthority))
+                )
+                .andExpect(status().isPreconditionFailed());
+
+        // Without If-Match, a stale version in the body is a conflict
+        scoreUpdate.setVersion(3L);
+        restAssessmentResultMockMvc
+                .perform(
+                        patch(ENTITY_API_URL_ID, assessmentResult.getId())
+                                .contentType("application/merge-patch+json")
+                                .content(TestUtil.convertObjectToJsonBytes(scoreUpdate))
+                                .with(jwt().authorities(TestUtil.writeAuthority))
+                )
+                .andExpect(status().isConflict());
+
+        AssessmentResult storedAssessmentResult = assessmentResultRepository.findById(assessmentResult.getId()).get();
+        assertThat(storedAssessmentResult.getScore()).isNull();
+        assertThat(storedAssessmentResult.getVersion()).isZero();
+    }
+
     @Test
     @Transactional
     void getAllAssessmentResult() throws Exception {
@@ -281,6 +562,467 @@ class AssessmentResultControllerIT {
                 .andExpect(jsonPath("$.[*].assessmentCriteria.id").value(hasItem(assessmentCriteria.getId().intValue())));
     }
 
+    @Test
+    @Transactional
+    void getAllAssessmentResultByCursor() throws Exception {
+        // Initialize the database, newest results first
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            AssessmentResult newResult = TestUtil.createAssessmentResultEntity(recommendationStatus, assessmentCriteria, site,
+                    TestUtil.DEFAULT_ASSESSMENT_RESULT_RECOMMENDATION_TEXT);
+            ids.add(0, assessmentResultRepository.saveAndFlush(newResult).getId());
+        }
+        entityManager.clear();
+
+        // Get the first page, newest first
+        MvcResult firstPage = restAssessmentResultMockMvc
+                .perform(
+                        get(ENTITY_API_URL + "?after=&size=2")
+                        .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(header().exists(SlicePaginationUtil.HEADER_NEXT_CURSOR))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andReturn();
+        List<Long> firstPageIds = JsonPath.parse(firstPage.getResponse().getContentAsString()).read("$[*].id", List.class)
+                .stream().map(id -> ((Number) id).longValue()).toList();
+        assertThat(firstPageIds).containsExactly(ids.get(0), ids.get(1));
+
+        // Get the next page right after the cursor
+        String nextCursor = firstPage.getResponse().getHeader(SlicePaginationUtil.HEADER_NEXT_CURSOR);
+        restAssessmentResultMockMvc
+                .perform(
+                        get(ENTITY_API_URL + "?size=2&after=" + nextCursor)
+                        .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id").value(ids.get(2).intValue()))
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(ids.get(0).intValue()))))
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(ids.get(1).intValue()))));
+    }
+
+    @Test
+    @Transactional
+    void getAllAssessmentResultWithoutCount() throws Exception {
+        // Initialize the database
+        assessmentResultRepository.saveAndFlush(assessmentResult);
+
+        restAssessmentResultMockMvc
+                .perform(
+                        get(ENTITY_API_URL + "?sort=id,desc&size=1&count=false")
+                        .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"first\"")))
+                .andExpect(jsonPath("$.[0].id").value(assessmentResult.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void filterAssessmentResults() throws Exception {
+        // Initialize the database
+        siteRepository.saveAndFlush(site.region(TestUtil.DEFAULT_REGION));
+        List<AssessmentResult> assessmentResults = new ArrayList<>();
+        for (double score : new double[]{1.0, 3.0, 5.0}) {
+            assessmentResults.add(assessmentResultRepository.saveAndFlush(TestUtil.createAssessmentResultEntity(
+                    recommendationStatus, assessmentCriteria, site, TestUtil.DEFAULT_ASSESSMENT_RESULT_RECOMMENDATION_TEXT).score(score)));
+        }
+
+        AssessmentResultFilterDTO filter = new AssessmentResultFilterDTO();
+        filter.setRegions(Set.of(TestUtil.DEFAULT_REGION));
+        filter.setRecommendationStatusIds(Set.of(recommendationStatus.getId()));
+        filter.setTechDomainId(techDomain.getId());
+        filter.setMinScore(2.0);
+        filter.setMaxScore(5.0);
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_FILTER + "?sort=score,asc")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(filter))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "2"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.[0].id").value(assessmentResults.get(1).getId().intValue()))
+                .andExpect(jsonPath("$.[0].siteName").value(TestUtil.DEFAULT_SITE_NAME))
+                .andExpect(jsonPath("$.[0].region").value(TestUtil.DEFAULT_REGION))
+                .andExpect(jsonPath("$.[0].categoryId").value(category.getId().intValue()))
+                .andExpect(jsonPath("$.[0].recommendationStatusDescription").value(TestUtil.DEFAULT_RECOMMENDATION_STATUS))
+                .andExpect(jsonPath("$.[1].id").value(assessmentResults.get(2).getId().intValue()));
+
+        // Same filter, one row at a time and without counting
+        filter.setSiteIds(Set.of(site.getId()));
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_FILTER + "?sort=score,asc&size=1&count=false")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(filter))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$.[0].score").value(3.0));
+    }
+
+    @Test
+    void exportAssessmentResultsAsCsv() throws Exception {
+        // Not transactional: the rows are streamed on another thread, which only sees committed data
+        siteRepository.saveAndFlush(site.region(TestUtil.DEFAULT_REGION));
+        for (double score : new double[]{1.0, 3.0, 5.0}) {
+            assessmentResultRepository.saveAndFlush(TestUtil.createAssessmentResultEntity(
+                    recommendationStatus, assessmentCriteria, site, TestUtil.DEFAULT_ASSESSMENT_RESULT_RECOMMENDATION_TEXT).score(score));
+        }
+
+        AssessmentResultFilterDTO filter = new AssessmentResultFilterDTO();
+        filter.setSiteIds(Set.of(site.getId()));
+        filter.setMinScore(2.0);
+        MvcResult mvcResult = restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_EXPORT)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept("text/csv")
+                                .content(TestUtil.convertObjectToJsonBytes(filter))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("assessment-results.csv")))
+                .andReturn();
+
+        String body = restAssessmentResultMockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).startsWith("id;score;recommendationText;updateDate;");
+        assertThat(lines.subList(1, 3)).allSatisfy(line -> assertThat(line)
+                .contains(";" + TestUtil.DEFAULT_SITE_NAME + ";" + TestUtil.DEFAULT_REGION + ";")
+                .contains(TestUtil.DEFAULT_RECOMMENDATION_STATUS));
+        assertThat(lines.get(1)).contains(";5.0;");
+        assertThat(lines.get(2)).contains(";3.0;");
+    }
+
+    @Test
+    @Transactional
+    void getScoreHistoryBySite() throws Exception {
+        // Initialize the database, two results in January and one in February
+        String[] updateDates = {"2024-01-10 12:00:00", "2024-01-20 12:00:00", "2024-02-05 12:00:00"};
+        double[] scores = {2.0, 4.0, 5.0};
+        for (int i = 0; i < updateDates.length; i++) {
+            AssessmentResult historyResult = assessmentResultRepository.saveAndFlush(TestUtil.createAssessmentResultEntity(
+                    recommendationStatus, assessmentCriteria, site, TestUtil.DEFAULT_ASSESSMENT_RESULT_RECOMMENDATION_TEXT).score(scores[i]));
+            entityManager.createNativeQuery("update assessment_result set update_date = cast(:updateDate as timestamp) where id = :id")
+                    .setParameter("updateDate", updateDates[i])
+                    .setParameter("id", historyResult.getId())
+                    .executeUpdate();
+        }
+
+        ScoreHistoryRequestDTO scoreHistoryRequest = new ScoreHistoryRequestDTO();
+        scoreHistoryRequest.setInterval(ScoreHistoryRequestDTO.INTERVAL_MONTH);
+        scoreHistoryRequest.setFrom(OffsetDateTime.parse("2023-12-01T00:00:00Z"));
+        scoreHistoryRequest.setTo(OffsetDateTime.parse("2024-03-01T00:00:00Z"));
+        scoreHistoryRequest.setSiteIds(Set.of(site.getId()));
+        scoreHistoryRequest.setHierarchyLevel(ScoreHistoryRequestDTO.HIERARCHY_LEVEL_TECH_DOMAIN);
+        scoreHistoryRequest.setHierarchyId(techDomain.getId());
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_HISTORY)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(scoreHistoryRequest))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.[0].resultCount").value(2))
+                .andExpect(jsonPath("$.[0].averageScore").value(3.0))
+                .andExpect(jsonPath("$.[0].recommendationStatusCounts." + recommendationStatus.getId()).value(2))
+                .andExpect(jsonPath("$.[1].resultCount").value(1))
+                .andExpect(jsonPath("$.[1].averageScore").value(5.0));
+
+        // The January results fall into two weeks
+        scoreHistoryRequest.setInterval(ScoreHistoryRequestDTO.INTERVAL_WEEK);
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_HISTORY)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(scoreHistoryRequest))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+
+        // Ten years of days are too many points
+        scoreHistoryRequest.setInterval(ScoreHistoryRequestDTO.INTERVAL_DAY);
+        scoreHistoryRequest.setFrom(OffsetDateTime.parse("2014-03-01T00:00:00Z"));
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_HISTORY)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(scoreHistoryRequest))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getScoreHistoryWithIncompleteHierarchyFilter() throws Exception {
+        ScoreHistoryRequestDTO scoreHistoryRequest = new ScoreHistoryRequestDTO();
+        scoreHistoryRequest.setInterval(ScoreHistoryRequestDTO.INTERVAL_MONTH);
+        scoreHistoryRequest.setFrom(OffsetDateTime.parse("2023-12-01T00:00:00Z"));
+        scoreHistoryRequest.setTo(OffsetDateTime.parse("2024-03-01T00:00:00Z"));
+
+        // An id without a level
+        scoreHistoryRequest.setHierarchyId(techDomain.getId());
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_HISTORY)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(scoreHistoryRequest))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isBadRequest());
+
+        // A level without an id
+        scoreHistoryRequest.setHierarchyId(null);
+        scoreHistoryRequest.setHierarchyLevel(ScoreHistoryRequestDTO.HIERARCHY_LEVEL_CATEGORY);
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_HISTORY)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(scoreHistoryRequest))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isBadRequest());
+
+        // An unknown level
+        scoreHistoryRequest.setHierarchyId(techDomain.getId());
+        scoreHistoryRequest.setHierarchyLevel("SITE");
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_HISTORY)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(scoreHistoryRequest))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllAssessmentResultWithInvalidCursor() throws Exception {
+        restAssessmentResultMockMvc
+                .perform(
+                        get(ENTITY_API_URL + "?after=not-a-cursor")
+                        .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getLatestAssessmentResultsBySite() throws Exception {
+        // Initialize the database with an older and a newer result for the same criteria
+        assessmentResultRepository.saveAndFlush(assessmentResult);
+        AssessmentResult latestAssessmentResult = assessmentResultRepository.saveAndFlush(TestUtil.createAssessmentResultEntity(
+                recommendationStatus, assessmentCriteria, site, TestUtil.UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT));
+
+        DashboardRequestDTO dashboardRequest = new DashboardRequestDTO();
+        dashboardRequest.setName(site.getName());
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_SITE)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(dashboardRequest))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_SITE + "?latestOnly=true")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(dashboardRequest))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$.[0].id").value(latestAssessmentResult.getId().intValue()))
+                .andExpect(jsonPath("$.[0].recommendationText").value(TestUtil.UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT));
+    }
+
+    @Test
+    @Transactional
+    void getScoreRollupBySites() throws Exception {
+        // Initialize the database with two scored results and a newer unscored one
+        assessmentResultRepository.saveAndFlush(assessmentResult.score(2.0));
+        assessmentResultRepository.saveAndFlush(TestUtil.createAssessmentResultEntity(
+                recommendationStatus, assessmentCriteria, site, TestUtil.UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT).score(6.0));
+        assessmentResultRepository.saveAndFlush(TestUtil.createAssessmentResultEntity(
+                recommendationStatus, assessmentCriteria, site, TestUtil.UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT));
+        Category category = assessmentCriteria.getCategory();
+
+        ScoreRollupRequestDTO scoreRollupRequest = new ScoreRollupRequestDTO();
+        scoreRollupRequest.setSiteIds(Set.of(site.getId()));
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_ROLLUP)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(scoreRollupRequest))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$.[0].level").value("TOTAL"))
+                .andExpect(jsonPath("$.[0].resultCount").value(3))
+                .andExpect(jsonPath("$.[0].scoreCount").value(2))
+                .andExpect(jsonPath("$.[0].averageScore").value(4.0))
+                .andExpect(jsonPath("$.[0].minScore").value(2.0))
+                .andExpect(jsonPath("$.[0].maxScore").value(6.0))
+                .andExpect(jsonPath("$.[0].latestScore").value(6.0))
+                .andExpect(jsonPath("$.[1].level").value("TECH_DOMAIN"))
+                .andExpect(jsonPath("$.[1].id").value(category.getTechArea().getDomain().getId().intValue()))
+                .andExpect(jsonPath("$.[2].level").value("TECH_AREA"))
+                .andExpect(jsonPath("$.[2].parentId").value(category.getTechArea().getDomain().getId().intValue()))
+                .andExpect(jsonPath("$.[3].level").value("CATEGORY"))
+                .andExpect(jsonPath("$.[3].id").value(category.getId().intValue()))
+                .andExpect(jsonPath("$.[3].parentId").value(category.getTechArea().getId().intValue()))
+                .andExpect(jsonPath("$.[3].latestScore").value(6.0));
+
+        // A set of sites without any result has nothing to roll up
+        scoreRollupRequest.setSiteIds(Set.of(Long.MAX_VALUE));
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_ROLLUP)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(scoreRollupRequest))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    @Transactional
+    void getAssessmentResultCountByHierarchy() throws Exception {
+        // Initialize the database, with a second criteria of the same category that is not used
+        assessmentResultRepository.saveAndFlush(assessmentResult);
+        AssessmentCriteria unusedAssessmentCriteria = assessmentCriteriaRepository.saveAndFlush(
+                TestUtil.createAssessmentCriteriaEntity(category, TestUtil.UPDATED_CRITERIA_DESCRIPTION, TestUtil.DEFAULT_ACTIVE_FLAG));
+
+        restAssessmentResultMockMvc
+                .perform(
+                        get(ENTITY_API_URL + "/count/hierarchy")
+                        .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$[?(@.level == 'TECH_DOMAIN' && @.id == " + techDomain.getId() + ")].resultCount").value(hasItem(1)))
+                .andExpect(jsonPath("$[?(@.level == 'TECH_AREA' && @.id == " + techArea.getId() + ")].parentId").value(hasItem(techDomain.getId().intValue())))
+                .andExpect(jsonPath("$[?(@.level == 'TECH_AREA' && @.id == " + techArea.getId() + ")].resultCount").value(hasItem(1)))
+                .andExpect(jsonPath("$[?(@.level == 'CATEGORY' && @.id == " + category.getId() + ")].resultCount").value(hasItem(1)))
+                .andExpect(jsonPath("$[?(@.level == 'ASSESSMENT_CRITERIA' && @.id == " + assessmentCriteria.getId() + ")].resultCount").value(hasItem(1)))
+                .andExpect(jsonPath("$[?(@.level == 'ASSESSMENT_CRITERIA' && @.id == " + unusedAssessmentCriteria.getId() + ")].resultCount").value(hasItem(0)))
+                .andExpect(jsonPath("$[?(@.level == 'ASSESSMENT_CRITERIA' && @.id == " + unusedAssessmentCriteria.getId() + ")].parentId").value(hasItem(category.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void hierarchyIdsFollowReparentedCategory() throws Exception {
+        // Initialize the database
+        assessmentResultRepository.saveAndFlush(assessmentResult);
+        assertThat(assessmentResult.getCategoryId()).isEqualTo(category.getId());
+        assertThat(assessmentResult.getTechAreaId()).isEqualTo(techArea.getId());
+        assertThat(assessmentResult.getTechDomainId()).isEqualTo(techDomain.getId());
+
+        // Move the category to a tech area of another domain
+        TechDomain newTechDomain = techDomainRepository.saveAndFlush(
+                TestUtil.createTechDomainEntity(TestUtil.UPDATED_DOMAIN_DESCRIPTION, TestUtil.DEFAULT_ACTIVE_FLAG));
+        TechArea newTechArea = techAreaRepository.saveAndFlush(
+                TestUtil.createTechAreaEntity(newTechDomain, TestUtil.UPDATED_TECH_AREA_DESCRIPTION, TestUtil.DEFAULT_ACTIVE_FLAG));
+        CategoryDTO categoryDTO = categoryMapper.toDto(category);
+        categoryDTO.setTechArea(techAreaMapper.toDto(newTechArea));
+        categoryService.update(categoryDTO);
+        entityManager.clear();
+
+        AssessmentResult reparentedAssessmentResult = assessmentResultRepository.findById(assessmentResult.getId()).orElseThrow();
+        assertThat(reparentedAssessmentResult.getCategoryId()).isEqualTo(category.getId());
+        assertThat(reparentedAssessmentResult.getTechAreaId()).isEqualTo(newTechArea.getId());
+        assertThat(reparentedAssessmentResult.getTechDomainId()).isEqualTo(newTechDomain.getId());
+
+        restAssessmentResultMockMvc
+                .perform(
+                        get(ENTITY_API_URL + "/count/tech-domain/{id}", newTechDomain.getId())
+                        .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+        restAssessmentResultMockMvc
+                .perform(
+                        get(ENTITY_API_URL + "/count/tech-area/{id}", techArea.getId())
+                        .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().string("0"));
+    }
+
+    @Test
+    @Transactional
+    void getAssessmentResultChangesBySite() throws Exception {
+        // Initialize the database with a result synced before the watermark
+        assessmentResultRepository.saveAndFlush(assessmentResult);
+        OffsetDateTime since = dateMapper.asOffsetDateTime(assessmentResult.getUpdateDate());
+        Thread.sleep(10);
+        AssessmentResult changedAssessmentResult = assessmentResultRepository.saveAndFlush(TestUtil.createAssessmentResultEntity(
+                recommendationStatus, assessmentCriteria, site, TestUtil.UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT));
+
+        restAssessmentResultMockMvc
+                .perform(
+                        delete(ENTITY_API_URL_ID, assessmentResult.getId())
+                                .with(jwt().authorities(TestUtil.adminAuthority))
+                )
+                .andExpect(status().isNoContent());
+
+        DashboardRequestDTO dashboardRequest = new DashboardRequestDTO();
+        dashboardRequest.setName(site.getName());
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_SITE_CHANGES)
+                                .param("since", since.toString())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(dashboardRequest))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.siteId").value(site.getId().intValue()))
+                .andExpect(jsonPath("$.watermark").exists())
+                .andExpect(jsonPath("$.assessmentResults.length()").value(1))
+                .andExpect(jsonPath("$.assessmentResults[0].id").value(changedAssessmentResult.getId().intValue()))
+                .andExpect(jsonPath("$.deleted.length()").value(1))
+                .andExpect(jsonPath("$.deleted[0].entityName").value(Tombstone.ASSESSMENT_RESULT))
+                .andExpect(jsonPath("$.deleted[0].id").value(assessmentResult.getId().intValue()))
+                .andExpect(jsonPath("$.deleted[0].assessmentCriteriaId").value(assessmentCriteria.getId().intValue()));
+
+        dashboardRequest.setName("NonExistingSite");
+        restAssessmentResultMockMvc
+                .perform(
+                        post(ENTITY_API_URL_SITE_CHANGES)
+                                .param("since", since.toString())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(TestUtil.convertObjectToJsonBytes(dashboardRequest))
+                                .with(jwt().authorities(TestUtil.readAuthority))
+                )
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     void getNonExistingAssessmentResult() throws Exception {
@@ -709,6 +1451,8 @@ class AssessmentResultControllerIT {
     void tearDown() {
         entityManager.clear();
 
+        pendingAssessmentResultUpdateRepository.deleteAll();
+
         assessmentResultRepository.deleteAll();
         List<AssessmentResult> assessmentResultList = assessmentResultRepository.findAll();
         assertThat(assessmentResultList).hasSize(0);
@@ -1,23 +1,34 @@
 package com.mes.techdebt.web.rest.controller;
 
 import com.mes.techdebt.IntegrationTest;
-import com.cargill.techdebt.domain.*;
-import com.cargill.techdebt.repository.*;
 import com.mes.techdebt.domain.*;
 import com.mes.techdebt.repository.*;
+import com.mes.techdebt.service.AttachmentStore;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static com.mes.techdebt.web.rest.controller.utils.TestUtil.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -56,6 +67,8 @@ class AttachmentControllerIT {
     @Autowired
     private AttachmentRepository attachmentRepository;
     @Autowired
+    private AttachmentContentRepository attachmentContentRepository;
+    @Autowired
     private MockMvc restAttachmentMockMvc;
 
     private Site site;
@@ -138,7 +151,7 @@ class AttachmentControllerIT {
         assertThat(testAttachment.getAssessmentCriteria().getId()).isEqualTo(assessmentCriteriaId);
         assertThat(testAttachment.getCreatedBy()).isEqualTo(DEFAULT_ATTACHMENT_CREATOR);
         assertThat(testAttachment.getFileType()).isEqualTo(DEFAULT_ATTACHMENT_FILE_TYPE);
-        assertThat(testAttachment.getData()).isEqualTo(DEFAULT_ATTACHMENT_FILE_CONTENT.getBytes());
+        assertThat(readContent(testAttachment)).isEqualTo(DEFAULT_ATTACHMENT_FILE_CONTENT.getBytes());
     }
 
     @Test
@@ -158,7 +171,7 @@ class AttachmentControllerIT {
         assertThat(testAttachment.getAssessmentCriteria().getId()).isEqualTo(assessmentCriteriaId);
         assertThat(testAttachment.getCreatedBy()).isEqualTo(DEFAULT_ATTACHMENT_CREATOR);
         assertThat(testAttachment.getFileType()).isEqualTo(DEFAULT_ATTACHMENT_FILE_TYPE);
-        assertThat(testAttachment.getData()).isEqualTo(DEFAULT_ATTACHMENT_FILE_CONTENT.getBytes());
+        assertThat(readContent(testAttachment)).isEqualTo(DEFAULT_ATTACHMENT_FILE_CONTENT.getBytes());
 
         testAttachment = attachmentList.get(attachmentList.size() - 1);
         assertThat(testAttachment.getFileName()).isEqualTo(UPDATED_ATTACHMENT_FILE_NAME);
@@ -166,7 +179,7 @@ class AttachmentControllerIT {
         assertThat(testAttachment.getAssessmentCriteria().getId()).isEqualTo(assessmentCriteriaId);
         assertThat(testAttachment.getCreatedBy()).isEqualTo(DEFAULT_ATTACHMENT_CREATOR);
         assertThat(testAttachment.getFileType()).isEqualTo(UPDATED_ATTACHMENT_FILE_TYPE);
-        assertThat(testAttachment.getData()).isEqualTo(UPDATED_ATTACHMENT_FILE_CONTENT.getBytes());
+        assertThat(readContent(testAttachment)).isEqualTo(UPDATED_ATTACHMENT_FILE_CONTENT.getBytes());
     }
 
     @Test
@@ -186,32 +199,112 @@ class AttachmentControllerIT {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
                 .andExpect(jsonPath("$.[*].site.id").value(hasItem(site.getId().intValue())))
-                .andExpect(jsonPath("$.[*].assessmentCriteria.id").value(hasItem(assessmentCriteria.getId().intValue())));
+                .andExpect(jsonPath("$.[*].assessmentCriteria.id").value(hasItem(assessmentCriteria.getId().intValue())))
+                .andExpect(jsonPath("$.[*].data").doesNotExist());
     }
 
     @Test
     @Transactional
-    void getAttachmentById() throws Exception {
+    void getAttachmentsBySiteIdAndCriteriaId() throws Exception {
         // Initialize the database
         Long siteId = site.getId();
         Long assessmentCriteriaId = assessmentCriteria.getId();
         saveMultipleFile(siteId, assessmentCriteriaId);
 
+        // Listings only hold the metadata, the content is downloaded from the attachment endpoint
+        restAttachmentMockMvc
+                .perform(get(ENTITY_API_URL + "/site/{siteId}/criteria/{assessmentCriteriaId}", siteId, assessmentCriteriaId)
+                        .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.[*].fileName").value(hasItem(DEFAULT_ATTACHMENT_FILE_NAME)))
+                .andExpect(jsonPath("$.[*].fileSize").value(hasItem(DEFAULT_ATTACHMENT_FILE_CONTENT.getBytes().length)))
+                .andExpect(jsonPath("$.[*].createdBy").value(hasItem(DEFAULT_ATTACHMENT_CREATOR)))
+                .andExpect(jsonPath("$.[*].site.id").value(hasItem(siteId.intValue())))
+                .andExpect(jsonPath("$.[*].data").doesNotExist());
+
+        restAttachmentMockMvc
+                .perform(get(ENTITY_API_URL + "/site/{siteId}", siteId)
+                        .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.[*].assessmentCriteria.id").value(hasItem(assessmentCriteriaId.intValue())))
+                .andExpect(jsonPath("$.[*].data").doesNotExist());
+    }
+
+    @Test
+    void getAttachmentById() throws Exception {
+        // Initialize the database, the content is streamed after the request transaction, so it has to be committed
+        Long siteId = site.getId();
+        Long assessmentCriteriaId = assessmentCriteria.getId();
+        saveMultipleFile(siteId, assessmentCriteriaId);
+
         // Get available attachments in the database
         List<Attachment> attachmentList = attachmentRepository.findAll();
         assertThat(attachmentList).hasSize(2);
 
         // Get all the categoryList
-        restAttachmentMockMvc
+        MvcResult mvcResult = restAttachmentMockMvc
                 .perform(get(ENTITY_API_URL_ID, attachmentList.get(0).getId())
                         .with(jwt()
                                 .authorities(adminAuthority))
                 )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        restAttachmentMockMvc
+                .perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.TEXT_PLAIN))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, DEFAULT_ATTACHMENT_FILE_CONTENT.getBytes().length))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
                 .andExpect(content().string(containsString(DEFAULT_ATTACHMENT_FILE_CONTENT)));
     }
 
+    @Test
+    void getAttachmentRangeById() throws Exception {
+        // Initialize the database
+        saveSingleFile(site.getId(), assessmentCriteria.getId());
+        Long id = attachmentRepository.findAll().get(0).getId();
+        int contentLength = DEFAULT_ATTACHMENT_FILE_CONTENT.getBytes().length;
+
+        MvcResult mvcResult = restAttachmentMockMvc
+                .perform(get(ENTITY_API_URL_ID, id)
+                        .header(HttpHeaders.RANGE, "bytes=7-10")
+                        .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        restAttachmentMockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-10/" + contentLength))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().string(DEFAULT_ATTACHMENT_FILE_CONTENT.substring(7, 11)));
+
+        // Resuming a download from the last bytes
+        mvcResult = restAttachmentMockMvc
+                .perform(get(ENTITY_API_URL_ID, id)
+                        .header(HttpHeaders.RANGE, "bytes=-5")
+                        .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        restAttachmentMockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string(DEFAULT_ATTACHMENT_FILE_CONTENT.substring(contentLength - 5)));
+
+        restAttachmentMockMvc
+                .perform(get(ENTITY_API_URL_ID, id)
+                        .header(HttpHeaders.RANGE, "bytes=" + contentLength + "-")
+                        .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + contentLength));
+    }
+
     @Test
     @Transactional
     void deleteAttachment() throws Exception {
@@ -238,6 +331,225 @@ class AttachmentControllerIT {
     }
 
 
+    @Test
+    void uploadAndDownloadLargeAttachment() throws Exception {
+        // Several slices of content, streamed to the database and back, so it has to be committed
+        byte[] data = new byte[1024 * 1024 + 7];
+        new Random(42).nextBytes(data);
+        restAttachmentMockMvc.perform(multipart(ENTITY_API_URL)
+                .file(new MockMultipartFile("file", "large.bin", MediaType.APPLICATION_OCTET_STREAM_VALUE, data))
+                .param("siteId", String.valueOf(site.getId()))
+                .param("assessmentCriteriaId", String.valueOf(assessmentCriteria.getId()))
+                .param("createdBy", DEFAULT_ATTACHMENT_CREATOR)
+                .with(jwt().authorities(writeAuthority))
+        ).andExpect(status().isOk());
+
+        Attachment attachment = attachmentRepository.findAll().get(0);
+        assertThat(attachment.getFileSize()).isEqualTo(data.length);
+        AttachmentContent content = attachmentContentRepository.findById(attachment.getContent().getId()).orElseThrow();
+        assertThat(content.getLength()).isEqualTo(data.length);
+        assertThat(content.getHash()).isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data)));
+
+        MvcResult mvcResult = restAttachmentMockMvc
+                .perform(get(ENTITY_API_URL_ID, attachment.getId())
+                        .accept(MediaType.APPLICATION_OCTET_STREAM)
+                        .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        restAttachmentMockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, data.length))
+                .andExpect(content().bytes(data));
+    }
+
+    @Test
+    void uploadIdenticalAttachmentsStoresContentOnce() throws Exception {
+        // Initialize the database, the content is deleted once the last delete is committed
+        saveSingleFile(site.getId(), assessmentCriteria.getId());
+        saveSingleFile(site.getId(), assessmentCriteria.getId());
+
+        List<Attachment> attachmentList = attachmentRepository.findAll();
+        assertThat(attachmentList).hasSize(2);
+        List<AttachmentContent> contentList = attachmentContentRepository.findAll();
+        assertThat(contentList).hasSize(1);
+        assertThat(contentList.get(0).getReferenceCount()).isEqualTo(2);
+        assertThat(contentList.get(0).getHash()).isEqualTo(sha256(DEFAULT_ATTACHMENT_FILE_CONTENT));
+        assertThat(contentList.get(0).getLength()).isEqualTo(DEFAULT_ATTACHMENT_FILE_CONTENT.getBytes().length);
+        assertThat(attachmentList).extracting(attachment -> attachment.getContent().getId())
+                .containsOnly(contentList.get(0).getId());
+
+        restAttachmentMockMvc
+                .perform(delete(ENTITY_API_URL_ID, attachmentList.get(0).getId())
+                        .with(jwt().authorities(writeAuthority)))
+                .andExpect(status().isNoContent());
+        contentList = attachmentContentRepository.findAll();
+        assertThat(contentList).hasSize(1);
+        assertThat(contentList.get(0).getReferenceCount()).isEqualTo(1);
+
+        restAttachmentMockMvc
+                .perform(delete(ENTITY_API_URL_ID, attachmentList.get(1).getId())
+                        .with(jwt().authorities(writeAuthority)))
+                .andExpect(status().isNoContent());
+        assertThat(attachmentContentRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void uploadIdenticalAttachmentsConcurrently() throws Exception {
+        // Initialize the database, every upload commits on its own thread
+        int uploads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(uploads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < uploads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    saveSingleFile(site.getId(), assessmentCriteria.getId());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // The content is stored once, and referenced by every upload
+        assertThat(attachmentRepository.findAll()).hasSize(uploads);
+        List<AttachmentContent> contentList = attachmentContentRepository.findAll();
+        assertThat(contentList).hasSize(1);
+        assertThat(contentList.get(0).getReferenceCount()).isEqualTo(uploads);
+        assertThat(readContent(attachmentRepository.findAll().get(0))).isEqualTo(DEFAULT_ATTACHMENT_FILE_CONTENT.getBytes());
+    }
+
+    @Test
+    void getAttachmentByIdWithIfNoneMatch() throws Exception {
+        // Initialize the database
+        saveSingleFile(site.getId(), assessmentCriteria.getId());
+        Long id = attachmentRepository.findAll().get(0).getId();
+        String entityTag = "\"" + sha256(DEFAULT_ATTACHMENT_FILE_CONTENT) + "\"";
+
+        restAttachmentMockMvc
+                .perform(get(ENTITY_API_URL_ID, id)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + entityTag)
+                        .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, entityTag));
+
+        // The range of another version is not served, the whole content is
+        MvcResult mvcResult = restAttachmentMockMvc
+                .perform(get(ENTITY_API_URL_ID, id)
+                        .header(HttpHeaders.RANGE, "bytes=7-10")
+                        .header(HttpHeaders.IF_RANGE, "\"other\"")
+                        .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        restAttachmentMockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, entityTag))
+                .andExpect(content().string(DEFAULT_ATTACHMENT_FILE_CONTENT));
+    }
+
+    @Test
+    void migrateAttachmentStorage() throws Exception {
+        // Initialize the database, the migration commits each content in a transaction of its own. Both files have
+        // the same content, which is stored once
+        saveMultipleFile(site.getId(), assessmentCriteria.getId());
+        List<AttachmentContent> contentList = attachmentContentRepository.findAll();
+        assertThat(contentList).hasSize(1);
+        assertThat(contentList).extracting(AttachmentContent::getStorage).containsOnly(AttachmentStore.DATABASE);
+
+        restAttachmentMockMvc
+                .perform(post(ENTITY_API_URL + "/storage/migrate")
+                        .param("from", AttachmentStore.DATABASE)
+                        .param("to", AttachmentStore.FILE_SYSTEM)
+                        .with(jwt().authorities(adminAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+
+        // The contents are moved to files named after their SHA-256 and id, and removed from the database
+        contentList = attachmentContentRepository.findAll();
+        assertThat(contentList).extracting(AttachmentContent::getStorage).containsOnly(AttachmentStore.FILE_SYSTEM);
+        assertThat(contentList).allMatch(content -> content.getContentKey().equals(content.getHash() + "-" + content.getId()));
+        Attachment migratedAttachment = attachmentRepository.findAll().stream()
+                .filter(attachment -> attachment.getFileName().equals(DEFAULT_ATTACHMENT_FILE_NAME))
+                .findFirst()
+                .orElseThrow();
+        assertThat(readContent(migratedAttachment)).isEmpty();
+
+        MvcResult mvcResult = restAttachmentMockMvc
+                .perform(get(ENTITY_API_URL_ID, migratedAttachment.getId())
+                        .header(HttpHeaders.RANGE, "bytes=7-10")
+                        .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        restAttachmentMockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE,
+                        "bytes 7-10/" + DEFAULT_ATTACHMENT_FILE_CONTENT.getBytes().length))
+                .andExpect(content().string(DEFAULT_ATTACHMENT_FILE_CONTENT.substring(7, 11)));
+
+        // And back
+        restAttachmentMockMvc
+                .perform(post(ENTITY_API_URL + "/storage/migrate")
+                        .param("from", AttachmentStore.FILE_SYSTEM)
+                        .param("to", AttachmentStore.DATABASE)
+                        .param("limit", "1")
+                        .with(jwt().authorities(adminAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+
+        Long firstId = contentList.stream().map(AttachmentContent::getId).min(Long::compare).orElseThrow();
+        AttachmentContent migratedContent = attachmentContentRepository.findById(firstId).orElseThrow();
+        assertThat(migratedContent.getStorage()).isEqualTo(AttachmentStore.DATABASE);
+        assertThat(migratedContent.getContentKey()).isNull();
+        assertThat(attachmentContentRepository.findDataSlice(firstId, 1, migratedContent.getLength().intValue()))
+                .isNotEmpty();
+    }
+
+    @Test
+    void migrateAttachmentStorageToUnknownStore() throws Exception {
+        restAttachmentMockMvc
+                .perform(post(ENTITY_API_URL + "/storage/migrate")
+                        .param("from", AttachmentStore.DATABASE)
+                        .param("to", "unknown")
+                        .with(jwt().authorities(adminAuthority))
+                )
+                .andExpect(status().isBadRequest());
+
+        restAttachmentMockMvc
+                .perform(post(ENTITY_API_URL + "/storage/migrate")
+                        .param("from", AttachmentStore.DATABASE)
+                        .param("to", AttachmentStore.FILE_SYSTEM)
+                        .with(jwt().authorities(writeAuthority))
+                )
+                .andExpect(status().isForbidden());
+    }
+
+    /**
+     * The content is not mapped on the entity, it is read from the {@code data} column of the database store.
+     */
+    private byte[] readContent(Attachment attachment) {
+        AttachmentContent content = attachmentContentRepository.findById(attachment.getContent().getId()).orElseThrow();
+        byte[] data = attachmentContentRepository.findDataSlice(content.getId(), 1, content.getLength().intValue());
+        return data == null ? new byte[0] : data;
+    }
+
+    private static String sha256(String content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes()));
+    }
+
     @AfterEach
     void tearDown() {
         entityManager.clear();
@@ -246,6 +558,8 @@ class AttachmentControllerIT {
         List<Attachment> attachmentList = attachmentRepository.findAll();
         assertThat(attachmentList).hasSize(0);
 
+        attachmentContentRepository.deleteAll();
+
         siteRepository.deleteAll();
         List<Site> siteList = siteRepository.findAll();
         assertThat(siteList).hasSize(0);
@@ -1,8 +1,6 @@
 package com.mes.techdebt.web.rest.controller;
 
 import com.mes.techdebt.IntegrationTest;
-import com.cargill.techdebt.domain.*;
-import com.cargill.techdebt.repository.*;
 import com.mes.techdebt.domain.*;
 import com.mes.techdebt.repository.*;
 import com.mes.techdebt.service.dto.CostToFixDTO;
@@ -0,0 +1,545 @@
+package com.mes.techdebt.web.rest.controller;
+
+import com.mes.techdebt.IntegrationTest;
+import com.mes.techdebt.domain.*;
+import com.mes.techdebt.repository.*;
+import com.mes.techdebt.service.AssessmentHierarchyService;
+import com.mes.techdebt.service.ChangeCountService;
+import com.mes.techdebt.service.DashboardService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mes.techdebt.web.rest.request.DashboardRequestDTO;
+import com.mes.techdebt.web.rest.request.SiteRequestDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Set;
+
+import static com.mes.techdebt.web.rest.controller.utils.TestUtil.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link DashboardController} REST controller.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+@Slf4j
+class DashboardControllerIT {
+
+    private static final String ENTITY_API_URL = "/api/v1/dashboard-data";
+    private static final String SITE_API_URL = ENTITY_API_URL + "/site";
+    private static final String HIERARCHY_API_URL = ENTITY_API_URL + "/hierarchy";
+    private static final String REGION_API_URL = ENTITY_API_URL + "/region";
+
+    private static final String REBUILD_API_URL = SITE_API_URL + "/rebuild";
+    private static final String ASSESSMENT_RESULT_API_URL_ID = "/api/v1/assessment-results/{id}";
+
+    // The hierarchy and site change counts, checked by the version and by the dashboard reads, then the assessment
+    // results and attachment metadata; the hierarchy is served from its snapshot
+    private static final long DASHBOARD_QUERY_BUDGET = 6;
+    // Only the change counts, the dashboard is served from memory
+    private static final long CACHED_DASHBOARD_QUERY_BUDGET = 4;
+    // Only the change counts of the version read
+    private static final long NOT_MODIFIED_QUERY_BUDGET = 2;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MockMvc restDashboardMockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private InvestmentCriticalityRepository investmentCriticalityRepository;
+    @Autowired
+    private RecommendationStatusRepository recommendationStatusRepository;
+    @Autowired
+    private AssessmentCriteriaRepository assessmentCriteriaRepository;
+    @Autowired
+    private SiteRepository siteRepository;
+    @Autowired
+    private AssessmentResultRepository assessmentResultRepository;
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private TechAreaRepository techAreaRepository;
+    @Autowired
+    private TechDomainRepository techDomainRepository;
+    @Autowired
+    private AssessmentHierarchyService assessmentHierarchyService;
+    @Autowired
+    private DashboardService dashboardService;
+    @Autowired
+    private ChangeCountService changeCountService;
+
+    private Site site;
+    private InvestmentCriticality investmentCriticality;
+    private RecommendationStatus recommendationStatus;
+    private TechDomain techDomain;
+    private TechArea techArea;
+    private Category category;
+    private AssessmentResult assessmentResult;
+    private int criteriaCount = 0;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        investmentCriticality = createInvestmentCriticalityEntity(DEFAULT_INVESTMENT_CRITICALITY);
+        techDomain = createTechDomainEntity(DEFAULT_DOMAIN_DESCRIPTION, DEFAULT_ACTIVE_FLAG);
+        techArea = createTechAreaEntity(techDomain, DEFAULT_TECH_AREA_DESCRIPTION, DEFAULT_ACTIVE_FLAG);
+        category = createCategoryEntity(techArea, DEFAULT_CATEGORY_DESCRIPTION, DEFAULT_ACTIVE_FLAG);
+        site = createSiteEntity(investmentCriticality, DEFAULT_SITE_NAME, DEFAULT_MDM_SITE_ID);
+        recommendationStatus = createRecommendationStatusEntity(DEFAULT_RECOMMENDATION_STATUS);
+
+        investmentCriticalityRepository.saveAndFlush(investmentCriticality);
+        techDomainRepository.saveAndFlush(techDomain);
+        techAreaRepository.saveAndFlush(techArea);
+        categoryRepository.saveAndFlush(category);
+        recommendationStatusRepository.saveAndFlush(recommendationStatus);
+        siteRepository.saveAndFlush(site);
+    }
+
+    private AssessmentCriteria createAssessedCriteria() {
+        criteriaCount++;
+        AssessmentCriteria assessmentCriteria = assessmentCriteriaRepository.saveAndFlush(
+                createAssessmentCriteriaEntity(category, DEFAULT_CRITERIA_DESCRIPTION + criteriaCount, DEFAULT_ACTIVE_FLAG));
+        assessmentResult = assessmentResultRepository.saveAndFlush(createAssessmentResultEntity(recommendationStatus,
+                assessmentCriteria, site, DEFAULT_ASSESSMENT_RESULT_RECOMMENDATION_TEXT));
+        attachmentRepository.saveAndFlush(new Attachment()
+                .site(site)
+                .assessmentCriteria(assessmentCriteria)
+                .fileName(DEFAULT_ATTACHMENT_FILE_NAME)
+                .fileType(DEFAULT_ATTACHMENT_FILE_TYPE)
+                .fileSize((long) DEFAULT_ATTACHMENT_FILE_CONTENT.length())
+                .createdBy(DEFAULT_ATTACHMENT_CREATOR)
+                .updatedBy(DEFAULT_ATTACHMENT_CREATOR));
+        // Test data is written straight through the repositories, so no hierarchy change event is published
+        assessmentHierarchyService.rebuild();
+        return assessmentCriteria;
+    }
+
+    private long countDashboardStatements() throws Exception {
+        // Start from an empty persistence context so every association has to be fetched from the database
+        entityManager.flush();
+        entityManager.clear();
+        return countStatements(this::performDashboardRequest);
+    }
+
+    private long countStatements(ThrowingRunnable request) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        request.run();
+
+        long statementCount = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        return statementCount;
+    }
+
+    private ResultActions performDashboardRequest() throws Exception {
+        DashboardRequestDTO dashboardRequest = new DashboardRequestDTO();
+        dashboardRequest.setName(site.getName());
+        return restDashboardMockMvc
+                .perform(
+                        post(SITE_API_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(convertObjectToJsonBytes(dashboardRequest))
+                                .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.[*].siteId").value(hasItem(site.getId().intValue())));
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    @Test
+    @Transactional
+    void getDashboardDataBySite() throws Exception {
+        AssessmentCriteria assessmentCriteria = createAssessedCriteria();
+        entityManager.flush();
+        entityManager.clear();
+
+        DashboardRequestDTO dashboardRequest = new DashboardRequestDTO();
+        dashboardRequest.setName(site.getName());
+        restDashboardMockMvc
+                .perform(
+                        post(SITE_API_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(convertObjectToJsonBytes(dashboardRequest))
+                                .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[?(@.assessmentCriteriaId == %d)].categoryId", assessmentCriteria.getId())
+                        .value(hasItem(category.getId().intValue())))
+                .andExpect(jsonPath("$.[?(@.assessmentCriteriaId == %d)].assessmentResults[0].site.id", assessmentCriteria.getId())
+                        .value(hasItem(site.getId().intValue())))
+                .andExpect(jsonPath("$.[?(@.assessmentCriteriaId == %d)].attachments[0].fileName", assessmentCriteria.getId())
+                        .value(hasItem(DEFAULT_ATTACHMENT_FILE_NAME)));
+    }
+
+    @Test
+    @Transactional
+    void getLatestDashboardDataBySite() throws Exception {
+        AssessmentCriteria assessmentCriteria = createAssessedCriteria();
+        AssessmentResult latestAssessmentResult = assessmentResultRepository.saveAndFlush(createAssessmentResultEntity(
+                recommendationStatus, assessmentCriteria, site, UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT));
+
+        DashboardRequestDTO dashboardRequest = new DashboardRequestDTO();
+        dashboardRequest.setName(site.getName());
+        restDashboardMockMvc
+                .perform(
+                        post(SITE_API_URL + "?latestOnly=true")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(convertObjectToJsonBytes(dashboardRequest))
+                                .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[?(@.assessmentCriteriaId == %d)].assessmentResults.length()", assessmentCriteria.getId())
+                        .value(hasItem(1)))
+                .andExpect(jsonPath("$.[?(@.assessmentCriteriaId == %d)].assessmentResults[0].id", assessmentCriteria.getId())
+                        .value(hasItem(latestAssessmentResult.getId().intValue())));
+
+        restDashboardMockMvc
+                .perform(
+                        post(SITE_API_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(convertObjectToJsonBytes(dashboardRequest))
+                                .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[?(@.assessmentCriteriaId == %d)].assessmentResults.length()", assessmentCriteria.getId())
+                        .value(hasItem(2)));
+    }
+
+    @Test
+    @Transactional
+    void streamDashboardDataBySite() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            createAssessedCriteria();
+        }
+
+        DashboardRequestDTO dashboardRequest = new DashboardRequestDTO();
+        dashboardRequest.setName(site.getName());
+        MvcResult mvcResult = restDashboardMockMvc
+                .perform(
+                        post(SITE_API_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_NDJSON)
+                                .content(convertObjectToJsonBytes(dashboardRequest))
+                                .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = restDashboardMockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(body).endsWith("\n");
+        assertThat(lines).hasSize(assessmentHierarchyService.getSnapshot().getActiveHierarchies().size());
+        long assessedRowCount = 0;
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            assertThat(row.get("siteId").asLong()).isEqualTo(site.getId());
+            if (!row.get("assessmentResults").isEmpty()) {
+                assessedRowCount++;
+            }
+        }
+        assertThat(assessedRowCount).isEqualTo(criteriaCount);
+    }
+
+    @Test
+    @Transactional
+    void dashboardQueryCountDoesNotGrowWithCriteria() throws Exception {
+        createAssessedCriteria();
+        long statementsForOneCriteria = countDashboardStatements();
+
+        for (int i = 0; i < 20; i++) {
+            createAssessedCriteria();
+        }
+        long statementsForManyCriteria = countDashboardStatements();
+
+        log.debug("Dashboard statements for 1 criteria: {}, for {} criteria: {}",
+                statementsForOneCriteria, criteriaCount, statementsForManyCriteria);
+        assertThat(statementsForOneCriteria).isLessThanOrEqualTo(DASHBOARD_QUERY_BUDGET);
+        assertThat(statementsForManyCriteria).isLessThanOrEqualTo(statementsForOneCriteria);
+    }
+
+    @Test
+    @Transactional
+    void repeatedDashboardReadIsServedFromSnapshot() throws Exception {
+        createAssessedCriteria();
+        countDashboardStatements();
+
+        long statementsForCachedDashboard = countDashboardStatements();
+        assertThat(statementsForCachedDashboard).isLessThanOrEqualTo(CACHED_DASHBOARD_QUERY_BUDGET);
+    }
+
+    @Test
+    void dashboardRowIsRefreshedOnAssessmentResultWrite() throws Exception {
+        // Not transactional: the patch below has to commit for the dashboard row to be refreshed
+        AssessmentCriteria assessmentCriteria = createAssessedCriteria();
+        performDashboardRequest();
+
+        AssessmentResult partialUpdatedAssessmentResult = new AssessmentResult();
+        partialUpdatedAssessmentResult.setId(assessmentResult.getId());
+        partialUpdatedAssessmentResult.setRecommendationText(UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT);
+        restDashboardMockMvc
+                .perform(
+                        patch(ASSESSMENT_RESULT_API_URL_ID, assessmentResult.getId())
+                                .contentType("application/merge-patch+json")
+                                .content(convertObjectToJsonBytes(partialUpdatedAssessmentResult))
+                                .with(jwt().authorities(writeAuthority))
+                )
+                .andExpect(status().isOk());
+
+        long statementsAfterWrite = countStatements(() -> performDashboardRequest()
+                .andExpect(jsonPath("$.[?(@.assessmentCriteriaId == %d)].assessmentResults[0].recommendationText",
+                        assessmentCriteria.getId())
+                        .value(hasItem(UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT))));
+        assertThat(statementsAfterWrite).isLessThanOrEqualTo(CACHED_DASHBOARD_QUERY_BUDGET);
+    }
+
+    @Test
+    void siteDashboardIsRebuiltOnWriteOfAnotherInstance() throws Exception {
+        // Not transactional: the write below has to commit, as it would on another instance
+        AssessmentCriteria assessmentCriteria = createAssessedCriteria();
+        String etag = performDashboardRequest()
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Written without publishing any event on this instance, only the change is counted in the database
+        assessmentResultRepository.saveAndFlush(assessmentResult.recommendationText(UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT));
+        changeCountService.countSiteChanges(List.of(site.getId()));
+
+        DashboardRequestDTO dashboardRequest = new DashboardRequestDTO();
+        dashboardRequest.setName(site.getName());
+        restDashboardMockMvc
+                .perform(
+                        post(SITE_API_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                                .content(convertObjectToJsonBytes(dashboardRequest))
+                                .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.[?(@.assessmentCriteriaId == %d)].assessmentResults[0].recommendationText",
+                        assessmentCriteria.getId())
+                        .value(hasItem(UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT)));
+    }
+
+    @Test
+    void siteDashboardIsRevalidatedWithETag() throws Exception {
+        // Not transactional: the patch below has to commit for the dashboard version to change
+        createAssessedCriteria();
+
+        String etag = performDashboardRequest()
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        DashboardRequestDTO dashboardRequest = new DashboardRequestDTO();
+        dashboardRequest.setName(site.getName());
+        long statementsForNotModified = countStatements(() -> restDashboardMockMvc
+                .perform(
+                        post(SITE_API_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                                .content(convertObjectToJsonBytes(dashboardRequest))
+                                .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string("")));
+        assertThat(statementsForNotModified).isLessThanOrEqualTo(NOT_MODIFIED_QUERY_BUDGET);
+
+        // The latest rows are another representation with their own entity tag
+        restDashboardMockMvc
+                .perform(
+                        post(SITE_API_URL + "?latestOnly=true")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                                .content(convertObjectToJsonBytes(dashboardRequest))
+                                .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+
+        AssessmentResult partialUpdatedAssessmentResult = new AssessmentResult();
+        partialUpdatedAssessmentResult.setId(assessmentResult.getId());
+        partialUpdatedAssessmentResult.setRecommendationText(UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT);
+        restDashboardMockMvc
+                .perform(
+                        patch(ASSESSMENT_RESULT_API_URL_ID, assessmentResult.getId())
+                                .contentType("application/merge-patch+json")
+                                .content(convertObjectToJsonBytes(partialUpdatedAssessmentResult))
+                                .with(jwt().authorities(writeAuthority))
+                )
+                .andExpect(status().isOk());
+
+        restDashboardMockMvc
+                .perform(
+                        post(SITE_API_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                                .content(convertObjectToJsonBytes(dashboardRequest))
+                                .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    @Transactional
+    void rebuildSiteDashboards() throws Exception {
+        createAssessedCriteria();
+
+        restDashboardMockMvc
+                .perform(post(REBUILD_API_URL).with(jwt().authorities(readAuthority)))
+                .andExpect(status().isForbidden());
+
+        restDashboardMockMvc
+                .perform(post(REBUILD_API_URL).with(jwt().authorities(adminAuthority)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(greaterThanOrEqualTo(1)));
+
+        long statementsAfterRebuild = countStatements(this::performDashboardRequest);
+        assertThat(statementsAfterRebuild).isLessThanOrEqualTo(CACHED_DASHBOARD_QUERY_BUDGET);
+    }
+
+    @Test
+    @Transactional
+    void getRegionDashboard() throws Exception {
+        AssessmentCriteria assessmentCriteria = assessmentCriteriaRepository.saveAndFlush(
+                createAssessmentCriteriaEntity(category, DEFAULT_CRITERIA_DESCRIPTION, DEFAULT_ACTIVE_FLAG));
+        siteRepository.saveAndFlush(site.region(DEFAULT_REGION));
+        Site otherSite = siteRepository.saveAndFlush(
+                createSiteEntity(investmentCriticality, UPDATED_SITE_NAME, UPDATED_MDM_SITE_ID).region(DEFAULT_REGION));
+        assessmentResultRepository.saveAndFlush(createAssessmentResultEntity(recommendationStatus, assessmentCriteria,
+                site, DEFAULT_ASSESSMENT_RESULT_RECOMMENDATION_TEXT).score(2.0));
+        assessmentResultRepository.saveAndFlush(createAssessmentResultEntity(recommendationStatus, assessmentCriteria,
+                site, UPDATED_ASSESSMENT_RESULT_RECOMMENDATION_TEXT).score(4.0));
+        assessmentResultRepository.saveAndFlush(createAssessmentResultEntity(recommendationStatus, assessmentCriteria,
+                otherSite, DEFAULT_ASSESSMENT_RESULT_RECOMMENDATION_TEXT).score(6.0));
+
+        SiteRequestDTO siteRequest = new SiteRequestDTO();
+        siteRequest.setRegion(Set.of(DEFAULT_REGION));
+        restDashboardMockMvc
+                .perform(
+                        post(REGION_API_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(convertObjectToJsonBytes(siteRequest))
+                                .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.regions[0].region").value(DEFAULT_REGION))
+                .andExpect(jsonPath("$.regions[0].siteCount").value(2))
+                .andExpect(jsonPath("$.regions[0].categories[0].id").value(category.getId().intValue()))
+                .andExpect(jsonPath("$.regions[0].categories[0].resultCount").value(3))
+                .andExpect(jsonPath("$.regions[0].categories[0].averageScore").value(4.0))
+                .andExpect(jsonPath("$.regions[0].domains[0].id").value(techDomain.getId().intValue()))
+                .andExpect(jsonPath("$.regions[0].domains[0].averageScore").value(4.0))
+                .andExpect(jsonPath("$.sites[?(@.siteId == %d)].techAreas[0].averageScore", site.getId())
+                        .value(hasItem(3.0)))
+                .andExpect(jsonPath("$.sites[?(@.siteId == %d)].techAreas[0].averageScore", otherSite.getId())
+                        .value(hasItem(6.0)));
+
+        restDashboardMockMvc
+                .perform(
+                        post(REGION_API_URL + "?latestOnly=true")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(convertObjectToJsonBytes(siteRequest))
+                                .with(jwt().authorities(readAuthority))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.regions[0].categories[0].resultCount").value(2))
+                .andExpect(jsonPath("$.regions[0].categories[0].averageScore").value(5.0))
+                .andExpect(jsonPath("$.sites[?(@.siteId == %d)].categories[0].averageScore", site.getId())
+                        .value(hasItem(4.0)));
+    }
+
+    @Test
+    @Transactional
+    void getHierarchyIsRevalidatedWithETag() throws Exception {
+        AssessmentCriteria assessmentCriteria = createAssessedCriteria();
+
+        String etag = restDashboardMockMvc
+                .perform(get(HIERARCHY_API_URL).with(jwt().authorities(readAuthority)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.[*].assessmentCriteriaId").value(hasItem(assessmentCriteria.getId().intValue())))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        restDashboardMockMvc
+                .perform(get(HIERARCHY_API_URL)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .with(jwt().authorities(readAuthority)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Any hierarchy write yields a new snapshot with a different entity tag
+        long version = assessmentHierarchyService.getSnapshot().getVersion();
+        createAssessedCriteria();
+        assertThat(assessmentHierarchyService.getSnapshot().getVersion()).isGreaterThan(version);
+
+        restDashboardMockMvc
+                .perform(get(HIERARCHY_API_URL)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .with(jwt().authorities(readAuthority)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.clear();
+
+        attachmentRepository.deleteAll();
+        assessmentResultRepository.deleteAll();
+        siteRepository.deleteAll();
+        recommendationStatusRepository.deleteAll();
+        investmentCriticalityRepository.deleteAll();
+        assessmentCriteriaRepository.deleteAll();
+        categoryRepository.deleteAll();
+        techAreaRepository.deleteAll();
+        techDomainRepository.deleteAll();
+        assertThat(assessmentResultRepository.findAll()).isEmpty();
+        assessmentHierarchyService.rebuild();
+        // Sites are deleted straight through the repository, so their dashboards have to be dropped as well
+        dashboardService.rebuildSiteDashboards();
+    }
+}
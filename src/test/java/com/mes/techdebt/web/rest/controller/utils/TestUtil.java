@@ -1,11 +1,10 @@
 package com.mes.techdebt.web.rest.controller.utils;
 
-import com.cargill.techdebt.domain.*;
+import com.mes.techdebt.domain.*;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.mes.techdebt.domain.*;
 import org.hamcrest.Description;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
 import org.hamcrest.TypeSafeMatcher;
@@ -52,6 +51,7 @@ public final class TestUtil {
     public static final String UPDATED_SITE_NAME = "NewTestSite";
     public static final Long DEFAULT_MDM_SITE_ID = 1L;
     public static final Long UPDATED_MDM_SITE_ID = 2L;
+    public static final String DEFAULT_REGION = "TestRegion";
     public static final String DEFAULT_RECOMMENDATION_STATUS = "TestRecommendationStatus";
     public static final String UPDATED_RECOMMENDATION_STATUS = "NewRecommendationStatus";
     public static final String DEFAULT_ASSESSMENT_RESULT_RECOMMENDATION_TEXT = "TestAssessmentResultRecommendationText";